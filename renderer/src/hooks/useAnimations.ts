@@ -1,9 +1,11 @@
 import React from 'react';
 import {Easing, interpolate, useCurrentFrame, useVideoConfig} from 'remotion';
-import {trackSchema} from '../schemas/timeline';
+import {segmentSchema, trackSchema, tweenSegmentSchema} from '../schemas/timeline';
 import {z} from 'zod';
 
 export type TimelineTrack = z.infer<typeof trackSchema>;
+type TimelineSegment = z.infer<typeof segmentSchema>;
+type TweenSegment = z.infer<typeof tweenSegmentSchema>;
 
 const easingFromSegment = (easing: string) => {
   const match = easing.match(/\((.*?)\)/);
@@ -45,6 +47,115 @@ const isPositionValue = (value: unknown): value is {x: number; y: number} => {
   );
 };
 
+const progressAt = (frame: number, frameStart: number, frameEnd: number, easing: string) => {
+  return interpolate(frame, [frameStart, frameEnd], [0, 1], {
+    extrapolateLeft: 'clamp',
+    extrapolateRight: 'clamp',
+    easing: easingFromSegment(easing),
+  });
+};
+
+const ease = (easing: string, fraction: number) => {
+  const easingFunction = easingFromSegment(easing);
+  return easingFunction ? easingFunction(fraction) : fraction;
+};
+
+const applyTween = (segment: TweenSegment, frame: number, fps: number, latestValue: Record<string, any>) => {
+  const frameStart = segment.t0 * fps;
+  const frameEnd = segment.t1 * fps;
+  const easingFunction = easingFromSegment(segment.easing);
+  const from = segment.from;
+  const to = segment.to;
+  if (typeof from === 'number' && typeof to === 'number') {
+    latestValue[segment.property] = interpolate(frame, [frameStart, frameEnd], [from, to], {
+      extrapolateLeft: 'clamp',
+      extrapolateRight: 'clamp',
+      easing: easingFunction,
+    });
+    return;
+  }
+
+  if (isPositionValue(from) && isPositionValue(to)) {
+    const x = interpolate(frame, [frameStart, frameEnd], [from.x, to.x], {
+      extrapolateLeft: 'clamp',
+      extrapolateRight: 'clamp',
+      easing: easingFunction,
+    });
+    const y = interpolate(frame, [frameStart, frameEnd], [from.y, to.y], {
+      extrapolateLeft: 'clamp',
+      extrapolateRight: 'clamp',
+      easing: easingFunction,
+    });
+    latestValue[segment.property] = {x, y};
+    return;
+  }
+
+  if (typeof from === 'string' && typeof to === 'string') {
+    const midpoint = frameStart + (frameEnd - frameStart) / 2;
+    latestValue[segment.property] = frame <= midpoint ? from : to;
+    return;
+  }
+
+  latestValue[segment.property] = frame <= frameStart ? from : to;
+};
+
+// Point at distance `distance` along a polyline whose cumulative lengths are `lengths`, eased within its leg.
+const pointAlongPath = (points: {x: number; y: number}[], lengths: number[], distance: number, easing: string) => {
+  let leg = 1;
+  while (leg < points.length - 1 && lengths[leg] < distance) {
+    leg++;
+  }
+  if (points.length === 1) {
+    return points[0];
+  }
+  const legLength = lengths[leg] - lengths[leg - 1];
+  const fraction = legLength > 0 ? ease(easing, Math.min(Math.max((distance - lengths[leg - 1]) / legLength, 0), 1)) : 1;
+  const from = points[leg - 1];
+  const to = points[leg];
+  return {x: from.x + (to.x - from.x) * fraction, y: from.y + (to.y - from.y) * fraction};
+};
+
+const applySegment = (segment: TimelineSegment, frame: number, fps: number, latestValue: Record<string, any>) => {
+  if (!('kind' in segment)) {
+    applyTween(segment, frame, fps, latestValue);
+    return;
+  }
+  const frameStart = segment.t0 * fps;
+  const frameEnd = segment.t1 * fps;
+  switch (segment.kind) {
+    case 'arc': {
+      const progress = progressAt(frame, frameStart, frameEnd, 'linear') * segment.steps;
+      const step = Math.min(Math.floor(progress), segment.steps - 1);
+      const stepProgress = (step + ease(segment.easing, progress - step)) / segment.steps;
+      const angle = segment.startAngle + (segment.endAngle - segment.startAngle) * stepProgress;
+      latestValue[segment.property] = {
+        x: segment.center.x + segment.radius * Math.cos(angle),
+        y: segment.center.y + segment.radius * Math.sin(angle),
+      };
+      return;
+    }
+    case 'path': {
+      const progress = progressAt(frame, frameStart, frameEnd, 'linear');
+      const total = segment.lengths[segment.lengths.length - 1] ?? 0;
+      latestValue[segment.property] = pointAlongPath(segment.points, segment.lengths, progress * total, segment.easing);
+      return;
+    }
+    case 'repeat': {
+      // The cycle only takes over once the repeat has started; afterwards it rests at the end of its last cycle.
+      if (frame < frameStart) {
+        return;
+      }
+      const periodFrames = segment.period * fps;
+      const elapsed = Math.min(frame, frameEnd) - frameStart;
+      const cycleFrame = frame >= frameEnd ? periodFrames : elapsed % periodFrames;
+      for (const inner of segment.segments) {
+        applyTween(inner, cycleFrame, fps, latestValue);
+      }
+      return;
+    }
+  }
+};
+
 export const useAnimations = (tracks: TimelineTrack[]) => {
   const frame = useCurrentFrame();
   const {fps} = useVideoConfig();
@@ -53,43 +164,7 @@ export const useAnimations = (tracks: TimelineTrack[]) => {
   for (const track of tracks) {
     const latestValue: Record<string, any> = {};
     for (const segment of track.segments) {
-      const frameStart = segment.t0 * fps;
-      const frameEnd = segment.t1 * fps;
-      const easingFunction = easingFromSegment(segment.easing);
-      const from = segment.from;
-      const to = segment.to;
-      if (typeof from === 'number' && typeof to === 'number') {
-        const value = interpolate(frame, [frameStart, frameEnd], [from, to], {
-          extrapolateLeft: 'clamp',
-          extrapolateRight: 'clamp',
-          easing: easingFunction,
-        });
-        latestValue[segment.property] = value;
-        continue;
-      }
-
-      if (isPositionValue(from) && isPositionValue(to)) {
-        const x = interpolate(frame, [frameStart, frameEnd], [from.x, to.x], {
-          extrapolateLeft: 'clamp',
-          extrapolateRight: 'clamp',
-          easing: easingFunction,
-        });
-        const y = interpolate(frame, [frameStart, frameEnd], [from.y, to.y], {
-          extrapolateLeft: 'clamp',
-          extrapolateRight: 'clamp',
-          easing: easingFunction,
-        });
-        latestValue[segment.property] = {x, y};
-        continue;
-      }
-
-      if (typeof from === 'string' && typeof to === 'string') {
-        const midpoint = frameStart + (frameEnd - frameStart) / 2;
-        latestValue[segment.property] = frame <= midpoint ? from : to;
-        continue;
-      }
-
-      latestValue[segment.property] = frame <= frameStart ? from : to;
+      applySegment(segment, frame, fps, latestValue);
     }
 
     let finalTransform = calculateTransform(latestValue);
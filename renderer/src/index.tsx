@@ -1,8 +1,9 @@
 import {Composition, registerRoot, getInputProps} from 'remotion';
 import {Main as MainComposition, mainSchema} from './remotion/Main';
+import {expandTimeline} from './schemas/timeline';
 
 const defaultTimeline = {
-  version: '1.1.0',
+  version: '1.2.0',
   stage: {
     width: 1280,
     height: 720,
@@ -125,7 +126,7 @@ const defaultTimeline = {
 
 registerRoot(() => {
   const inputProps = getInputProps();
-  const timeline = (inputProps as any)?.timeline || defaultTimeline;
+  const timeline: any = expandTimeline((inputProps as any)?.timeline) || defaultTimeline;
   
   const maxTime = timeline.tracks && Array.isArray(timeline.tracks)
     ? Math.max(...timeline.tracks.flatMap((t: any) => t.segments.map((s: any) => s.t1)), 5)
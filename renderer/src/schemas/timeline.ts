@@ -22,7 +22,7 @@ export const edgeStyleSchema = z.object({
   arrowStyle: z.string(),
 });
 
-export const segmentSchema = z.object({
+export const tweenSegmentSchema = z.object({
   t0: z.number(),
   t1: z.number(),
   property: z.string(),
@@ -31,6 +31,45 @@ export const segmentSchema = z.object({
   easing: z.string(),
 });
 
+export const arcSegmentSchema = z.object({
+  t0: z.number(),
+  t1: z.number(),
+  property: z.string(),
+  kind: z.literal('arc'),
+  center: pointSchema,
+  radius: z.number(),
+  startAngle: z.number(),
+  endAngle: z.number(),
+  steps: z.number(),
+  easing: z.string(),
+});
+
+export const pathSegmentSchema = z.object({
+  t0: z.number(),
+  t1: z.number(),
+  property: z.string(),
+  kind: z.literal('path'),
+  points: z.array(pointSchema),
+  lengths: z.array(z.number()),
+  easing: z.string(),
+});
+
+export const repeatSegmentSchema = z.object({
+  t0: z.number(),
+  t1: z.number(),
+  property: z.string(),
+  kind: z.literal('repeat'),
+  period: z.number(),
+  segments: z.array(tweenSegmentSchema),
+});
+
+export const segmentSchema = z.union([
+  arcSegmentSchema,
+  pathSegmentSchema,
+  repeatSegmentSchema,
+  tweenSegmentSchema,
+]);
+
 export const trackSchema = z.object({
   id: z.string(),
   type: z.string(),
@@ -70,3 +109,41 @@ export const timelineSchema = z.object({
 
 export type TimelineSchema = z.infer<typeof timelineSchema>;
 
+
+/**
+ * Compact encoding sent with `X-Timeline-Encoding: compact`: styles live once in a shared table and
+ * nodes and edges reference them by key, with coordinates and times already rounded by the server.
+ */
+export const compactTimelineSchema = z.object({
+  version: z.string(),
+  encoding: z.literal('compact'),
+  precision: z.number(),
+  stage: z.object({
+    width: z.number(),
+    height: z.number(),
+  }),
+  styles: z.record(z.string(), z.unknown()),
+  nodes: z.array(nodeSchema.omit({visualStyle: true}).extend({style: z.string()})),
+  edges: z.array(edgeSchema.omit({edgeStyle: true}).extend({style: z.string()})),
+  tracks: z.array(trackSchema),
+});
+
+export type CompactTimelineSchema = z.infer<typeof compactTimelineSchema>;
+
+/**
+ * Expands a compact timeline back into the full one by resolving style keys; any other input is
+ * returned unchanged so both encodings can be passed through the same props.
+ */
+export const expandTimeline = <T,>(timeline: T | CompactTimelineSchema): T | TimelineSchema => {
+  if (!timeline || (timeline as {encoding?: unknown}).encoding !== 'compact') {
+    return timeline as T;
+  }
+  const compact = compactTimelineSchema.parse(timeline);
+  return {
+    version: compact.version,
+    stage: compact.stage,
+    nodes: compact.nodes.map(({style, ...node}) => ({...node, visualStyle: compact.styles[style]})),
+    edges: compact.edges.map(({style, ...edge}) => ({...edge, edgeStyle: compact.styles[style]})),
+    tracks: compact.tracks,
+  } as TimelineSchema;
+};
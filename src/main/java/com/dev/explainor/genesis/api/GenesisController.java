@@ -2,11 +2,16 @@ package com.dev.explainor.genesis.api;
 
 import com.dev.explainor.genesis.dto.FinalTimelineV1;
 import com.dev.explainor.genesis.dto.StoryboardV1;
+import com.dev.explainor.genesis.dto.TimelineEncoding;
+import com.dev.explainor.genesis.service.CompactTimelineEncoder;
 import com.dev.explainor.genesis.service.GenesisConductorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/genesis")
@@ -15,16 +20,45 @@ public class GenesisController {
     private static final Logger log = LoggerFactory.getLogger(GenesisController.class);
 
     private final GenesisConductorService conductorService;
+    private final CompactTimelineEncoder compactEncoder;
+    private final ObjectMapper objectMapper;
 
-    public GenesisController(GenesisConductorService conductorService) {
+    public GenesisController(GenesisConductorService conductorService, CompactTimelineEncoder compactEncoder,
+                             ObjectMapper objectMapper) {
         this.conductorService = conductorService;
+        this.compactEncoder = compactEncoder;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/choreograph")
-    public ResponseEntity<FinalTimelineV1> choreograph(@RequestBody @jakarta.validation.Valid StoryboardV1 storyboard) {
+    public ResponseEntity<Object> choreograph(
+            @RequestBody @jakarta.validation.Valid StoryboardV1 storyboard,
+            @RequestHeader(value = TimelineEncoding.HEADER, required = false) String requestedEncoding) {
         log.info("Received choreograph request for storyboard v{}", storyboard.version());
+        TimelineEncoding encoding = TimelineEncoding.fromHeader(requestedEncoding);
         FinalTimelineV1 timeline = conductorService.choreograph(storyboard);
-        return ResponseEntity.ok(timeline);
+        return ResponseEntity.ok()
+            .header(TimelineEncoding.HEADER, encoding.headerValue())
+            .varyBy(TimelineEncoding.HEADER)
+            .body(compactEncoder.encode(timeline, encoding));
+    }
+
+    /** The storyboard is validated before the response starts, so a bad one still gets a plain error response. */
+    @PostMapping(value = "/choreograph/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> choreographStream(
+            @RequestBody @jakarta.validation.Valid StoryboardV1 storyboard) {
+        log.info("Received streaming choreograph request for storyboard v{}", storyboard.version());
+        GenesisConductorService.TimelineStream stream = conductorService.stream(storyboard);
+        StreamingResponseBody body = out -> {
+            try (NdjsonTimelineWriter writer = new NdjsonTimelineWriter(objectMapper, out)) {
+                stream.writeTo(writer);
+            } catch (RuntimeException e) {
+                log.error("Streaming choreography failed after the response started", e);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
     }
 
     @GetMapping("/health")
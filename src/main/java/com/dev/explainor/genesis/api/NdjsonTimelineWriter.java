@@ -0,0 +1,113 @@
+package com.dev.explainor.genesis.api;
+
+import com.dev.explainor.genesis.dto.AnimationTrack;
+import com.dev.explainor.genesis.dto.Stage;
+import com.dev.explainor.genesis.dto.TimelineEdge;
+import com.dev.explainor.genesis.dto.TimelineNode;
+import com.dev.explainor.genesis.service.TimelineSink;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * One JSON object per line, flushed after the layout and then every {@value #FLUSH_INTERVAL} tracks. A stream
+ * ending without {@code end} or {@code error} was aborted.
+ */
+public final class NdjsonTimelineWriter implements TimelineSink, AutoCloseable {
+
+    private static final int FLUSH_INTERVAL = 64;
+
+    private final ObjectMapper objectMapper;
+    private final OutputStream out;
+    private JsonGenerator generator;
+    private int nodeCount;
+    private int edgeCount;
+    private int trackCount;
+
+    public NdjsonTimelineWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.objectMapper = objectMapper;
+        this.out = out;
+        this.generator = createGenerator();
+    }
+
+    @Override
+    public void begin(String version, Stage stage, List<TimelineNode> nodes, List<TimelineEdge> edges)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "header");
+        generator.writeStringField("version", version);
+        generator.writeObjectField("stage", stage);
+        endLine();
+        for (TimelineNode node : nodes) {
+            writeLine("node", node);
+        }
+        for (TimelineEdge edge : edges) {
+            writeLine("edge", edge);
+        }
+        nodeCount = nodes.size();
+        edgeCount = edges.size();
+        generator.flush();
+    }
+
+    @Override
+    public void track(AnimationTrack track) throws IOException {
+        writeLine("track", track);
+        if (++trackCount % FLUSH_INTERVAL == 0) {
+            generator.flush();
+        }
+    }
+
+    @Override
+    public void end() throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "end");
+        generator.writeNumberField("nodes", nodeCount);
+        generator.writeNumberField("edges", edgeCount);
+        generator.writeNumberField("tracks", trackCount);
+        endLine();
+        generator.flush();
+    }
+
+    /** Starts on a fresh line from a new generator, since a failure may leave a line unfinished. */
+    @Override
+    public void error(String message) throws IOException {
+        if (!generator.getOutputContext().inRoot()) {
+            generator.flush();
+            generator = createGenerator();
+            generator.writeRaw('\n');
+        }
+        generator.writeStartObject();
+        generator.writeStringField("type", "error");
+        generator.writeStringField("message", message);
+        endLine();
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    private JsonGenerator createGenerator() throws IOException {
+        JsonGenerator created = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        created.setRootValueSeparator(null);
+        return created;
+    }
+
+    private void writeLine(String type, Object value) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+        generator.writeObjectField(type, value);
+        endLine();
+    }
+
+    private void endLine() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,40 @@
+package com.dev.explainor.genesis.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "choreography")
+public class ChoreographyProperties {
+
+    private ExecutionMode mode = ExecutionMode.SEQUENTIAL;
+    private int parallelism = 4;
+    private int trackParallelism = 1;
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    public void setMode(ExecutionMode mode) {
+        this.mode = mode;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getTrackParallelism() {
+        return trackParallelism;
+    }
+
+    public void setTrackParallelism(int trackParallelism) {
+        this.trackParallelism = trackParallelism;
+    }
+
+    public enum ExecutionMode {
+        SEQUENTIAL,
+        STAGED
+    }
+}
@@ -0,0 +1,53 @@
+package com.dev.explainor.genesis.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "layout.force")
+public class ForceLayoutProperties {
+
+    private double idealEdgeLength = 220.0;
+    private int maxIterations = 300;
+    private double energyThreshold = 0.01;
+    private double theta = 0.8;
+    private long seed = 42L;
+
+    public double getIdealEdgeLength() {
+        return idealEdgeLength;
+    }
+
+    public void setIdealEdgeLength(double idealEdgeLength) {
+        this.idealEdgeLength = idealEdgeLength;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public double getEnergyThreshold() {
+        return energyThreshold;
+    }
+
+    public void setEnergyThreshold(double energyThreshold) {
+        this.energyThreshold = energyThreshold;
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    public void setTheta(double theta) {
+        this.theta = theta;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
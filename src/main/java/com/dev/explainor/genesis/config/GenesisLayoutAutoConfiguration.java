@@ -1,16 +1,25 @@
 package com.dev.explainor.genesis.config;
 
 import com.dev.explainor.genesis.layout.AStarPathSolver;
+import com.dev.explainor.genesis.layout.AnytimePathSolver;
+import com.dev.explainor.genesis.layout.BidirectionalAStarPathSolver;
+import com.dev.explainor.genesis.layout.CachingPathSolver;
 import com.dev.explainor.genesis.layout.GridBuilder;
+import com.dev.explainor.genesis.layout.HierarchicalPathSolver;
+import com.dev.explainor.genesis.layout.IndexedAStarPathSolver;
+import com.dev.explainor.genesis.layout.JumpPointSearchSolver;
+import com.dev.explainor.genesis.layout.OrthogonalVisibilityRouter;
 import com.dev.explainor.genesis.layout.PathFinder;
 import com.dev.explainor.genesis.layout.PathFindingCoordinator;
+import com.dev.explainor.genesis.layout.PathSolver;
 import com.dev.explainor.genesis.validation.StoryboardValidator;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@EnableConfigurationProperties(LayoutProperties.class)
+@EnableConfigurationProperties({LayoutProperties.class, ForceLayoutProperties.class, ChoreographyProperties.class,
+    TimelineEncodingProperties.class})
 public class GenesisLayoutAutoConfiguration {
 
     @Bean
@@ -24,10 +33,31 @@ public class GenesisLayoutAutoConfiguration {
     }
 
     @Bean
-    public PathFinder pathFinder(GridBuilder gridBuilder) {
-        int explorationMargin = 50;
-        int maxIterations = 10000;
-        return new PathFindingCoordinator(gridBuilder, new AStarPathSolver(explorationMargin, maxIterations));
+    public PathSolver pathSolver(LayoutProperties properties) {
+        int explorationMargin = properties.getExplorationMargin();
+        int maxIterations = properties.getMaxIterations();
+        PathSolver solver = switch (properties.getPathSolver()) {
+            case ASTAR -> new AStarPathSolver(explorationMargin, maxIterations);
+            case INDEXED_ASTAR -> new IndexedAStarPathSolver(explorationMargin, maxIterations);
+            case JUMP_POINT -> new JumpPointSearchSolver(explorationMargin, maxIterations);
+            case ANYTIME -> new AnytimePathSolver(explorationMargin, maxIterations);
+            case HIERARCHICAL -> new HierarchicalPathSolver(explorationMargin, maxIterations, properties.getClusterSize());
+            case BIDIRECTIONAL -> new BidirectionalAStarPathSolver(explorationMargin, maxIterations);
+        };
+        if (properties.getRouteCacheSize() <= 0) {
+            return solver;
+        }
+        return new CachingPathSolver(solver, properties.getRouteCacheSize());
+    }
+
+    @Bean
+    public PathFinder pathFinder(GridBuilder gridBuilder, PathSolver pathSolver, LayoutProperties properties) {
+        return switch (properties.getRouter()) {
+            case GRID -> new PathFindingCoordinator(
+                gridBuilder, pathSolver, properties.getRoutingParallelism(), properties.getFanOutThreshold(),
+                properties.getRouteBudget(), properties.getRequestBudget(), properties.getCongestionPasses());
+            case VISIBILITY -> new OrthogonalVisibilityRouter(properties);
+        };
     }
 }
 
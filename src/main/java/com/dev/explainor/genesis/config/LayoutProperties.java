@@ -2,12 +2,33 @@ package com.dev.explainor.genesis.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "layout.graph")
 public class LayoutProperties {
 
     private double layerSpacing = 160.0;
     private double nodeSpacing = 220.0;
     private double gridStep = 40.0;
+    private double obstaclePadding = 10.0;
+    private CycleBreaking cycleBreaking = CycleBreaking.NONE;
+    private OrderingType ordering = OrderingType.INPUT;
+    private int orderingSweeps = 12;
+    private CoordinateAssignment coordinates = CoordinateAssignment.CENTERED;
+    private boolean packComponents = false;
+    private int layoutParallelism = 1;
+    private int placementCacheSize = 0;
+    private RouterType router = RouterType.GRID;
+    private PathSolverType pathSolver = PathSolverType.INDEXED_ASTAR;
+    private int routingParallelism = 1;
+    private int routeCacheSize = 2048;
+    private int fanOutThreshold = 0;
+    private int explorationMargin = 50;
+    private int maxIterations = 10000;
+    private int clusterSize = 16;
+    private int congestionPasses = 0;
+    private Duration routeBudget = Duration.ZERO;
+    private Duration requestBudget = Duration.ZERO;
 
     public double getLayerSpacing() {
         return layerSpacing;
@@ -32,8 +53,186 @@ public class LayoutProperties {
     public void setGridStep(double gridStep) {
         this.gridStep = gridStep;
     }
-}
 
+    public double getObstaclePadding() {
+        return obstaclePadding;
+    }
+
+    public void setObstaclePadding(double obstaclePadding) {
+        this.obstaclePadding = obstaclePadding;
+    }
+
+    public CycleBreaking getCycleBreaking() {
+        return cycleBreaking;
+    }
+
+    public void setCycleBreaking(CycleBreaking cycleBreaking) {
+        this.cycleBreaking = cycleBreaking;
+    }
+
+    public OrderingType getOrdering() {
+        return ordering;
+    }
+
+    public void setOrdering(OrderingType ordering) {
+        this.ordering = ordering;
+    }
+
+    public int getOrderingSweeps() {
+        return orderingSweeps;
+    }
+
+    public void setOrderingSweeps(int orderingSweeps) {
+        this.orderingSweeps = orderingSweeps;
+    }
 
+    public CoordinateAssignment getCoordinates() {
+        return coordinates;
+    }
+
+    public void setCoordinates(CoordinateAssignment coordinates) {
+        this.coordinates = coordinates;
+    }
+
+    public boolean isPackComponents() {
+        return packComponents;
+    }
 
+    public void setPackComponents(boolean packComponents) {
+        this.packComponents = packComponents;
+    }
+
+    public int getLayoutParallelism() {
+        return layoutParallelism;
+    }
+
+    public void setLayoutParallelism(int layoutParallelism) {
+        this.layoutParallelism = layoutParallelism;
+    }
+
+    public int getPlacementCacheSize() {
+        return placementCacheSize;
+    }
+
+    public void setPlacementCacheSize(int placementCacheSize) {
+        this.placementCacheSize = placementCacheSize;
+    }
+
+    public RouterType getRouter() {
+        return router;
+    }
+
+    public void setRouter(RouterType router) {
+        this.router = router;
+    }
+
+    public PathSolverType getPathSolver() {
+        return pathSolver;
+    }
+
+    public void setPathSolver(PathSolverType pathSolver) {
+        this.pathSolver = pathSolver;
+    }
+
+    public int getRoutingParallelism() {
+        return routingParallelism;
+    }
+
+    public void setRoutingParallelism(int routingParallelism) {
+        this.routingParallelism = routingParallelism;
+    }
 
+    public int getRouteCacheSize() {
+        return routeCacheSize;
+    }
+
+    public void setRouteCacheSize(int routeCacheSize) {
+        this.routeCacheSize = routeCacheSize;
+    }
+
+    public int getFanOutThreshold() {
+        return fanOutThreshold;
+    }
+
+    public void setFanOutThreshold(int fanOutThreshold) {
+        this.fanOutThreshold = fanOutThreshold;
+    }
+
+    public int getExplorationMargin() {
+        return explorationMargin;
+    }
+
+    public void setExplorationMargin(int explorationMargin) {
+        this.explorationMargin = explorationMargin;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    public void setClusterSize(int clusterSize) {
+        this.clusterSize = clusterSize;
+    }
+
+    public int getCongestionPasses() {
+        return congestionPasses;
+    }
+
+    public void setCongestionPasses(int congestionPasses) {
+        this.congestionPasses = congestionPasses;
+    }
+
+    public Duration getRouteBudget() {
+        return routeBudget;
+    }
+
+    public void setRouteBudget(Duration routeBudget) {
+        this.routeBudget = routeBudget;
+    }
+
+    public Duration getRequestBudget() {
+        return requestBudget;
+    }
+
+    public void setRequestBudget(Duration requestBudget) {
+        this.requestBudget = requestBudget;
+    }
+
+    public enum CycleBreaking {
+        NONE,
+        GREEDY
+    }
+
+    public enum OrderingType {
+        INPUT,
+        BARYCENTER,
+        MEDIAN
+    }
+
+    public enum CoordinateAssignment {
+        CENTERED,
+        BRANDES_KOEPF
+    }
+
+    public enum RouterType {
+        GRID,
+        VISIBILITY
+    }
+
+    public enum PathSolverType {
+        ASTAR,
+        INDEXED_ASTAR,
+        JUMP_POINT,
+        ANYTIME,
+        HIERARCHICAL,
+        BIDIRECTIONAL
+    }
+}
@@ -0,0 +1,27 @@
+package com.dev.explainor.genesis.config;
+
+import com.dev.explainor.genesis.dto.TimelineEncoding;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "timeline.encoding")
+public class TimelineEncodingProperties {
+
+    private int precision = 2;
+    private TimelineEncoding renderer = TimelineEncoding.FULL;
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void setPrecision(int precision) {
+        this.precision = precision;
+    }
+
+    public TimelineEncoding getRenderer() {
+        return renderer;
+    }
+
+    public void setRenderer(TimelineEncoding renderer) {
+        this.renderer = renderer;
+    }
+}
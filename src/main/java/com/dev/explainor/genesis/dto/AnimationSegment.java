@@ -1,15 +1,24 @@
 package com.dev.explainor.genesis.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
+
+/** Parametric kinds carry their shape in {@code motion}, with the values set to where they start and end. */
 public record AnimationSegment(
     @JsonProperty("t0") double startTime,
     @JsonProperty("t1") double endTime,
     @JsonProperty("property") String property,
     @JsonProperty("from") Object fromValue,
     @JsonProperty("to") Object toValue,
-    @JsonProperty("easing") String easing
+    @JsonProperty("easing") String easing,
+    @JsonProperty("motion") @JsonInclude(JsonInclude.Include.NON_NULL) Motion motion
 ) {
+    public AnimationSegment(double startTime, double endTime, String property, Object fromValue, Object toValue, String easing) {
+        this(startTime, endTime, property, fromValue, toValue, easing, null);
+    }
+
     public static AnimationSegment of(double startTime, double endTime, String property, Object fromValue, Object toValue, String easing) {
         return new AnimationSegment(startTime, endTime, property, fromValue, toValue, easing);
     }
@@ -26,14 +35,14 @@ public record AnimationSegment(
         return new AnimationSegment(startTime, endTime, "scale", from, to, easing);
     }
 
-    public static AnimationSegment position(double startTime, double endTime, String easing, 
+    public static AnimationSegment position(double startTime, double endTime, String easing,
                                            double fromX, double fromY, double toX, double toY) {
         return new AnimationSegment(
-            startTime, 
-            endTime, 
-            "position", 
-            new PositionValue(fromX, fromY), 
-            new PositionValue(toX, toY), 
+            startTime,
+            endTime,
+            "position",
+            new PositionValue(fromX, fromY),
+            new PositionValue(toX, toY),
             easing
         );
     }
@@ -58,7 +67,67 @@ public record AnimationSegment(
         return new AnimationSegment(startTime, endTime, "speed", from, to, easing);
     }
 
+    /** Angles in radians; the easing applies within each of the {@code steps} steps. */
+    public static AnimationSegment arc(double startTime, double endTime, String easing, double centerX,
+                                       double centerY, double radius, double startAngle, double endAngle, int steps) {
+        Arc arc = new Arc(new PositionValue(centerX, centerY), radius, startAngle, endAngle, steps);
+        return new AnimationSegment(startTime, endTime, "position", arc.pointAt(startAngle), arc.pointAt(endAngle),
+            easing, arc);
+    }
+
+    /** Each leg takes time in proportion to its length, and the easing applies within each leg. */
+    public static AnimationSegment path(double startTime, double endTime, String easing, List<PositionValue> points) {
+        Path path = Path.through(points);
+        return new AnimationSegment(startTime, endTime, "position", points.get(0), points.get(points.size() - 1),
+            easing, path);
+    }
+
+    /** All segments of a cycle animate the same property. */
+    public static AnimationSegment repeat(double startTime, double endTime, double period, List<AnimationSegment> segments) {
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("A repeated cycle needs at least one segment");
+        }
+        return new AnimationSegment(startTime, endTime, segments.get(0).property(), null, null, null,
+            new Repeat(period, segments));
+    }
+
     public record PositionValue(double x, double y) {
     }
-}
 
+    public sealed interface Motion permits Arc, Path, Repeat {
+    }
+
+    public record Arc(PositionValue center, double radius, double startAngle, double endAngle, int steps)
+        implements Motion {
+
+        public Arc {
+            if (steps < 1) {
+                throw new IllegalArgumentException("An arc needs at least one step");
+            }
+        }
+
+        PositionValue pointAt(double angle) {
+            return new PositionValue(center.x() + radius * Math.cos(angle), center.y() + radius * Math.sin(angle));
+        }
+    }
+
+    public record Path(List<PositionValue> points, List<Double> lengths) implements Motion {
+
+        static Path through(List<PositionValue> points) {
+            if (points.isEmpty()) {
+                throw new IllegalArgumentException("A path needs at least one point");
+            }
+            Double[] lengths = new Double[points.size()];
+            lengths[0] = 0.0;
+            for (int i = 1; i < points.size(); i++) {
+                PositionValue from = points.get(i - 1);
+                PositionValue to = points.get(i);
+                lengths[i] = lengths[i - 1] + Math.hypot(to.x() - from.x(), to.y() - from.y());
+            }
+            return new Path(List.copyOf(points), List.of(lengths));
+        }
+    }
+
+    public record Repeat(double period, List<AnimationSegment> segments) implements Motion {
+    }
+}
@@ -9,6 +9,10 @@ public record AnimationTrack(
     @JsonProperty("targetId") String targetId,
     @JsonProperty("segments") List<AnimationSegment> segments
 ) {
+    public AnimationTrack {
+        segments = SegmentBuffer.of(segments);
+    }
+
     public static AnimationTrack of(String id, String type, String targetId, List<AnimationSegment> segments) {
         return new AnimationTrack(id, type, targetId, segments);
     }
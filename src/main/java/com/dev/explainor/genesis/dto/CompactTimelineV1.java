@@ -0,0 +1,37 @@
+package com.dev.explainor.genesis.dto;
+
+import com.dev.explainor.genesis.domain.Point;
+
+import java.util.List;
+import java.util.Map;
+
+/** Expanding the style references gives back the full timeline, up to rounding to {@code precision}. */
+public record CompactTimelineV1(
+    String version,
+    String encoding,
+    int precision,
+    Stage stage,
+    Map<String, Object> styles,
+    List<Node> nodes,
+    List<Edge> edges,
+    List<AnimationTrack> tracks
+) {
+    public record Node(
+        String id,
+        String label,
+        String icon,
+        double x,
+        double y,
+        String style
+    ) {}
+
+    public record Edge(
+        String id,
+        String from,
+        String to,
+        String label,
+        List<Point> path,
+        String style,
+        double pathLength
+    ) {}
+}
@@ -9,7 +9,7 @@ public record FinalTimelineV1(
     List<TimelineEdge> edges,
     List<AnimationTrack> tracks
 ) {
-    public static final String CURRENT_VERSION = "1.1.0";
+    public static final String CURRENT_VERSION = "1.2.0";
 
     public static FinalTimelineV1 create(Stage stage, List<TimelineNode> nodes, List<TimelineEdge> edges, List<AnimationTrack> tracks) {
         return new FinalTimelineV1(CURRENT_VERSION, stage, nodes, edges, tracks);
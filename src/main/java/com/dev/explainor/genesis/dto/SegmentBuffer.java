@@ -0,0 +1,508 @@
+package com.dev.explainor.genesis.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Track segments packed into parallel primitive arrays; arc and path parameters share one pool of doubles.
+ * {@link #get} builds an {@link AnimationSegment} on demand.
+ */
+@JsonSerialize(using = SegmentBuffer.Serializer.class)
+public final class SegmentBuffer extends AbstractList<AnimationSegment> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int MAX_EASINGS = 256;
+    private static final Property[] PROPERTIES = Property.values();
+    private static final Kind[] KINDS = Kind.values();
+
+    private double[] startTimes;
+    private double[] endTimes;
+    private double[] fromX;
+    private double[] fromY;
+    private double[] toX;
+    private double[] toY;
+    private byte[] kinds;
+    private byte[] properties;
+    private byte[] easings;
+    private int[] dataOffsets;
+    private double[] data = new double[0];
+    private int dataSize;
+    private SegmentBuffer[] cycles;
+    private String[] easingTable = new String[2];
+    private int easingCount;
+    private int size;
+
+    public SegmentBuffer() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public SegmentBuffer(int capacity) {
+        int initial = Math.max(1, capacity);
+        this.startTimes = new double[initial];
+        this.endTimes = new double[initial];
+        this.fromX = new double[initial];
+        this.fromY = new double[initial];
+        this.toX = new double[initial];
+        this.toY = new double[initial];
+        this.kinds = new byte[initial];
+        this.properties = new byte[initial];
+        this.easings = new byte[initial];
+        this.dataOffsets = new int[initial];
+    }
+
+    public static SegmentBuffer of(List<AnimationSegment> segments) {
+        if (segments instanceof SegmentBuffer buffer) {
+            return buffer;
+        }
+        SegmentBuffer buffer = new SegmentBuffer(segments.size());
+        buffer.addAll(segments);
+        return buffer;
+    }
+
+    public SegmentBuffer addOpacity(double startTime, double endTime, String easing) {
+        return addScalar(Property.OPACITY, startTime, endTime, easing, 0.0, 1.0);
+    }
+
+    public SegmentBuffer addScale(double startTime, double endTime, String easing) {
+        return addScalar(Property.SCALE, startTime, endTime, easing, 0.0, 1.0);
+    }
+
+    public SegmentBuffer addScale(double startTime, double endTime, String easing, double from, double to) {
+        return addScalar(Property.SCALE, startTime, endTime, easing, from, to);
+    }
+
+    public SegmentBuffer addZoom(double startTime, double endTime, String easing, double from, double to) {
+        return addScalar(Property.ZOOM, startTime, endTime, easing, from, to);
+    }
+
+    public SegmentBuffer addSpeed(double startTime, double endTime, String easing, double from, double to) {
+        return addScalar(Property.SPEED, startTime, endTime, easing, from, to);
+    }
+
+    public SegmentBuffer addPosition(double startTime, double endTime, String easing,
+                                     double fromX, double fromY, double toX, double toY) {
+        return addPoint(Property.POSITION, startTime, endTime, easing, fromX, fromY, toX, toY);
+    }
+
+    public SegmentBuffer addCameraPosition(double startTime, double endTime, String easing,
+                                           double fromX, double fromY, double toX, double toY) {
+        return addPoint(Property.CAMERA_POSITION, startTime, endTime, easing, fromX, fromY, toX, toY);
+    }
+
+    /** Angles in radians; each of the {@code steps} equal steps is eased on its own. */
+    public SegmentBuffer addArc(double startTime, double endTime, String easing, double centerX, double centerY,
+                                double radius, double startAngle, double endAngle, int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("An arc needs at least one step");
+        }
+        int offset = reserveData(6);
+        data[offset] = centerX;
+        data[offset + 1] = centerY;
+        data[offset + 2] = radius;
+        data[offset + 3] = startAngle;
+        data[offset + 4] = endAngle;
+        data[offset + 5] = steps;
+        return append(Kind.ARC, Property.POSITION, startTime, endTime, easing, offset);
+    }
+
+    /** Each leg is eased over a share of the time proportional to its length. */
+    public SegmentBuffer addPath(double startTime, double endTime, String easing, double[] xs, double[] ys) {
+        int count = xs.length;
+        if (count == 0 || ys.length != count) {
+            throw new IllegalArgumentException("A path needs at least one point and as many ys as xs");
+        }
+        int offset = reserveData(1 + 3 * count);
+        data[offset] = count;
+        double length = 0.0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                length += Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+            }
+            data[offset + 1 + 2 * i] = xs[i];
+            data[offset + 2 + 2 * i] = ys[i];
+            data[offset + 1 + 2 * count + i] = length;
+        }
+        return append(Kind.PATH, Property.POSITION, startTime, endTime, easing, offset);
+    }
+
+    /** Every segment of {@code cycle} must animate the same property. */
+    public SegmentBuffer addRepeat(double startTime, double endTime, double period, SegmentBuffer cycle) {
+        if (cycle.isEmpty() || period <= 0) {
+            throw new IllegalArgumentException("A repeated cycle needs segments and a positive period");
+        }
+        Property property = cycle.property(0);
+        for (int i = 1; i < cycle.size(); i++) {
+            if (cycle.property(i) != property) {
+                throw new IllegalArgumentException("All segments of a repeated cycle must animate " + property.jsonName);
+            }
+        }
+        int offset = reserveData(1);
+        data[offset] = period;
+        append(Kind.REPEAT, property, startTime, endTime, null, offset);
+        if (cycles == null) {
+            cycles = new SegmentBuffer[startTimes.length];
+        }
+        cycles[size - 1] = cycle;
+        return this;
+    }
+
+    @Override
+    public boolean add(AnimationSegment segment) {
+        switch (segment.motion()) {
+            case AnimationSegment.Arc arc -> {
+                addArc(segment.startTime(), segment.endTime(), segment.easing(), arc.center().x(), arc.center().y(),
+                    arc.radius(), arc.startAngle(), arc.endAngle(), arc.steps());
+                return true;
+            }
+            case AnimationSegment.Path path -> {
+                double[] xs = new double[path.points().size()];
+                double[] ys = new double[xs.length];
+                for (int i = 0; i < xs.length; i++) {
+                    xs[i] = path.points().get(i).x();
+                    ys[i] = path.points().get(i).y();
+                }
+                addPath(segment.startTime(), segment.endTime(), segment.easing(), xs, ys);
+                return true;
+            }
+            case AnimationSegment.Repeat repeat -> {
+                addRepeat(segment.startTime(), segment.endTime(), repeat.period(), of(repeat.segments()));
+                return true;
+            }
+            case null -> {
+            }
+        }
+        Property property = Property.fromName(segment.property());
+        if (property.point) {
+            if (!(segment.fromValue() instanceof AnimationSegment.PositionValue from)
+                || !(segment.toValue() instanceof AnimationSegment.PositionValue to)) {
+                throw new IllegalArgumentException("Segment '%s' needs position values".formatted(segment.property()));
+            }
+            addPoint(property, segment.startTime(), segment.endTime(), segment.easing(), from.x(), from.y(), to.x(), to.y());
+        } else {
+            if (!(segment.fromValue() instanceof Number from) || !(segment.toValue() instanceof Number to)) {
+                throw new IllegalArgumentException("Segment '%s' needs numeric values".formatted(segment.property()));
+            }
+            addScalar(property, segment.startTime(), segment.endTime(), segment.easing(), from.doubleValue(), to.doubleValue());
+        }
+        return true;
+    }
+
+    @Override
+    public AnimationSegment get(int index) {
+        Objects.checkIndex(index, size);
+        int offset = dataOffsets[index];
+        switch (kind(index)) {
+            case ARC -> {
+                return AnimationSegment.arc(startTimes[index], endTimes[index], easing(index), data[offset],
+                    data[offset + 1], data[offset + 2], data[offset + 3], data[offset + 4], (int) data[offset + 5]);
+            }
+            case PATH -> {
+                int count = (int) data[offset];
+                List<AnimationSegment.PositionValue> points = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    points.add(new AnimationSegment.PositionValue(data[offset + 1 + 2 * i], data[offset + 2 + 2 * i]));
+                }
+                return AnimationSegment.path(startTimes[index], endTimes[index], easing(index), points);
+            }
+            case REPEAT -> {
+                return AnimationSegment.repeat(startTimes[index], endTimes[index], data[offset], cycles[index]);
+            }
+            case TWEEN -> {
+            }
+        }
+        Property property = property(index);
+        Object from = property.point ? new AnimationSegment.PositionValue(fromX[index], fromY[index]) : fromX[index];
+        Object to = property.point ? new AnimationSegment.PositionValue(toX[index], toY[index]) : toX[index];
+        return new AnimationSegment(startTimes[index], endTimes[index], property.jsonName, from, to, easing(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public double startTime(int index) {
+        Objects.checkIndex(index, size);
+        return startTimes[index];
+    }
+
+    public double endTime(int index) {
+        Objects.checkIndex(index, size);
+        return endTimes[index];
+    }
+
+    public Kind kind(int index) {
+        Objects.checkIndex(index, size);
+        return KINDS[kinds[index]];
+    }
+
+    public Property property(int index) {
+        Objects.checkIndex(index, size);
+        return PROPERTIES[properties[index]];
+    }
+
+    public String easing(int index) {
+        Objects.checkIndex(index, size);
+        return easingTable[easings[index] & 0xFF];
+    }
+
+    /** Arc angles are not rounded: a hundredth of a radian is a visible jump on a wide orbit. */
+    public SegmentBuffer quantized(int decimals) {
+        double scale = Math.pow(10, decimals);
+        SegmentBuffer copy = new SegmentBuffer(size);
+        copy.startTimes = round(startTimes, scale);
+        copy.endTimes = round(endTimes, scale);
+        copy.fromX = round(fromX, scale);
+        copy.fromY = round(fromY, scale);
+        copy.toX = round(toX, scale);
+        copy.toY = round(toY, scale);
+        copy.kinds = kinds.clone();
+        copy.properties = properties.clone();
+        copy.easings = easings.clone();
+        copy.dataOffsets = dataOffsets.clone();
+        copy.data = data.clone();
+        copy.dataSize = dataSize;
+        copy.easingTable = easingTable.clone();
+        copy.easingCount = easingCount;
+        copy.size = size;
+        if (cycles != null) {
+            copy.cycles = new SegmentBuffer[cycles.length];
+        }
+        for (int i = 0; i < size; i++) {
+            int offset = dataOffsets[i];
+            switch (kind(i)) {
+                case ARC -> roundRange(copy.data, offset, offset + 3, scale);
+                case PATH -> roundRange(copy.data, offset + 1, offset + 1 + 3 * (int) data[offset], scale);
+                case REPEAT -> {
+                    roundRange(copy.data, offset, offset + 1, scale);
+                    copy.cycles[i] = cycles[i].quantized(decimals);
+                }
+                case TWEEN -> {
+                }
+            }
+        }
+        return copy;
+    }
+
+    private SegmentBuffer addScalar(Property property, double startTime, double endTime, String easing,
+                                    double from, double to) {
+        return addPoint(property, startTime, endTime, easing, from, 0.0, to, 0.0);
+    }
+
+    private SegmentBuffer addPoint(Property property, double startTime, double endTime, String easing,
+                                   double fromX, double fromY, double toX, double toY) {
+        append(Kind.TWEEN, property, startTime, endTime, easing, dataSize);
+        this.fromX[size - 1] = fromX;
+        this.fromY[size - 1] = fromY;
+        this.toX[size - 1] = toX;
+        this.toY[size - 1] = toY;
+        return this;
+    }
+
+    private SegmentBuffer append(Kind kind, Property property, double startTime, double endTime, String easing,
+                                 int dataOffset) {
+        if (size == startTimes.length) {
+            grow();
+        }
+        startTimes[size] = startTime;
+        endTimes[size] = endTime;
+        kinds[size] = (byte) kind.ordinal();
+        properties[size] = (byte) property.ordinal();
+        easings[size] = (byte) easingCode(easing);
+        dataOffsets[size] = dataOffset;
+        size++;
+        modCount++;
+        return this;
+    }
+
+    private int reserveData(int count) {
+        if (dataSize + count > data.length) {
+            data = Arrays.copyOf(data, Math.max(dataSize + count, data.length * 2));
+        }
+        int offset = dataSize;
+        dataSize += count;
+        return offset;
+    }
+
+    private int easingCode(String easing) {
+        for (int code = 0; code < easingCount; code++) {
+            if (Objects.equals(easingTable[code], easing)) {
+                return code;
+            }
+        }
+        if (easingCount == MAX_EASINGS) {
+            throw new IllegalStateException("A track cannot use more than " + MAX_EASINGS + " easings");
+        }
+        if (easingCount == easingTable.length) {
+            easingTable = Arrays.copyOf(easingTable, easingTable.length * 2);
+        }
+        easingTable[easingCount] = easing;
+        return easingCount++;
+    }
+
+    private static double[] round(double[] values, double scale) {
+        double[] rounded = values.clone();
+        roundRange(rounded, 0, rounded.length, scale);
+        return rounded;
+    }
+
+    private static void roundRange(double[] values, int from, int to, double scale) {
+        for (int i = from; i < to; i++) {
+            values[i] = Math.round(values[i] * scale) / scale;
+        }
+    }
+
+    private void grow() {
+        int capacity = startTimes.length * 2;
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        endTimes = Arrays.copyOf(endTimes, capacity);
+        fromX = Arrays.copyOf(fromX, capacity);
+        fromY = Arrays.copyOf(fromY, capacity);
+        toX = Arrays.copyOf(toX, capacity);
+        toY = Arrays.copyOf(toY, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        properties = Arrays.copyOf(properties, capacity);
+        easings = Arrays.copyOf(easings, capacity);
+        dataOffsets = Arrays.copyOf(dataOffsets, capacity);
+        if (cycles != null) {
+            cycles = Arrays.copyOf(cycles, capacity);
+        }
+    }
+
+    /** A plain tween writes no {@code kind}. */
+    public enum Kind {
+        TWEEN(null),
+        ARC("arc"),
+        PATH("path"),
+        REPEAT("repeat");
+
+        private final String jsonName;
+
+        Kind(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String jsonName() {
+            return jsonName;
+        }
+    }
+
+    public enum Property {
+        OPACITY("opacity", false),
+        SCALE("scale", false),
+        POSITION("position", true),
+        CAMERA_POSITION("cameraPosition", true),
+        ZOOM("zoom", false),
+        SPEED("speed", false);
+
+        private final String jsonName;
+        private final boolean point;
+
+        Property(String jsonName, boolean point) {
+            this.jsonName = jsonName;
+            this.point = point;
+        }
+
+        public String jsonName() {
+            return jsonName;
+        }
+
+        public boolean isPoint() {
+            return point;
+        }
+
+        static Property fromName(String name) {
+            for (Property property : PROPERTIES) {
+                if (property.jsonName.equals(name)) {
+                    return property;
+                }
+            }
+            throw new IllegalArgumentException("Unknown segment property: " + name);
+        }
+    }
+
+    /** Tweens keep the schema of a list of {@link AnimationSegment}s. */
+    static final class Serializer extends StdSerializer<SegmentBuffer> {
+
+        Serializer() {
+            super(SegmentBuffer.class);
+        }
+
+        @Override
+        public void serialize(SegmentBuffer buffer, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartArray(buffer, buffer.size);
+            for (int i = 0; i < buffer.size; i++) {
+                Kind kind = KINDS[buffer.kinds[i]];
+                Property property = PROPERTIES[buffer.properties[i]];
+                double[] data = buffer.data;
+                int offset = buffer.dataOffsets[i];
+                generator.writeStartObject();
+                generator.writeNumberField("t0", buffer.startTimes[i]);
+                generator.writeNumberField("t1", buffer.endTimes[i]);
+                generator.writeStringField("property", property.jsonName);
+                if (kind != Kind.TWEEN) {
+                    generator.writeStringField("kind", kind.jsonName);
+                }
+                switch (kind) {
+                    case TWEEN -> {
+                        if (property.point) {
+                            writePoint(generator, "from", buffer.fromX[i], buffer.fromY[i]);
+                            writePoint(generator, "to", buffer.toX[i], buffer.toY[i]);
+                        } else {
+                            generator.writeNumberField("from", buffer.fromX[i]);
+                            generator.writeNumberField("to", buffer.toX[i]);
+                        }
+                    }
+                    case ARC -> {
+                        writePoint(generator, "center", data[offset], data[offset + 1]);
+                        generator.writeNumberField("radius", data[offset + 2]);
+                        generator.writeNumberField("startAngle", data[offset + 3]);
+                        generator.writeNumberField("endAngle", data[offset + 4]);
+                        generator.writeNumberField("steps", (int) data[offset + 5]);
+                    }
+                    case PATH -> {
+                        int count = (int) data[offset];
+                        generator.writeArrayFieldStart("points");
+                        for (int point = 0; point < count; point++) {
+                            generator.writeStartObject();
+                            generator.writeNumberField("x", data[offset + 1 + 2 * point]);
+                            generator.writeNumberField("y", data[offset + 2 + 2 * point]);
+                            generator.writeEndObject();
+                        }
+                        generator.writeEndArray();
+                        generator.writeFieldName("lengths");
+                        generator.writeArray(data, offset + 1 + 2 * count, count);
+                    }
+                    case REPEAT -> {
+                        generator.writeNumberField("period", data[offset]);
+                        generator.writeFieldName("segments");
+                        serialize(buffer.cycles[i], generator, provider);
+                    }
+                }
+                if (kind != Kind.REPEAT) {
+                    generator.writeStringField("easing", buffer.easingTable[buffer.easings[i] & 0xFF]);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+
+        private static void writePoint(JsonGenerator generator, String name, double x, double y) throws IOException {
+            generator.writeObjectFieldStart(name);
+            generator.writeNumberField("x", x);
+            generator.writeNumberField("y", y);
+            generator.writeEndObject();
+        }
+    }
+}
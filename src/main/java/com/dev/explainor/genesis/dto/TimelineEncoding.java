@@ -0,0 +1,23 @@
+package com.dev.explainor.genesis.dto;
+
+/** Negotiated with the {@value #HEADER} header; anything but {@code compact} gets the full encoding. */
+public enum TimelineEncoding {
+    FULL("full"),
+    COMPACT("compact");
+
+    public static final String HEADER = "X-Timeline-Encoding";
+
+    private final String headerValue;
+
+    TimelineEncoding(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    public String headerValue() {
+        return headerValue;
+    }
+
+    public static TimelineEncoding fromHeader(String value) {
+        return value != null && value.trim().equalsIgnoreCase(COMPACT.headerValue) ? COMPACT : FULL;
+    }
+}
@@ -8,7 +8,7 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
 
-public class AStarPathSolver {
+public class AStarPathSolver implements PathSolver {
 
     private final int explorationMargin;
     private final int maxIterations;
@@ -18,7 +18,13 @@ public class AStarPathSolver {
         this.maxIterations = maxIterations;
     }
 
-    public List<GridPoint> findPath(GridPoint start, GridPoint goal, Set<GridPoint> blockedCells) {
+    @Override
+    public SearchWindow window(GridPoint start, GridPoint goal) {
+        return SearchWindow.around(start, goal, explorationMargin);
+    }
+
+    @Override
+    public SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid) {
         PriorityQueue<Node> open = new PriorityQueue<>((a, b) -> Double.compare(a.fScore, b.fScore));
         Map<GridPoint, GridPoint> cameFrom = new HashMap<>();
         Map<GridPoint, Double> gScore = new HashMap<>();
@@ -27,6 +33,9 @@ public class AStarPathSolver {
         open.add(new Node(start, 0.0, heuristic(start, goal)));
         gScore.put(start, 0.0);
 
+        GridRect startArea = grid.exemptArea(start);
+        GridRect goalArea = grid.exemptArea(goal);
+
         int minX = Math.min(start.x(), goal.x()) - explorationMargin;
         int maxX = Math.max(start.x(), goal.x()) + explorationMargin;
         int minY = Math.min(start.y(), goal.y()) - explorationMargin;
@@ -37,7 +46,7 @@ public class AStarPathSolver {
         while (!open.isEmpty() && iterations++ < maxIterations) {
             Node current = open.poll();
             if (current.point.equals(goal)) {
-                return simplify(reconstructPath(cameFrom, current.point, start));
+                return SearchResult.found(simplify(reconstructPath(cameFrom, current.point, start)), closed.size());
             }
             closed.add(current.point);
 
@@ -45,7 +54,7 @@ public class AStarPathSolver {
                 if (neighbor.x() < minX || neighbor.x() > maxX || neighbor.y() < minY || neighbor.y() > maxY) {
                     continue;
                 }
-                if (blockedCells.contains(neighbor) && !neighbor.equals(goal)) {
+                if (grid.isBlockedExcept(neighbor.x(), neighbor.y(), startArea, goalArea)) {
                     continue;
                 }
                 if (closed.contains(neighbor)) {
@@ -64,10 +73,7 @@ public class AStarPathSolver {
             }
         }
 
-        List<GridPoint> fallback = new ArrayList<>();
-        fallback.add(start);
-        fallback.add(goal);
-        return simplify(fallback);
+        return SearchResult.straightLine(start, goal, closed.size());
     }
 
     private List<GridPoint> reconstructPath(Map<GridPoint, GridPoint> cameFrom, GridPoint current, GridPoint start) {
@@ -0,0 +1,142 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.List;
+
+/**
+ * Anytime A*: weighted runs with a falling weight until {@code 1.0} or the deadline. Without a deadline it
+ * matches {@link IndexedAStarPathSolver}.
+ */
+public class AnytimePathSolver implements PathSolver {
+
+    private static final ThreadLocal<GridSearchBuffers> BUFFERS = ThreadLocal.withInitial(GridSearchBuffers::new);
+    private static final double[] WEIGHTS = {3.0, 2.0, 1.5, 1.25, 1.0};
+    private static final double[] OPTIMAL = {1.0};
+    private static final int DEADLINE_CHECK_MASK = 63;
+
+    private final int explorationMargin;
+    private final int maxIterations;
+
+    public AnytimePathSolver(int explorationMargin, int maxIterations) {
+        this.explorationMargin = explorationMargin;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public SearchWindow window(GridPoint start, GridPoint goal) {
+        return SearchWindow.around(start, goal, explorationMargin);
+    }
+
+    @Override
+    public SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid) {
+        return search(start, goal, grid, NO_DEADLINE);
+    }
+
+    @Override
+    public SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid, long deadlineNanos) {
+        SearchWindow window = window(start, goal);
+        GridRect startArea = grid.exemptArea(start);
+        GridRect goalArea = grid.exemptArea(goal);
+        GridSearchBuffers buffers = BUFFERS.get();
+
+        List<GridPoint> best = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        double bound = Double.POSITIVE_INFINITY;
+        int expanded = 0;
+        for (double weight : deadlineNanos == NO_DEADLINE ? OPTIMAL : WEIGHTS) {
+            Run run = run(weight, bestCost, start, goal, window, grid, startArea, goalArea, deadlineNanos, buffers);
+            expanded += run.expanded();
+            if (!run.finished()) {
+                break;
+            }
+            if (run.path() != null) {
+                best = run.path();
+                bestCost = run.cost();
+            }
+            if (best == null) {
+                break;
+            }
+            bound = weight;
+        }
+
+        if (best == null) {
+            return SearchResult.straightLine(start, goal, expanded);
+        }
+        return bound == 1.0 ? SearchResult.found(best, expanded) : SearchResult.bounded(best, expanded, bound);
+    }
+
+    /** Hitting the deadline or the iteration limit leaves a pass unfinished. */
+    private Run run(double weight, double incumbentCost, GridPoint start, GridPoint goal, SearchWindow window,
+                    OccupancyGrid grid, GridRect startArea, GridRect goalArea, long deadlineNanos,
+                    GridSearchBuffers buffers) {
+        int width = window.width();
+        int height = window.height();
+        buffers.begin(window.cellCount());
+
+        int startIndex = window.indexOf(start);
+        int goalIndex = window.indexOf(goal);
+        buffers.start(startIndex);
+        buffers.push(startIndex, weight * heuristic(start.x(), start.y(), goal));
+
+        int iterations = 0;
+        int expanded = 0;
+
+        while (!buffers.isEmpty() && iterations < maxIterations) {
+            if ((iterations++ & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() >= deadlineNanos) {
+                return new Run(null, Double.POSITIVE_INFINITY, expanded, false);
+            }
+            int current = buffers.poll();
+            if (current == goalIndex) {
+                return new Run(buffers.tracePath(startIndex, goalIndex, window), buffers.score(goalIndex), expanded, true);
+            }
+            if (!buffers.isClosed(current)) {
+                buffers.close(current);
+                expanded++;
+            }
+
+            int column = current % width;
+            int row = current / width;
+            int x = column + window.minX();
+            int y = row + window.minY();
+            double currentScore = buffers.score(current);
+            if (column + 1 < width) {
+                relax(buffers, current, current + 1, currentScore, x + 1, y, goal, weight, incumbentCost, grid, startArea, goalArea);
+            }
+            if (column > 0) {
+                relax(buffers, current, current - 1, currentScore, x - 1, y, goal, weight, incumbentCost, grid, startArea, goalArea);
+            }
+            if (row + 1 < height) {
+                relax(buffers, current, current + width, currentScore, x, y + 1, goal, weight, incumbentCost, grid, startArea, goalArea);
+            }
+            if (row > 0) {
+                relax(buffers, current, current - width, currentScore, x, y - 1, goal, weight, incumbentCost, grid, startArea, goalArea);
+            }
+        }
+
+        return new Run(null, Double.POSITIVE_INFINITY, expanded, buffers.isEmpty());
+    }
+
+    private void relax(GridSearchBuffers buffers, int current, int neighbor, double currentScore,
+                       int neighborX, int neighborY, GridPoint goal, double weight, double incumbentCost,
+                       OccupancyGrid grid, GridRect startArea, GridRect goalArea) {
+        if (buffers.isClosed(neighbor) || grid.isBlockedExcept(neighborX, neighborY, startArea, goalArea)) {
+            return;
+        }
+        double tentativeScore = currentScore + 1.0;
+        if (tentativeScore >= buffers.score(neighbor)) {
+            return;
+        }
+        double heuristic = heuristic(neighborX, neighborY, goal);
+        if (tentativeScore + heuristic >= incumbentCost) {
+            return;
+        }
+        buffers.update(neighbor, tentativeScore, current);
+        buffers.push(neighbor, tentativeScore + weight * heuristic);
+    }
+
+    private double heuristic(int x, int y, GridPoint goal) {
+        return Math.abs(x - goal.x()) + Math.abs(y - goal.y());
+    }
+
+    private record Run(List<GridPoint> path, double cost, int expanded, boolean finished) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.Arrays;
+
+/** Barnes-Hut quadtree in flat arrays reused across rebuilds. Points still sharing a leaf at max depth merge. */
+final class BarnesHutTree {
+
+    private static final int MAX_DEPTH = 32;
+    private static final int EMPTY = -1;
+    private static final int INTERNAL = -2;
+
+    private int cellCount;
+    private double[] minX = new double[64];
+    private double[] minY = new double[64];
+    private double[] size = new double[64];
+    private double[] sumX = new double[64];
+    private double[] sumY = new double[64];
+    private int[] mass = new int[64];
+    private int[] body = new int[64];
+    private int[] children = new int[64 * 4];
+    private int[] stack = new int[64];
+
+    void build(double[] xs, double[] ys, int count) {
+        double left = Double.MAX_VALUE;
+        double top = Double.MAX_VALUE;
+        double right = -Double.MAX_VALUE;
+        double bottom = -Double.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            left = Math.min(left, xs[i]);
+            top = Math.min(top, ys[i]);
+            right = Math.max(right, xs[i]);
+            bottom = Math.max(bottom, ys[i]);
+        }
+        cellCount = 0;
+        newCell(left, top, Math.max(Math.max(right - left, bottom - top), 1.0) * 1.0001);
+        for (int i = 0; i < count; i++) {
+            insert(i, xs[i], ys[i]);
+        }
+    }
+
+    /** Each point pushes with magnitude {@code strength / distance}. */
+    void repulsion(int point, double x, double y, double theta, double strength, double[] force) {
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int cell = stack[--top];
+            int cellMass = mass[cell];
+            double massX = sumX[cell];
+            double massY = sumY[cell];
+            if (body[cell] != INTERNAL) {
+                if (body[cell] == point) {
+                    cellMass--;
+                    massX -= x;
+                    massY -= y;
+                }
+                if (cellMass == 0) {
+                    continue;
+                }
+            }
+            double dx = x - massX / cellMass;
+            double dy = y - massY / cellMass;
+            double distanceSquared = dx * dx + dy * dy;
+            if (body[cell] != INTERNAL || size[cell] * size[cell] < theta * theta * distanceSquared) {
+                if (distanceSquared > 1e-12) {
+                    double push = strength * cellMass / distanceSquared;
+                    force[0] += dx * push;
+                    force[1] += dy * push;
+                }
+                continue;
+            }
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            for (int quadrant = 0; quadrant < 4; quadrant++) {
+                int child = children[cell * 4 + quadrant];
+                if (child != EMPTY) {
+                    stack[top++] = child;
+                }
+            }
+        }
+    }
+
+    private void insert(int point, double x, double y) {
+        int cell = 0;
+        for (int depth = 0; ; depth++) {
+            mass[cell]++;
+            sumX[cell] += x;
+            sumY[cell] += y;
+            if (body[cell] == EMPTY) {
+                body[cell] = point;
+                return;
+            }
+            if (body[cell] != INTERNAL) {
+                if (depth >= MAX_DEPTH) {
+                    return;
+                }
+                int resident = body[cell];
+                double residentX = sumX[cell] - x;
+                double residentY = sumY[cell] - y;
+                body[cell] = INTERNAL;
+                int child = childFor(cell, residentX, residentY);
+                mass[child] = 1;
+                sumX[child] = residentX;
+                sumY[child] = residentY;
+                body[child] = resident;
+            }
+            cell = childFor(cell, x, y);
+        }
+    }
+
+    private int childFor(int cell, double x, double y) {
+        double half = size[cell] / 2.0;
+        int quadrant = (x >= minX[cell] + half ? 1 : 0) + (y >= minY[cell] + half ? 2 : 0);
+        int slot = cell * 4 + quadrant;
+        if (children[slot] == EMPTY) {
+            double left = minX[cell] + (quadrant & 1) * half;
+            double top = minY[cell] + (quadrant >> 1) * half;
+            int child = newCell(left, top, half);
+            children[slot] = child;
+        }
+        return children[slot];
+    }
+
+    private int newCell(double left, double top, double side) {
+        if (cellCount == mass.length) {
+            int capacity = cellCount * 2;
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            size = Arrays.copyOf(size, capacity);
+            sumX = Arrays.copyOf(sumX, capacity);
+            sumY = Arrays.copyOf(sumY, capacity);
+            mass = Arrays.copyOf(mass, capacity);
+            body = Arrays.copyOf(body, capacity);
+            children = Arrays.copyOf(children, capacity * 4);
+        }
+        int cell = cellCount++;
+        minX[cell] = left;
+        minY[cell] = top;
+        size[cell] = side;
+        sumX[cell] = 0;
+        sumY[cell] = 0;
+        mass[cell] = 0;
+        body[cell] = EMPTY;
+        Arrays.fill(children, cell * 4, cell * 4 + 4, EMPTY);
+        return cell;
+    }
+}
@@ -0,0 +1,173 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.List;
+
+/**
+ * Bidirectional A* keyed by the balanced potential {@code (h_goal - h_start) / 2}, so the two keys of a cell
+ * add up to the route length through it. Routes are as short as {@link IndexedAStarPathSolver}'s.
+ */
+public class BidirectionalAStarPathSolver implements PathSolver {
+
+    private static final ThreadLocal<GridSearchBuffers> FORWARD = ThreadLocal.withInitial(GridSearchBuffers::new);
+    private static final ThreadLocal<GridSearchBuffers> BACKWARD = ThreadLocal.withInitial(GridSearchBuffers::new);
+
+    /** Far below the half-cell steps real keys differ by; the stopping test allows a quarter cell of slack. */
+    private static final double TIE_BREAK = 1e-7;
+    private static final double STOP_TOLERANCE = 0.25;
+
+    private final int explorationMargin;
+    private final int maxIterations;
+
+    public BidirectionalAStarPathSolver(int explorationMargin, int maxIterations) {
+        this.explorationMargin = explorationMargin;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public SearchWindow window(GridPoint start, GridPoint goal) {
+        return SearchWindow.around(start, goal, explorationMargin);
+    }
+
+    @Override
+    public SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid) {
+        SearchWindow window = window(start, goal);
+        GridRect startArea = grid.exemptArea(start);
+        GridRect goalArea = grid.exemptArea(goal);
+
+        GridSearchBuffers forward = FORWARD.get();
+        GridSearchBuffers backward = BACKWARD.get();
+        forward.begin(window.cellCount());
+        backward.begin(window.cellCount());
+
+        int startIndex = window.indexOf(start);
+        int goalIndex = window.indexOf(goal);
+        forward.start(startIndex);
+        forward.push(startIndex, potential(start.x(), start.y(), start, goal));
+        backward.start(goalIndex);
+        backward.push(goalIndex, -potential(goal.x(), goal.y(), start, goal));
+
+        Meeting meeting = new Meeting();
+        if (startIndex == goalIndex) {
+            meeting.offer(startIndex, 0.0);
+        }
+
+        int iterations = 0;
+        int expanded = 0;
+        while (!forward.isEmpty() && !backward.isEmpty()
+            && forward.peekScore() + backward.peekScore() < meeting.length - STOP_TOLERANCE) {
+            if (iterations++ >= maxIterations) {
+                if (!meeting.found()) {
+                    return SearchResult.straightLine(start, goal, expanded);
+                }
+                double lowerBound = Math.max(heuristic(start.x(), start.y(), goal), forward.peekScore() + backward.peekScore());
+                return SearchResult.bounded(tracePath(forward, backward, meeting.cell, startIndex, goalIndex, window),
+                    expanded, meeting.length / Math.max(1.0, lowerBound));
+            }
+            boolean forwardSide = forward.openSize() <= backward.openSize();
+            GridSearchBuffers own = forwardSide ? forward : backward;
+            GridSearchBuffers other = forwardSide ? backward : forward;
+            Side side = forwardSide ? new Side(own, other, goal, 1.0) : new Side(own, other, start, -1.0);
+            int current = own.poll();
+            if (own.isClosed(current)) {
+                continue;
+            }
+            own.close(current);
+            expanded++;
+
+            int column = current % window.width();
+            int row = current / window.width();
+            int x = column + window.minX();
+            int y = row + window.minY();
+            double currentScore = own.score(current);
+            if (column + 1 < window.width()) {
+                relax(side, meeting, start, goal, current, current + 1, currentScore, x + 1, y, grid, startArea, goalArea);
+            }
+            if (column > 0) {
+                relax(side, meeting, start, goal, current, current - 1, currentScore, x - 1, y, grid, startArea, goalArea);
+            }
+            if (row + 1 < window.height()) {
+                relax(side, meeting, start, goal, current, current + window.width(), currentScore, x, y + 1, grid, startArea, goalArea);
+            }
+            if (row > 0) {
+                relax(side, meeting, start, goal, current, current - window.width(), currentScore, x, y - 1, grid, startArea, goalArea);
+            }
+        }
+
+        if (!meeting.found()) {
+            return SearchResult.straightLine(start, goal, expanded);
+        }
+        return SearchResult.found(tracePath(forward, backward, meeting.cell, startIndex, goalIndex, window), expanded);
+    }
+
+    private void relax(Side side, Meeting meeting, GridPoint start, GridPoint goal, int current, int neighbor,
+                       double currentScore, int neighborX, int neighborY,
+                       OccupancyGrid grid, GridRect startArea, GridRect goalArea) {
+        GridSearchBuffers own = side.own();
+        if (own.isClosed(neighbor) || grid.isBlockedExcept(neighborX, neighborY, startArea, goalArea)) {
+            return;
+        }
+        double tentativeScore = currentScore + 1.0;
+        if (tentativeScore >= own.score(neighbor)) {
+            return;
+        }
+        own.update(neighbor, tentativeScore, current);
+        meeting.offer(neighbor, tentativeScore + side.other().score(neighbor));
+        if (tentativeScore + heuristic(neighborX, neighborY, side.target()) < meeting.length) {
+            own.push(neighbor, tentativeScore * (1.0 - TIE_BREAK) + side.sign() * potential(neighborX, neighborY, start, goal));
+        }
+    }
+
+    /** Goal-first, as {@link GridSearchBuffers#simplify} expects. */
+    private List<GridPoint> tracePath(GridSearchBuffers forward, GridSearchBuffers backward, int meetingCell,
+                                      int startIndex, int goalIndex, SearchWindow window) {
+        int goalSide = 1;
+        for (int cell = meetingCell; cell != goalIndex; cell = backward.parent(cell)) {
+            goalSide++;
+        }
+        int startSide = 0;
+        for (int cell = meetingCell; cell != startIndex; cell = forward.parent(cell)) {
+            startSide++;
+        }
+        int[] reversed = new int[goalSide + startSide];
+        int index = goalSide - 1;
+        for (int cell = meetingCell; ; cell = backward.parent(cell)) {
+            reversed[index--] = cell;
+            if (cell == goalIndex) {
+                break;
+            }
+        }
+        index = goalSide;
+        for (int cell = meetingCell; cell != startIndex; ) {
+            cell = forward.parent(cell);
+            reversed[index++] = cell;
+        }
+        return GridSearchBuffers.simplify(reversed, reversed.length, window);
+    }
+
+    private double heuristic(int x, int y, GridPoint target) {
+        return Math.abs(x - target.x()) + Math.abs(y - target.y());
+    }
+
+    private double potential(int x, int y, GridPoint start, GridPoint goal) {
+        return (heuristic(x, y, goal) - heuristic(x, y, start)) / 2.0;
+    }
+
+    private record Side(GridSearchBuffers own, GridSearchBuffers other, GridPoint target, double sign) {
+    }
+
+    private static final class Meeting {
+        private int cell = -1;
+        private double length = Double.POSITIVE_INFINITY;
+
+        void offer(int candidate, double candidateLength) {
+            if (candidateLength < length) {
+                cell = candidate;
+                length = candidateLength;
+            }
+        }
+
+        boolean found() {
+            return cell >= 0;
+        }
+    }
+}
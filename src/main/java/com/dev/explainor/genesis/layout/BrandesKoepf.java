@@ -0,0 +1,363 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Horizontal coordinate assignment after Brandes and Köpf. Blocks are placed within their sink class and
+ * classes are shifted right to left over the class graph, which keeps the separation fix of the 2020
+ * erratum by Brandes, Walter and Zink. Dummies are separated by their own, smaller gap.
+ */
+final class BrandesKoepf {
+
+    private static final int NONE = -1;
+
+    private final int[][] layers;
+    private final int realCount;
+    private final int vertexCount;
+    private final int[] layerOf;
+    private final int[] position;
+    private final int[] upStart;
+    private final int[] upNeighbors;
+    private final int[] downStart;
+    private final int[] downNeighbors;
+    private final Set<Long> conflicts = new HashSet<>();
+    private final double separation;
+    private final double dummySeparation;
+
+    private BrandesKoepf(int[][] layers, int realCount, int[] segmentUpper, int[] segmentLower,
+                         double separation, double dummySeparation) {
+        this.layers = layers;
+        this.realCount = realCount;
+        int count = 0;
+        for (int[] layer : layers) {
+            count += layer.length;
+        }
+        this.vertexCount = count;
+        this.layerOf = new int[count];
+        this.position = new int[count];
+        for (int layer = 0; layer < layers.length; layer++) {
+            for (int i = 0; i < layers[layer].length; i++) {
+                layerOf[layers[layer][i]] = layer;
+                position[layers[layer][i]] = i;
+            }
+        }
+        this.separation = separation;
+        this.dummySeparation = dummySeparation;
+
+        this.upStart = new int[count + 1];
+        this.downStart = new int[count + 1];
+        for (int i = 0; i < segmentUpper.length; i++) {
+            upStart[segmentLower[i] + 1]++;
+            downStart[segmentUpper[i] + 1]++;
+        }
+        for (int vertex = 0; vertex < count; vertex++) {
+            upStart[vertex + 1] += upStart[vertex];
+            downStart[vertex + 1] += downStart[vertex];
+        }
+        int[] lowersByUpper = new int[segmentUpper.length];
+        int[] uppersByLower = new int[segmentUpper.length];
+        int[] downFill = Arrays.copyOf(downStart, count);
+        int[] upFill = Arrays.copyOf(upStart, count);
+        for (int i = 0; i < segmentUpper.length; i++) {
+            lowersByUpper[downFill[segmentUpper[i]]++] = segmentLower[i];
+            uppersByLower[upFill[segmentLower[i]]++] = segmentUpper[i];
+        }
+
+        // Walking each layer from left to right and appending every vertex to its neighbours' lists leaves
+        // all neighbour lists sorted by position, in linear time.
+        this.upNeighbors = new int[segmentUpper.length];
+        this.downNeighbors = new int[segmentUpper.length];
+        System.arraycopy(upStart, 0, upFill, 0, count);
+        System.arraycopy(downStart, 0, downFill, 0, count);
+        for (int[] layer : layers) {
+            for (int vertex : layer) {
+                for (int slot = downStart[vertex]; slot < downStart[vertex + 1]; slot++) {
+                    int lower = lowersByUpper[slot];
+                    upNeighbors[upFill[lower]++] = vertex;
+                }
+                for (int slot = upStart[vertex]; slot < upStart[vertex + 1]; slot++) {
+                    int upper = uppersByLower[slot];
+                    downNeighbors[downFill[upper]++] = vertex;
+                }
+            }
+        }
+    }
+
+    /** Vertices from {@code realCount} on are dummies, separated by {@code dummySeparation}. */
+    static double[] assign(int[][] layers, int realCount, int[] segmentUpper, int[] segmentLower,
+                           double separation, double dummySeparation) {
+        return new BrandesKoepf(layers, realCount, segmentUpper, segmentLower, separation, dummySeparation).run();
+    }
+
+    private double[] run() {
+        markConflicts();
+        double[][] candidates = new double[4][];
+        boolean[] fromLeft = new boolean[4];
+        int narrowest = 0;
+        double narrowestWidth = Double.MAX_VALUE;
+        for (int candidate = 0; candidate < 4; candidate++) {
+            boolean downward = candidate < 2;
+            fromLeft[candidate] = candidate % 2 == 0;
+            candidates[candidate] = place(downward, fromLeft[candidate]);
+            double width = max(candidates[candidate]) - min(candidates[candidate]);
+            if (width < narrowestWidth) {
+                narrowestWidth = width;
+                narrowest = candidate;
+            }
+        }
+        for (int candidate = 0; candidate < 4; candidate++) {
+            double shift = fromLeft[candidate]
+                ? min(candidates[narrowest]) - min(candidates[candidate])
+                : max(candidates[narrowest]) - max(candidates[candidate]);
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                candidates[candidate][vertex] += shift;
+            }
+        }
+        double[] xs = new double[vertexCount];
+        double[] values = new double[4];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int candidate = 0; candidate < 4; candidate++) {
+                values[candidate] = candidates[candidate][vertex];
+            }
+            Arrays.sort(values);
+            xs[vertex] = (values[1] + values[2]) / 2.0;
+        }
+        return xs;
+    }
+
+    /** Type 1 conflicts: non-inner segments crossing an inner segment. */
+    private void markConflicts() {
+        for (int layer = 0; layer + 1 < layers.length; layer++) {
+            int[] upper = layers[layer];
+            int[] lower = layers[layer + 1];
+            int k0 = 0;
+            int scanned = 0;
+            for (int l1 = 0; l1 < lower.length; l1++) {
+                int inner = innerUpperNeighbor(lower[l1]);
+                if (l1 != lower.length - 1 && inner == NONE) {
+                    continue;
+                }
+                int k1 = inner == NONE ? upper.length - 1 : position[inner];
+                for (; scanned <= l1; scanned++) {
+                    int vertex = lower[scanned];
+                    for (int slot = upStart[vertex]; slot < upStart[vertex + 1]; slot++) {
+                        int neighbor = upNeighbors[slot];
+                        int k = position[neighbor];
+                        if ((k < k0 || k > k1) && !(isDummy(neighbor) && isDummy(vertex))) {
+                            conflicts.add(key(neighbor, vertex));
+                        }
+                    }
+                }
+                k0 = k1;
+            }
+        }
+    }
+
+    private int innerUpperNeighbor(int vertex) {
+        if (!isDummy(vertex)) {
+            return NONE;
+        }
+        for (int slot = upStart[vertex]; slot < upStart[vertex + 1]; slot++) {
+            if (isDummy(upNeighbors[slot])) {
+                return upNeighbors[slot];
+            }
+        }
+        return NONE;
+    }
+
+    private double[] place(boolean downward, boolean fromLeft) {
+        int[] root = new int[vertexCount];
+        int[] align = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            root[vertex] = vertex;
+            align[vertex] = vertex;
+        }
+        int[] start = downward ? upStart : downStart;
+        int[] neighbors = downward ? upNeighbors : downNeighbors;
+        for (int step = 1; step < layers.length; step++) {
+            int[] layer = layers[downward ? step : layers.length - 1 - step];
+            int r = NONE;
+            for (int i = 0; i < layer.length; i++) {
+                int vertex = layer[fromLeft ? i : layer.length - 1 - i];
+                int from = start[vertex];
+                int degree = start[vertex + 1] - from;
+                if (degree == 0) {
+                    continue;
+                }
+                for (int m = (degree - 1) / 2; m <= degree / 2; m++) {
+                    if (align[vertex] != vertex) {
+                        break;
+                    }
+                    int neighbor = neighbors[fromLeft ? from + m : from + degree - 1 - m];
+                    long segment = downward ? key(neighbor, vertex) : key(vertex, neighbor);
+                    int neighborPosition = sweepPosition(neighbor, fromLeft);
+                    if (r < neighborPosition && !conflicts.contains(segment)) {
+                        align[neighbor] = vertex;
+                        root[vertex] = root[neighbor];
+                        align[vertex] = root[vertex];
+                        r = neighborPosition;
+                    }
+                }
+            }
+        }
+        double[] xs = compact(root, align, fromLeft);
+        if (!fromLeft) {
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                xs[vertex] = -xs[vertex];
+            }
+        }
+        return xs;
+    }
+
+    /** Sweep coordinates grow away from the sweep side. Blocks are placed with a stack instead of recursion. */
+    private double[] compact(int[] root, int[] align, boolean fromLeft) {
+        double[] x = new double[vertexCount];
+        Arrays.fill(x, Double.NaN);
+        int[] sink = new int[vertexCount];
+        int[] cursor = new int[vertexCount];
+        int[] stack = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            sink[vertex] = vertex;
+        }
+        for (int[] layer : layers) {
+            for (int i = 0; i < layer.length; i++) {
+                int vertex = layer[fromLeft ? i : layer.length - 1 - i];
+                if (root[vertex] == vertex && Double.isNaN(x[vertex])) {
+                    placeBlock(vertex, root, align, sink, x, cursor, stack, fromLeft);
+                }
+            }
+        }
+
+        double[] shift = classShifts(root, sink, x, fromLeft);
+        double[] xs = new double[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            xs[vertex] = x[root[vertex]] + shift[sink[root[vertex]]];
+        }
+        return xs;
+    }
+
+    private void placeBlock(int block, int[] root, int[] align, int[] sink, double[] x, int[] cursor, int[] stack,
+                            boolean fromLeft) {
+        int depth = 0;
+        x[block] = 0.0;
+        cursor[block] = block;
+        stack[depth++] = block;
+        while (depth > 0) {
+            int v = stack[depth - 1];
+            int w = cursor[v];
+            int left = sweepPredecessor(w, fromLeft);
+            if (left != NONE) {
+                int u = root[left];
+                if (Double.isNaN(x[u])) {
+                    x[u] = 0.0;
+                    cursor[u] = u;
+                    stack[depth++] = u;
+                    continue;
+                }
+                if (sink[v] == v) {
+                    sink[v] = sink[u];
+                }
+                if (sink[v] == sink[u]) {
+                    x[v] = Math.max(x[v], x[u] + gap(left, w));
+                }
+            }
+            cursor[v] = align[w];
+            if (cursor[v] == v) {
+                depth--;
+            }
+        }
+    }
+
+    /** Classes are settled right to left; a class moves left just far enough to clear those to its right. */
+    private double[] classShifts(int[] root, int[] sink, double[] x, boolean fromLeft) {
+        int[] constraintStart = new int[vertexCount + 1];
+        int[] waiting = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int left = sweepPredecessor(vertex, fromLeft);
+            if (left != NONE && sink[root[left]] != sink[root[vertex]]) {
+                constraintStart[sink[root[vertex]] + 1]++;
+                waiting[sink[root[left]]]++;
+            }
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            constraintStart[vertex + 1] += constraintStart[vertex];
+        }
+        int[] constrained = new int[constraintStart[vertexCount]];
+        int[] fill = Arrays.copyOf(constraintStart, vertexCount);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int left = sweepPredecessor(vertex, fromLeft);
+            if (left != NONE && sink[root[left]] != sink[root[vertex]]) {
+                constrained[fill[sink[root[vertex]]]++] = vertex;
+            }
+        }
+
+        double[] shift = new double[vertexCount];
+        Arrays.fill(shift, Double.POSITIVE_INFINITY);
+        int[] queue = new int[vertexCount];
+        int tail = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (sink[vertex] == vertex && waiting[vertex] == 0) {
+                shift[vertex] = 0.0;
+                queue[tail++] = vertex;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int rightClass = queue[head];
+            for (int slot = constraintStart[rightClass]; slot < constraintStart[rightClass + 1]; slot++) {
+                int vertex = constrained[slot];
+                int left = sweepPredecessor(vertex, fromLeft);
+                int leftClass = sink[root[left]];
+                shift[leftClass] = Math.min(shift[leftClass],
+                    shift[rightClass] + x[root[vertex]] - x[root[left]] - gap(left, vertex));
+                if (--waiting[leftClass] == 0) {
+                    queue[tail++] = leftClass;
+                }
+            }
+        }
+        return shift;
+    }
+
+    private int sweepPosition(int vertex, boolean fromLeft) {
+        return fromLeft ? position[vertex] : layers[layerOf[vertex]].length - 1 - position[vertex];
+    }
+
+    private int sweepPredecessor(int vertex, boolean fromLeft) {
+        int[] layer = layers[layerOf[vertex]];
+        int index = position[vertex] + (fromLeft ? -1 : 1);
+        return index >= 0 && index < layer.length ? layer[index] : NONE;
+    }
+
+    private double gap(int first, int second) {
+        return halfWidth(first) + halfWidth(second);
+    }
+
+    private double halfWidth(int vertex) {
+        return (isDummy(vertex) ? dummySeparation : separation) / 2.0;
+    }
+
+    private boolean isDummy(int vertex) {
+        return vertex >= realCount;
+    }
+
+    private long key(int upper, int lower) {
+        return (long) upper * vertexCount + lower;
+    }
+
+    private static double min(double[] values) {
+        double min = Double.MAX_VALUE;
+        for (double value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static double max(double[] values) {
+        double max = -Double.MAX_VALUE;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,125 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** The key snapshots the window's enterable cells and is compared exactly, so a hit is the delegate's route. */
+public class CachingPathSolver implements PathSolver {
+
+    private final PathSolver delegate;
+    private final Map<RouteKey, SearchResult> routes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingPathSolver(PathSolver delegate, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Route cache size must be positive: " + maxEntries);
+        }
+        this.delegate = delegate;
+        this.routes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RouteKey, SearchResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public SearchWindow window(GridPoint start, GridPoint goal) {
+        return delegate.window(start, goal);
+    }
+
+    @Override
+    public SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid) {
+        return search(start, goal, grid, NO_DEADLINE);
+    }
+
+    /** Routes cut short by one request's deadline are never served to later requests. */
+    @Override
+    public SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid, long deadlineNanos) {
+        RouteKey key = RouteKey.of(start, goal, delegate.window(start, goal), grid);
+        SearchResult cached;
+        synchronized (routes) {
+            cached = routes.get(key);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        SearchResult result = delegate.search(start, goal, grid, deadlineNanos);
+        if (deadlineNanos != NO_DEADLINE && result.suboptimalityBound() > 1.0) {
+            return result;
+        }
+        SearchResult stored = new SearchResult(List.copyOf(result.path()), result.expandedNodes(), result.found(), result.suboptimalityBound());
+        synchronized (routes) {
+            routes.put(key, stored);
+        }
+        return stored;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (routes) {
+            return routes.size();
+        }
+    }
+
+    private record RouteKey(GridPoint start, GridPoint goal, SearchWindow window, long[] blocked, int fingerprint) {
+
+        static RouteKey of(GridPoint start, GridPoint goal, SearchWindow window, OccupancyGrid grid) {
+            GridRect startArea = grid.exemptArea(start);
+            GridRect goalArea = grid.exemptArea(goal);
+            int wordsPerRow = (window.width() + 63) >>> 6;
+            long[] blocked = new long[wordsPerRow * window.height()];
+            int word = 0;
+            for (int y = window.minY(); y <= window.maxY(); y++) {
+                for (int x = window.minX(); x <= window.maxX(); x += 64) {
+                    long bits = grid.rowBits(x, y) & rowMask(x, window.maxX());
+                    bits = clear(bits, x, y, startArea);
+                    blocked[word++] = clear(bits, x, y, goalArea);
+                }
+            }
+            return new RouteKey(start, goal, window, blocked, Arrays.hashCode(blocked));
+        }
+
+        private static long rowMask(int x, int maxX) {
+            int length = maxX - x + 1;
+            return length >= 64 ? -1L : (1L << length) - 1;
+        }
+
+        private static long clear(long bits, int x, int y, GridRect area) {
+            if (y < area.minY() || y > area.maxY() || area.maxX() < x || area.minX() > x + 63) {
+                return bits;
+            }
+            int from = Math.max(area.minX() - x, 0);
+            int to = Math.min(area.maxX() - x, 63);
+            return bits & ~((-1L << from) & (-1L >>> (63 - to)));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RouteKey key
+                && fingerprint == key.fingerprint
+                && start.equals(key.start)
+                && goal.equals(key.goal)
+                && window.equals(key.window)
+                && Arrays.equals(blocked, key.blocked);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (31 * start.hashCode() + goal.hashCode()) + window.hashCode()) + fingerprint;
+        }
+    }
+}
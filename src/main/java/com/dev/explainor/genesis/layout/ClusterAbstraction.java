@@ -0,0 +1,243 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entrance graph of an {@link OccupancyGrid} split into square clusters. Immutable once built except for the
+ * lazily filled inner routes, so one abstraction serves every search of a request.
+ */
+final class ClusterAbstraction {
+
+    private static final int WIDE_ENTRANCE = 6;
+    private static final int NO_NODE = -1;
+
+    private final int clusterSize;
+    private final int minX;
+    private final int minY;
+    private final int width;
+    private final int height;
+    private final int clustersX;
+    private final int[] nodeAt;
+
+    private int nodeCount;
+    private int[] nodeX = new int[64];
+    private int[] nodeY = new int[64];
+    private int[][] links = new int[64][];
+    private int[] linkCount = new int[64];
+    private final int[][] clusterNodes;
+    private final Map<Long, List<GridPoint>> innerRoutes = new ConcurrentHashMap<>();
+
+    private ClusterAbstraction(int clusterSize, GridRect area) {
+        this.clusterSize = clusterSize;
+        this.minX = area.minX();
+        this.minY = area.minY();
+        this.width = area.maxX() - area.minX() + 1;
+        this.height = area.maxY() - area.minY() + 1;
+        this.clustersX = width / clusterSize;
+        this.nodeAt = new int[width * height];
+        this.clusterNodes = new int[clustersX * (height / clusterSize)][];
+        Arrays.fill(nodeAt, NO_NODE);
+    }
+
+    /** Covers the bounds grown by {@code margin} cells, so every search window between cells inside fits. */
+    static ClusterAbstraction build(OccupancyGrid grid, int clusterSize, int margin) {
+        GridRect bounds = grid.bounds();
+        GridRect area = snap(new GridRect(bounds.minX() - margin, bounds.minY() - margin,
+            bounds.maxX() + margin, bounds.maxY() + margin), clusterSize);
+        ClusterAbstraction abstraction = new ClusterAbstraction(clusterSize, area);
+        abstraction.addTransitions(grid);
+        abstraction.linkClusters(grid);
+        return abstraction;
+    }
+
+    static GridRect snap(GridRect rect, int clusterSize) {
+        return new GridRect(
+            Math.floorDiv(rect.minX(), clusterSize) * clusterSize,
+            Math.floorDiv(rect.minY(), clusterSize) * clusterSize,
+            (Math.floorDiv(rect.maxX(), clusterSize) + 1) * clusterSize - 1,
+            (Math.floorDiv(rect.maxY(), clusterSize) + 1) * clusterSize - 1
+        );
+    }
+
+    boolean covers(GridRect rect) {
+        return rect.minX() >= minX && rect.minY() >= minY
+            && rect.maxX() < minX + width && rect.maxY() < minY + height;
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    int nodeX(int node) {
+        return nodeX[node];
+    }
+
+    int nodeY(int node) {
+        return nodeY[node];
+    }
+
+    /** Interleaved {@code [neighbour, cost, ...]}, valid up to {@code 2 * degree(node)}. */
+    int[] links(int node) {
+        return links[node];
+    }
+
+    int degree(int node) {
+        return linkCount[node] / 2;
+    }
+
+    int[] nodesOfClusterAt(int x, int y) {
+        int[] nodes = clusterNodes[clusterOf(x, y)];
+        return nodes == null ? new int[0] : nodes;
+    }
+
+    boolean sameCluster(int first, int second) {
+        return clusterOf(nodeX[first], nodeY[first]) == clusterOf(nodeX[second], nodeY[second]);
+    }
+
+    List<GridPoint> innerRoute(int from, int to, OccupancyGrid grid, LocalSearch search) {
+        return innerRoutes.computeIfAbsent((long) from * nodeCount + to, key -> {
+            GridPoint fromCell = new GridPoint(nodeX[from], nodeY[from]);
+            search.run(grid, clusterRect(fromCell.x(), fromCell.y()), fromCell, GridRect.cell(fromCell), GridRect.cell(fromCell));
+            return List.copyOf(search.pathTo(nodeX[to], nodeY[to]));
+        });
+    }
+
+    GridRect clusterRect(int x, int y) {
+        int clusterMinX = Math.floorDiv(x, clusterSize) * clusterSize;
+        int clusterMinY = Math.floorDiv(y, clusterSize) * clusterSize;
+        return new GridRect(clusterMinX, clusterMinY, clusterMinX + clusterSize - 1, clusterMinY + clusterSize - 1);
+    }
+
+    private int clusterOf(int x, int y) {
+        return ((y - minY) / clusterSize) * clustersX + (x - minX) / clusterSize;
+    }
+
+    private void addTransitions(OccupancyGrid grid) {
+        for (int clusterY = minY; clusterY < minY + height; clusterY += clusterSize) {
+            for (int clusterX = minX; clusterX < minX + width; clusterX += clusterSize) {
+                if (clusterX + clusterSize < minX + width) {
+                    addTransitions(grid, clusterX + clusterSize - 1, clusterY, 0, 1, 1, 0);
+                }
+                if (clusterY + clusterSize < minY + height) {
+                    addTransitions(grid, clusterX, clusterY + clusterSize - 1, 1, 0, 0, 1);
+                }
+            }
+        }
+    }
+
+    private void addTransitions(OccupancyGrid grid, int x, int y, int stepX, int stepY, int acrossX, int acrossY) {
+        int runStart = -1;
+        for (int i = 0; i <= clusterSize; i++) {
+            boolean free = i < clusterSize
+                && !grid.isBlocked(x + i * stepX, y + i * stepY)
+                && !grid.isBlocked(x + i * stepX + acrossX, y + i * stepY + acrossY);
+            if (free && runStart < 0) {
+                runStart = i;
+            } else if (!free && runStart >= 0) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 < WIDE_ENTRANCE) {
+                    int middle = (runStart + runEnd) / 2;
+                    addTransition(x + middle * stepX, y + middle * stepY, acrossX, acrossY);
+                } else {
+                    addTransition(x + runStart * stepX, y + runStart * stepY, acrossX, acrossY);
+                    addTransition(x + runEnd * stepX, y + runEnd * stepY, acrossX, acrossY);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void addTransition(int x, int y, int acrossX, int acrossY) {
+        int inside = nodeFor(x, y);
+        int across = nodeFor(x + acrossX, y + acrossY);
+        link(inside, across, 1);
+        link(across, inside, 1);
+    }
+
+    private int nodeFor(int x, int y) {
+        int cell = (y - minY) * width + (x - minX);
+        if (nodeAt[cell] != NO_NODE) {
+            return nodeAt[cell];
+        }
+        if (nodeCount == nodeX.length) {
+            int capacity = nodeCount * 2;
+            nodeX = Arrays.copyOf(nodeX, capacity);
+            nodeY = Arrays.copyOf(nodeY, capacity);
+            links = Arrays.copyOf(links, capacity);
+            linkCount = Arrays.copyOf(linkCount, capacity);
+        }
+        int node = nodeCount++;
+        nodeX[node] = x;
+        nodeY[node] = y;
+        links[node] = new int[8];
+        nodeAt[cell] = node;
+        int cluster = clusterOf(x, y);
+        int[] nodes = clusterNodes[cluster];
+        if (nodes == null) {
+            clusterNodes[cluster] = new int[]{node};
+        } else {
+            nodes = Arrays.copyOf(nodes, nodes.length + 1);
+            nodes[nodes.length - 1] = node;
+            clusterNodes[cluster] = nodes;
+        }
+        return node;
+    }
+
+    private void link(int from, int to, int cost) {
+        int[] nodeLinks = links[from];
+        if (linkCount[from] + 2 > nodeLinks.length) {
+            nodeLinks = Arrays.copyOf(nodeLinks, nodeLinks.length * 2);
+            links[from] = nodeLinks;
+        }
+        nodeLinks[linkCount[from]++] = to;
+        nodeLinks[linkCount[from]++] = cost;
+    }
+
+    /** Clusters without blocked cells use the Manhattan distance instead of a search. */
+    private void linkClusters(OccupancyGrid grid) {
+        LocalSearch search = new LocalSearch();
+        for (int[] nodes : clusterNodes) {
+            if (nodes == null || nodes.length < 2) {
+                continue;
+            }
+            GridRect cluster = clusterRect(nodeX[nodes[0]], nodeY[nodes[0]]);
+            if (isFree(grid, cluster)) {
+                for (int i = 0; i < nodes.length; i++) {
+                    for (int j = i + 1; j < nodes.length; j++) {
+                        int distance = Math.abs(nodeX[nodes[i]] - nodeX[nodes[j]]) + Math.abs(nodeY[nodes[i]] - nodeY[nodes[j]]);
+                        link(nodes[i], nodes[j], distance);
+                        link(nodes[j], nodes[i], distance);
+                    }
+                }
+                continue;
+            }
+            for (int i = 0; i < nodes.length; i++) {
+                GridPoint from = new GridPoint(nodeX[nodes[i]], nodeY[nodes[i]]);
+                search.run(grid, cluster, from, GridRect.cell(from), GridRect.cell(from));
+                for (int j = i + 1; j < nodes.length; j++) {
+                    int distance = search.distance(nodeX[nodes[j]], nodeY[nodes[j]]);
+                    if (distance >= 0) {
+                        link(nodes[i], nodes[j], distance);
+                        link(nodes[j], nodes[i], distance);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isFree(OccupancyGrid grid, GridRect cluster) {
+        for (int y = cluster.minY(); y <= cluster.maxY(); y++) {
+            for (int x = cluster.minX(); x <= cluster.maxX(); x += 64) {
+                int length = Math.min(64, cluster.maxX() - x + 1);
+                long mask = length == 64 ? -1L : (1L << length) - 1;
+                if ((grid.rowBits(x, y) & mask) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.Arrays;
+
+/** Next-fit decreasing height shelf packing, never narrower than the widest rectangle. */
+final class ComponentPacker {
+
+    private ComponentPacker() {
+    }
+
+    static Packing pack(double[] widths, double[] heights, double aspect) {
+        int count = widths.length;
+        double maxWidth = 0;
+        double area = 0;
+        for (int i = 0; i < count; i++) {
+            maxWidth = Math.max(maxWidth, widths[i]);
+            area += widths[i] * heights[i];
+        }
+        double shelfWidth = Math.max(maxWidth, Math.sqrt(area * aspect));
+
+        Integer[] byHeight = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            byHeight[i] = i;
+        }
+        Arrays.sort(byHeight, (a, b) -> Double.compare(heights[b], heights[a]));
+
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        double shelfY = 0;
+        double shelfHeight = 0;
+        double cursorX = 0;
+        double usedWidth = 0;
+        for (int rect : byHeight) {
+            if (cursorX > 0 && cursorX + widths[rect] > shelfWidth) {
+                shelfY += shelfHeight;
+                shelfHeight = 0;
+                cursorX = 0;
+            }
+            xs[rect] = cursorX;
+            ys[rect] = shelfY;
+            cursorX += widths[rect];
+            shelfHeight = Math.max(shelfHeight, heights[rect]);
+            usedWidth = Math.max(usedWidth, cursorX);
+        }
+        return new Packing(xs, ys, usedWidth, shelfY + shelfHeight);
+    }
+
+    record Packing(double[] xs, double[] ys, double width, double height) {
+    }
+}
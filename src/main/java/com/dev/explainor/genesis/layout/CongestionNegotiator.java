@@ -0,0 +1,286 @@
+package com.dev.explainor.genesis.layout;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Negotiated-congestion rip-up and reroute. Only routes running along the same cell in the same direction
+ * conflict, and cells inside node footprints are never counted.
+ */
+final class CongestionNegotiator {
+
+    private static final Logger log = LoggerFactory.getLogger(CongestionNegotiator.class);
+
+    private static final double INITIAL_PRESENT_FACTOR = 0.5;
+    private static final double PRESENT_FACTOR_GROWTH = 1.6;
+    private static final double HISTORY_INCREMENT = 0.3;
+    private static final int HORIZONTAL = 1;
+    private static final int VERTICAL = 2;
+    private static final ThreadLocal<GridSearchBuffers> BUFFERS = ThreadLocal.withInitial(GridSearchBuffers::new);
+
+    private final OccupancyGrid grid;
+    private final List<Route> routes;
+    private final GridRect area;
+    private final int width;
+    private final int[] horizontalUsage;
+    private final int[] verticalUsage;
+    private final double[] horizontalHistory;
+    private final double[] verticalHistory;
+
+    CongestionNegotiator(OccupancyGrid grid, List<Route> routes) {
+        this.grid = grid;
+        this.routes = routes;
+        this.area = union(routes);
+        this.width = area.maxX() - area.minX() + 1;
+        int cellCount = width * (area.maxY() - area.minY() + 1);
+        this.horizontalUsage = new int[cellCount];
+        this.verticalUsage = new int[cellCount];
+        this.horizontalHistory = new double[cellCount];
+        this.verticalHistory = new double[cellCount];
+    }
+
+    /** Returns the number of passes run. */
+    int negotiate(int maxPasses, long deadlineNanos) {
+        for (Route route : routes) {
+            addUsage(route, 1);
+        }
+        double presentFactor = INITIAL_PRESENT_FACTOR;
+        for (int pass = 1; pass <= maxPasses; pass++) {
+            long started = System.nanoTime();
+            int overused = recordHistory();
+            if (overused == 0) {
+                log.debug("Congestion resolved after {} passes", pass - 1);
+                return pass - 1;
+            }
+            List<Route> congested = congestedRoutes();
+            int rerouted = 0;
+            for (Route route : congested) {
+                if (System.nanoTime() >= deadlineNanos) {
+                    break;
+                }
+                addUsage(route, -1);
+                List<GridPoint> corners = search(route, presentFactor);
+                if (corners != null && !corners.equals(route.corners())) {
+                    route.reroute(corners);
+                    rerouted++;
+                }
+                addUsage(route, 1);
+            }
+            presentFactor *= PRESENT_FACTOR_GROWTH;
+            log.debug("Congestion pass {}: {} overused cells, rerouted {} of {} congested edges in {} us",
+                pass, overused, rerouted, congested.size(), (System.nanoTime() - started) / 1000);
+            if (System.nanoTime() >= deadlineNanos) {
+                return pass;
+            }
+        }
+        return maxPasses;
+    }
+
+    private int recordHistory() {
+        int overused = 0;
+        for (int cell = 0; cell < horizontalUsage.length; cell++) {
+            boolean counted = false;
+            if (horizontalUsage[cell] > 1) {
+                horizontalHistory[cell] += HISTORY_INCREMENT;
+                counted = true;
+            }
+            if (verticalUsage[cell] > 1) {
+                verticalHistory[cell] += HISTORY_INCREMENT;
+                counted = true;
+            }
+            if (counted) {
+                overused++;
+            }
+        }
+        return overused;
+    }
+
+    private List<Route> congestedRoutes() {
+        List<Route> congested = new ArrayList<>();
+        for (Route route : routes) {
+            int[] cells = route.cells;
+            int[] directions = route.directions;
+            for (int i = 0; i < cells.length; i++) {
+                if ((directions[i] & HORIZONTAL) != 0 && horizontalUsage[cells[i]] > 1
+                    || (directions[i] & VERTICAL) != 0 && verticalUsage[cells[i]] > 1) {
+                    congested.add(route);
+                    break;
+                }
+            }
+        }
+        return congested;
+    }
+
+    private void addUsage(Route route, int delta) {
+        expand(route);
+        int[] cells = route.cells;
+        int[] directions = route.directions;
+        for (int i = 0; i < cells.length; i++) {
+            if ((directions[i] & HORIZONTAL) != 0) {
+                horizontalUsage[cells[i]] += delta;
+            }
+            if ((directions[i] & VERTICAL) != 0) {
+                verticalUsage[cells[i]] += delta;
+            }
+        }
+    }
+
+    /** Every step costs at least {@code 1}, so the Manhattan heuristic stays consistent. */
+    private List<GridPoint> search(Route route, double presentFactor) {
+        SearchWindow window = route.window();
+        GridPoint start = route.start();
+        GridPoint goal = route.goal();
+        GridRect startArea = grid.exemptArea(start);
+        GridRect goalArea = grid.exemptArea(goal);
+        GridSearchBuffers buffers = BUFFERS.get();
+        buffers.begin(window.cellCount());
+        int startIndex = window.indexOf(start);
+        int goalIndex = window.indexOf(goal);
+        buffers.start(startIndex);
+        buffers.push(startIndex, heuristic(start.x(), start.y(), goal));
+
+        int iterations = 0;
+        int limit = window.cellCount();
+        while (!buffers.isEmpty() && iterations++ < limit) {
+            int current = buffers.poll();
+            if (current == goalIndex) {
+                return buffers.tracePath(startIndex, goalIndex, window);
+            }
+            if (buffers.isClosed(current)) {
+                continue;
+            }
+            buffers.close(current);
+            int x = window.xOf(current);
+            int y = window.yOf(current);
+            double score = buffers.score(current);
+            relax(buffers, window, current, score, x + 1, y, HORIZONTAL, goal, startArea, goalArea, presentFactor);
+            relax(buffers, window, current, score, x - 1, y, HORIZONTAL, goal, startArea, goalArea, presentFactor);
+            relax(buffers, window, current, score, x, y + 1, VERTICAL, goal, startArea, goalArea, presentFactor);
+            relax(buffers, window, current, score, x, y - 1, VERTICAL, goal, startArea, goalArea, presentFactor);
+        }
+        return null;
+    }
+
+    private void relax(GridSearchBuffers buffers, SearchWindow window, int current, double score, int x, int y,
+                       int direction, GridPoint goal, GridRect startArea, GridRect goalArea, double presentFactor) {
+        if (!window.contains(x, y) || grid.isBlockedExcept(x, y, startArea, goalArea)) {
+            return;
+        }
+        int neighbor = window.indexOf(x, y);
+        if (buffers.isClosed(neighbor)) {
+            return;
+        }
+        double tentativeScore = score + stepCost(x, y, direction, presentFactor);
+        if (tentativeScore >= buffers.score(neighbor)) {
+            return;
+        }
+        buffers.update(neighbor, tentativeScore, current);
+        buffers.push(neighbor, tentativeScore + heuristic(x, y, goal));
+    }
+
+    private double stepCost(int x, int y, int direction, double presentFactor) {
+        if (!area.contains(x, y) || grid.isBlocked(x, y)) {
+            return 1.0;
+        }
+        int cell = cellOf(x, y);
+        return direction == HORIZONTAL
+            ? (1.0 + horizontalHistory[cell]) * (1.0 + presentFactor * horizontalUsage[cell])
+            : (1.0 + verticalHistory[cell]) * (1.0 + presentFactor * verticalUsage[cell]);
+    }
+
+    private double heuristic(int x, int y, GridPoint goal) {
+        return Math.abs(x - goal.x()) + Math.abs(y - goal.y());
+    }
+
+    private int cellOf(int x, int y) {
+        return (y - area.minY()) * width + (x - area.minX());
+    }
+
+    private static GridRect union(List<Route> routes) {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (Route route : routes) {
+            minX = Math.min(minX, route.window().minX());
+            minY = Math.min(minY, route.window().minY());
+            maxX = Math.max(maxX, route.window().maxX());
+            maxY = Math.max(maxY, route.window().maxY());
+        }
+        return routes.isEmpty() ? new GridRect(0, 0, 0, 0) : new GridRect(minX, minY, maxX, maxY);
+    }
+
+    /** Corner cells appear once per direction. */
+    private void expand(Route route) {
+        if (route.cells != null) {
+            return;
+        }
+        List<Integer> cells = new ArrayList<>();
+        List<Integer> directions = new ArrayList<>();
+        List<GridPoint> corners = route.corners;
+        for (int i = 0; i + 1 < corners.size(); i++) {
+            GridPoint from = corners.get(i);
+            GridPoint to = corners.get(i + 1);
+            int dx = Integer.signum(to.x() - from.x());
+            int dy = Integer.signum(to.y() - from.y());
+            int direction = dx != 0 ? HORIZONTAL : VERTICAL;
+            for (int x = from.x(), y = from.y(); ; x += dx, y += dy) {
+                if (area.contains(x, y) && !grid.isBlocked(x, y)) {
+                    cells.add(cellOf(x, y));
+                    directions.add(direction);
+                }
+                if (x == to.x() && y == to.y()) {
+                    break;
+                }
+            }
+        }
+        route.cells = cells.stream().mapToInt(Integer::intValue).toArray();
+        route.directions = directions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static final class Route {
+        private final GridPoint start;
+        private final GridPoint goal;
+        private final SearchWindow window;
+        private List<GridPoint> corners;
+        private int[] cells;
+        private int[] directions;
+        private boolean changed;
+
+        Route(GridPoint start, GridPoint goal, SearchWindow window, List<GridPoint> corners) {
+            this.start = start;
+            this.goal = goal;
+            this.window = window;
+            this.corners = corners;
+        }
+
+        GridPoint start() {
+            return start;
+        }
+
+        GridPoint goal() {
+            return goal;
+        }
+
+        SearchWindow window() {
+            return window;
+        }
+
+        List<GridPoint> corners() {
+            return corners;
+        }
+
+        boolean changed() {
+            return changed;
+        }
+
+        private void reroute(List<GridPoint> newCorners) {
+            corners = newCorners;
+            cells = null;
+            changed = true;
+        }
+    }
+}
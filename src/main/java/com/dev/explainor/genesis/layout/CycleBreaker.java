@@ -0,0 +1,141 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.layout.model.EntityGraph;
+
+import java.util.Arrays;
+
+/** Greedy feedback arc set after Eades, Lin and Smyth, in {@code O(n + m)}. Self-loops are never reversed. */
+final class CycleBreaker {
+
+    private static final int NONE = -1;
+
+    private final EntityGraph graph;
+    private final int[] outDegree;
+    private final int[] inDegree;
+    private final boolean[] removed;
+    private final int[] bucketOf;
+    private final int[] previous;
+    private final int[] next;
+    private final int[] heads;
+    private final int sinkBucket;
+    private final int sourceBucket;
+    private final int offset;
+    private int maxBucket;
+
+    private CycleBreaker(EntityGraph graph) {
+        this.graph = graph;
+        int count = graph.nodeCount();
+        this.outDegree = new int[count];
+        this.inDegree = new int[count];
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            if (graph.source(edge) != graph.target(edge)) {
+                outDegree[graph.source(edge)]++;
+                inDegree[graph.target(edge)]++;
+            }
+        }
+        int maxIn = 0;
+        int maxOut = 0;
+        for (int node = 0; node < count; node++) {
+            maxIn = Math.max(maxIn, inDegree[node]);
+            maxOut = Math.max(maxOut, outDegree[node]);
+        }
+        this.offset = maxIn;
+        this.sinkBucket = maxIn + maxOut + 1;
+        this.sourceBucket = sinkBucket + 1;
+        this.heads = new int[sourceBucket + 1];
+        Arrays.fill(heads, NONE);
+        this.removed = new boolean[count];
+        this.bucketOf = new int[count];
+        this.previous = new int[count];
+        this.next = new int[count];
+        for (int node = 0; node < count; node++) {
+            insert(node);
+        }
+        this.maxBucket = sinkBucket - 1;
+    }
+
+    static boolean[] feedbackArcs(EntityGraph graph) {
+        int[] rank = new CycleBreaker(graph).sequence();
+        boolean[] reversed = new boolean[graph.edgeCount()];
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            reversed[edge] = rank[graph.source(edge)] > rank[graph.target(edge)];
+        }
+        return reversed;
+    }
+
+    private int[] sequence() {
+        int count = graph.nodeCount();
+        int[] rank = new int[count];
+        int front = 0;
+        int back = count - 1;
+        for (int remaining = count; remaining > 0; remaining--) {
+            int node;
+            if (heads[sinkBucket] != NONE) {
+                node = heads[sinkBucket];
+                rank[node] = back--;
+            } else if (heads[sourceBucket] != NONE) {
+                node = heads[sourceBucket];
+                rank[node] = front++;
+            } else {
+                while (heads[maxBucket] == NONE) {
+                    maxBucket--;
+                }
+                node = heads[maxBucket];
+                rank[node] = front++;
+            }
+            remove(node);
+        }
+        return rank;
+    }
+
+    private void remove(int node) {
+        unlink(node);
+        removed[node] = true;
+        for (int slot = graph.outStart(node); slot < graph.outStart(node + 1); slot++) {
+            int target = graph.target(graph.outEdge(slot));
+            if (!removed[target]) {
+                unlink(target);
+                inDegree[target]--;
+                insert(target);
+            }
+        }
+        for (int slot = graph.inStart(node); slot < graph.inStart(node + 1); slot++) {
+            int source = graph.source(graph.inEdge(slot));
+            if (!removed[source]) {
+                unlink(source);
+                outDegree[source]--;
+                insert(source);
+            }
+        }
+    }
+
+    private void insert(int node) {
+        int bucket;
+        if (outDegree[node] == 0) {
+            bucket = sinkBucket;
+        } else if (inDegree[node] == 0) {
+            bucket = sourceBucket;
+        } else {
+            bucket = outDegree[node] - inDegree[node] + offset;
+            maxBucket = Math.max(maxBucket, bucket);
+        }
+        bucketOf[node] = bucket;
+        previous[node] = NONE;
+        next[node] = heads[bucket];
+        if (heads[bucket] != NONE) {
+            previous[heads[bucket]] = node;
+        }
+        heads[bucket] = node;
+    }
+
+    private void unlink(int node) {
+        if (previous[node] != NONE) {
+            next[previous[node]] = next[node];
+        } else {
+            heads[bucketOf[node]] = next[node];
+        }
+        if (next[node] != NONE) {
+            previous[next[node]] = previous[node];
+        }
+    }
+}
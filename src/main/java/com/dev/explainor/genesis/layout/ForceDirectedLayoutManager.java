@@ -0,0 +1,163 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.ForceLayoutProperties;
+import com.dev.explainor.genesis.layout.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fruchterman-Reingold placement with Barnes-Hut repulsion. Start positions come from the configured seed,
+ * so the same input always gives the same layout.
+ */
+@Component
+@ConditionalOnProperty(name = "layout.algorithm", havingValue = "force")
+public class ForceDirectedLayoutManager implements LayoutManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ForceDirectedLayoutManager.class);
+    private static final double DEFAULT_NODE_WIDTH = 120.0;
+    private static final double DEFAULT_NODE_HEIGHT = 80.0;
+    private static final double INITIAL_TEMPERATURE = 0.25;
+    private static final double COOLING = 0.95;
+    private static final double GRAVITY = 0.05;
+
+    private final double idealEdgeLength;
+    private final int maxIterations;
+    private final double energyThreshold;
+    private final double theta;
+    private final long seed;
+
+    public ForceDirectedLayoutManager(ForceLayoutProperties properties) {
+        if (properties.getIdealEdgeLength() <= 0 || properties.getTheta() < 0) {
+            throw new IllegalArgumentException("Ideal edge length must be positive and theta must not be negative");
+        }
+        this.idealEdgeLength = properties.getIdealEdgeLength();
+        this.maxIterations = properties.getMaxIterations();
+        this.energyThreshold = properties.getEnergyThreshold();
+        this.theta = properties.getTheta();
+        this.seed = properties.getSeed();
+    }
+
+    @Override
+    public List<PositionedNode> layout(List<LayoutNode> nodes, List<LayoutEdge> edges, LayoutConstraints constraints) {
+        return layout(EntityGraph.of(nodes, edges), nodes, edges, constraints);
+    }
+
+    @Override
+    public List<PositionedNode> layout(EntityGraph graph, List<LayoutNode> nodes, List<LayoutEdge> edges,
+                                       LayoutConstraints constraints) {
+        if (nodes.isEmpty()) {
+            return List.of();
+        }
+
+        int count = graph.nodeCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        seedPositions(xs, ys);
+        int iterations = relax(graph, xs, ys);
+        log.debug("Force-directed layout of {} nodes settled after {} iterations", count, iterations);
+        center(xs, ys, constraints);
+
+        List<PositionedNode> positionedNodes = new ArrayList<>(nodes.size());
+        for (int node = 0; node < nodes.size(); node++) {
+            LayoutNode layoutNode = nodes.get(node);
+            positionedNodes.add(new PositionedNode(
+                layoutNode.id(),
+                layoutNode.label(),
+                layoutNode.icon(),
+                xs[node],
+                ys[node],
+                DEFAULT_NODE_WIDTH,
+                DEFAULT_NODE_HEIGHT
+            ));
+        }
+        return positionedNodes;
+    }
+
+    private void seedPositions(double[] xs, double[] ys) {
+        Random random = new Random(seed);
+        double side = idealEdgeLength * Math.sqrt(xs.length);
+        for (int node = 0; node < xs.length; node++) {
+            xs[node] = (random.nextDouble() - 0.5) * side;
+            ys[node] = (random.nextDouble() - 0.5) * side;
+        }
+    }
+
+    int relax(EntityGraph graph, double[] xs, double[] ys) {
+        int count = xs.length;
+        double k = idealEdgeLength;
+        double repulsion = k * k;
+        double temperature = INITIAL_TEMPERATURE * k * Math.sqrt(count);
+        double stopEnergy = energyThreshold * k * energyThreshold * k;
+        double[] fx = new double[count];
+        double[] fy = new double[count];
+        double[] force = new double[2];
+        BarnesHutTree tree = new BarnesHutTree();
+
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            tree.build(xs, ys, count);
+            for (int node = 0; node < count; node++) {
+                force[0] = -GRAVITY * xs[node];
+                force[1] = -GRAVITY * ys[node];
+                tree.repulsion(node, xs[node], ys[node], theta, repulsion, force);
+                fx[node] = force[0];
+                fy[node] = force[1];
+            }
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                int source = graph.source(edge);
+                int target = graph.target(edge);
+                if (source == target) {
+                    continue;
+                }
+                double dx = xs[target] - xs[source];
+                double dy = ys[target] - ys[source];
+                double pull = Math.sqrt(dx * dx + dy * dy) / k;
+                fx[source] += dx * pull;
+                fy[source] += dy * pull;
+                fx[target] -= dx * pull;
+                fy[target] -= dy * pull;
+            }
+
+            double energy = 0;
+            for (int node = 0; node < count; node++) {
+                double magnitude = Math.sqrt(fx[node] * fx[node] + fy[node] * fy[node]);
+                if (magnitude == 0) {
+                    continue;
+                }
+                double step = Math.min(magnitude, temperature);
+                xs[node] += fx[node] / magnitude * step;
+                ys[node] += fy[node] / magnitude * step;
+                energy += step * step;
+            }
+            temperature *= COOLING;
+            if (energy / count < stopEnergy) {
+                return iteration;
+            }
+        }
+        return maxIterations;
+    }
+
+    private void center(double[] xs, double[] ys, LayoutConstraints constraints) {
+        double minX = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int node = 0; node < xs.length; node++) {
+            minX = Math.min(minX, xs[node]);
+            maxX = Math.max(maxX, xs[node]);
+            minY = Math.min(minY, ys[node]);
+            maxY = Math.max(maxY, ys[node]);
+        }
+        double offsetX = constraints.canvasWidth() / 2.0 - (minX + maxX) / 2.0;
+        double offsetY = constraints.canvasHeight() / 2.0 - (minY + maxY) / 2.0;
+        for (int node = 0; node < xs.length; node++) {
+            xs[node] += offsetX;
+            ys[node] += offsetY;
+        }
+    }
+}
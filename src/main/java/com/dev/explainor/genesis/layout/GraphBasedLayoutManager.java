@@ -2,161 +2,409 @@ package com.dev.explainor.genesis.layout;
 
 import com.dev.explainor.genesis.config.LayoutProperties;
 import com.dev.explainor.genesis.layout.model.*;
-import org.jgrapht.Graph;
-import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.DefaultDirectedGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 @Component
 @Primary
-public class GraphBasedLayoutManager implements LayoutManager {
+@ConditionalOnProperty(name = "layout.algorithm", havingValue = "graph", matchIfMissing = true)
+public class GraphBasedLayoutManager implements LayoutManager, AutoCloseable {
 
     private static final Logger log = LoggerFactory.getLogger(GraphBasedLayoutManager.class);
     private static final double DEFAULT_NODE_WIDTH = 120.0;
     private static final double DEFAULT_NODE_HEIGHT = 80.0;
+    private static final int UNASSIGNED = -1;
+    private static final int PARALLEL_THRESHOLD = 64;
 
     private final double layerSpacing;
     private final double nodeSpacing;
+    private final double gridStep;
+    private final LayoutProperties.OrderingType ordering;
+    private final int orderingSweeps;
+    private final LayoutProperties.CycleBreaking cycleBreaking;
+    private final LayoutProperties.CoordinateAssignment coordinates;
+    private final boolean packComponents;
+    private final ForkJoinPool layoutPool;
+    private final PlacementCache placementCache;
 
     public GraphBasedLayoutManager(LayoutProperties properties) {
         this.layerSpacing = properties.getLayerSpacing();
         this.nodeSpacing = properties.getNodeSpacing();
+        this.gridStep = properties.getGridStep();
+        this.ordering = properties.getOrdering();
+        this.orderingSweeps = properties.getOrderingSweeps();
+        this.cycleBreaking = properties.getCycleBreaking();
+        this.coordinates = properties.getCoordinates();
+        this.packComponents = properties.isPackComponents();
+        int parallelism = properties.getLayoutParallelism();
+        this.layoutPool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        int cacheSize = properties.getPlacementCacheSize();
+        this.placementCache = cacheSize > 0 ? new PlacementCache(cacheSize) : null;
     }
 
     @Override
     public List<PositionedNode> layout(List<LayoutNode> nodes, List<LayoutEdge> edges, LayoutConstraints constraints) {
+        return layout(EntityGraph.of(nodes, edges), nodes, edges, constraints);
+    }
+
+    @Override
+    public List<PositionedNode> layout(EntityGraph graph, List<LayoutNode> nodes, List<LayoutEdge> edges,
+                                       LayoutConstraints constraints) {
         if (nodes.isEmpty()) {
             return List.of();
         }
 
-        Graph<String, DefaultEdge> graph = buildGraph(nodes, edges);
-        Map<String, Integer> levels = assignLevels(graph);
-        Map<String, Integer> orders = assignOrdersPerLevel(nodes, levels);
-
-        log.info("Assigned levels: {}", levels);
-        log.info("Assigned orders: {}", orders);
+        Placement placement = null;
+        if (packComponents) {
+            int[] components = graph.weakComponents();
+            int componentCount = 0;
+            for (int component : components) {
+                componentCount = Math.max(componentCount, component + 1);
+            }
+            if (componentCount > 1) {
+                placement = placeComponents(graph, components, componentCount, constraints);
+            }
+        }
+        if (placement == null) {
+            placement = place(graph);
+        }
+        double[] xs = placement.xs();
+        double[] ys = placement.ys();
+        centerAndScale(xs, ys, constraints);
+        if (placementCache != null) {
+            log.debug("Placement cache: {} hits, {} misses, hit rate {}, about {} ms of layout saved",
+                placementCache.hits(), placementCache.misses(), placementCache.hitRate(),
+                placementCache.savedNanos() / 1_000_000);
+        }
 
-        List<PositionedNode> positionedNodes = calculatePositions(nodes, levels, orders);
-        
-        log.info("Calculated positions before centering:");
-        positionedNodes.forEach(n -> log.info("  {} -> x={}, y={}", n.id(), n.x(), n.y()));
-        
-        centerAndScale(positionedNodes, constraints);
+        List<PositionedNode> positionedNodes = new ArrayList<>(nodes.size());
+        for (int node = 0; node < nodes.size(); node++) {
+            LayoutNode layoutNode = nodes.get(node);
+            positionedNodes.add(new PositionedNode(
+                layoutNode.id(),
+                layoutNode.label(),
+                layoutNode.icon(),
+                xs[node],
+                ys[node],
+                DEFAULT_NODE_WIDTH,
+                DEFAULT_NODE_HEIGHT
+            ));
+        }
 
-        log.info("Final positions after centering:");
-        positionedNodes.forEach(n -> log.info("  {} -> x={}, y={}", n.id(), n.x(), n.y()));
+        if (log.isDebugEnabled()) {
+            log.debug("Final positions after centering:");
+            positionedNodes.forEach(n -> log.debug("  {} -> x={}, y={}", n.id(), n.x(), n.y()));
+        }
 
         return positionedNodes;
     }
 
-    private Graph<String, DefaultEdge> buildGraph(List<LayoutNode> nodes, List<LayoutEdge> edges) {
-        Graph<String, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
-        for (LayoutNode node : nodes) {
-            graph.addVertex(node.id());
+    /** {@code null} when the cache is disabled. */
+    public PlacementCache placementCache() {
+        return placementCache;
+    }
+
+    @Override
+    public void close() {
+        if (layoutPool != null) {
+            layoutPool.shutdown();
+        }
+    }
+
+    private Placement place(EntityGraph graph) {
+        if (placementCache == null) {
+            return computePlacement(graph);
+        }
+        PlacementCache.CanonicalForm canonical = PlacementCache.CanonicalForm.of(graph);
+        double[][] cached = placementCache.get(canonical.key());
+        if (cached != null) {
+            return new Placement(canonical.fromCanonical(cached[0]), canonical.fromCanonical(cached[1]));
+        }
+        long started = System.nanoTime();
+        Placement placement = computePlacement(graph);
+        placementCache.put(canonical.key(), canonical.toCanonical(placement.xs()), canonical.toCanonical(placement.ys()),
+            System.nanoTime() - started);
+        return placement;
+    }
+
+    /** Brandes-Köpf needs the dummy vertices, so layers are built even when the input order is kept. */
+    private Placement computePlacement(EntityGraph graph) {
+        int[] levels = assignLevels(graph);
+        if (coordinates == LayoutProperties.CoordinateAssignment.BRANDES_KOEPF) {
+            LayerOrdering.Result layered = orderLayers(graph, levels);
+            double[] balanced = BrandesKoepf.assign(layered.layers(), layered.realCount(), layered.segmentUpper(),
+                layered.segmentLower(), nodeSpacing, gridStep);
+            if (log.isDebugEnabled()) {
+                log.debug("Assigned levels: {}", describe(graph, levels));
+            }
+            double[] xs = Arrays.copyOf(balanced, levels.length);
+            double[] ys = new double[levels.length];
+            for (int node = 0; node < levels.length; node++) {
+                ys[node] = levelOf(levels, node) * layerSpacing;
+            }
+            return new Placement(xs, ys);
+        }
+
+        int[] orders;
+        int[] levelWidths;
+        if (ordering == LayoutProperties.OrderingType.INPUT) {
+            orders = assignOrdersPerLevel(levels);
+            levelWidths = countNodesPerLevel(levels);
+        } else {
+            LayerOrdering.Result layered = orderLayers(graph, levels);
+            orders = new int[levels.length];
+            levelWidths = new int[layered.layers().length];
+            for (int level = 0; level < layered.layers().length; level++) {
+                int[] layer = layered.layers()[level];
+                for (int i = 0; i < layer.length; i++) {
+                    if (layer[i] < layered.realCount()) {
+                        orders[layer[i]] = i;
+                    }
+                }
+                levelWidths[level] = layer.length;
+            }
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Assigned levels: {}", describe(graph, levels));
+            log.debug("Assigned orders: {}", describe(graph, orders));
+        }
+
+        double[] xs = new double[levels.length];
+        double[] ys = new double[levels.length];
+        calculatePositions(levels, orders, levelWidths, xs, ys);
+        return new Placement(xs, ys);
+    }
+
+    /** Boxes are padded by one node and layer spacing so components stay as far apart as nodes. */
+    private Placement placeComponents(EntityGraph graph, int[] components, int componentCount,
+                                      LayoutConstraints constraints) {
+        int[][] members = new int[componentCount][];
+        int[] sizes = new int[componentCount];
+        for (int component : components) {
+            sizes[component]++;
+        }
+        for (int component = 0; component < componentCount; component++) {
+            members[component] = new int[sizes[component]];
+            sizes[component] = 0;
+        }
+        for (int node = 0; node < components.length; node++) {
+            members[components[node]][sizes[components[node]]++] = node;
+        }
+
+        Placement[] placements = new Placement[componentCount];
+        if (layoutPool != null && graph.nodeCount() >= PARALLEL_THRESHOLD) {
+            List<Callable<Placement>> tasks = new ArrayList<>(componentCount);
+            for (int[] component : members) {
+                tasks.add(() -> place(graph.subgraph(component)));
+            }
+            List<Future<Placement>> futures = layoutPool.invokeAll(tasks);
+            for (int component = 0; component < componentCount; component++) {
+                placements[component] = awaitPlacement(futures.get(component));
+            }
+        } else {
+            for (int component = 0; component < componentCount; component++) {
+                placements[component] = place(graph.subgraph(members[component]));
+            }
+        }
+
+        Bounds[] bounds = new Bounds[componentCount];
+        double[] widths = new double[componentCount];
+        double[] heights = new double[componentCount];
+        for (int component = 0; component < componentCount; component++) {
+            bounds[component] = calculateBounds(placements[component].xs(), placements[component].ys());
+            widths[component] = bounds[component].maxX() - bounds[component].minX() + nodeSpacing;
+            heights[component] = bounds[component].maxY() - bounds[component].minY() + layerSpacing;
         }
-        for (LayoutEdge edge : edges) {
-            graph.addEdge(edge.from(), edge.to());
+        ComponentPacker.Packing packing = ComponentPacker.pack(widths, heights,
+            (double) constraints.canvasWidth() / constraints.canvasHeight());
+        log.debug("Packed {} components into {}x{}", componentCount, packing.width(), packing.height());
+
+        double[] xs = new double[graph.nodeCount()];
+        double[] ys = new double[graph.nodeCount()];
+        for (int component = 0; component < componentCount; component++) {
+            Placement placement = placements[component];
+            double offsetX = packing.xs()[component] + nodeSpacing / 2.0 - bounds[component].minX();
+            double offsetY = packing.ys()[component] + layerSpacing / 2.0 - bounds[component].minY();
+            for (int i = 0; i < members[component].length; i++) {
+                xs[members[component][i]] = placement.xs()[i] + offsetX;
+                ys[members[component][i]] = placement.ys()[i] + offsetY;
+            }
         }
-        return graph;
+        return new Placement(xs, ys);
     }
 
-    private Map<String, Integer> assignLevels(Graph<String, DefaultEdge> graph) {
-        Map<String, Integer> levels = new HashMap<>();
-        Set<String> visited = new HashSet<>();
+    private Placement awaitPlacement(Future<Placement> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Component layout was interrupted", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Component layout failed", exception.getCause());
+        }
+    }
 
-        List<String> roots = new ArrayList<>();
-        for (String v : graph.vertexSet()) {
-            if (graph.inDegreeOf(v) == 0) {
-                roots.add(v);
+    /** With cycle breaking, every edge that is not reversed points to a lower level. */
+    private int[] assignLevels(EntityGraph graph) {
+        if (cycleBreaking == LayoutProperties.CycleBreaking.GREEDY) {
+            boolean[] reversed = CycleBreaker.feedbackArcs(graph);
+            return assignLongestPathLevels(graph, reversed);
+        }
+        return assignBreadthFirstLevels(graph);
+    }
+
+    /** Unreached nodes get {@link #UNASSIGNED}. */
+    private int[] assignBreadthFirstLevels(EntityGraph graph) {
+        int[] levels = new int[graph.nodeCount()];
+        Arrays.fill(levels, UNASSIGNED);
+        int[] queue = new int[graph.nodeCount()];
+        int tail = 0;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            if (graph.inDegree(node) == 0) {
+                levels[node] = 0;
+                queue[tail++] = node;
             }
         }
-        if (roots.isEmpty() && !graph.vertexSet().isEmpty()) {
-            roots.add(graph.vertexSet().iterator().next());
+        if (tail == 0 && graph.nodeCount() > 0) {
+            levels[0] = 0;
+            queue[tail++] = 0;
         }
 
-        ArrayDeque<String> queue = new ArrayDeque<>();
-        for (String root : roots) {
-            levels.put(root, 0);
-            queue.add(root);
-            visited.add(root);
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            for (int slot = graph.outStart(current); slot < graph.outStart(current + 1); slot++) {
+                int neighbor = graph.target(graph.outEdge(slot));
+                if (levels[neighbor] == UNASSIGNED) {
+                    levels[neighbor] = levels[current] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
         }
+        return levels;
+    }
 
-        while (!queue.isEmpty()) {
-            String current = queue.poll();
-            int nextLevel = levels.get(current) + 1;
-            for (DefaultEdge edge : graph.outgoingEdgesOf(current)) {
-                String neighbor = graph.getEdgeTarget(edge);
-                if (!visited.contains(neighbor)) {
-                    visited.add(neighbor);
-                    levels.put(neighbor, nextLevel);
-                    queue.add(neighbor);
+    private int[] assignLongestPathLevels(EntityGraph graph, boolean[] reversed) {
+        int count = graph.nodeCount();
+        int[] pending = new int[count];
+        int reversedCount = 0;
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            if (graph.source(edge) != graph.target(edge)) {
+                pending[reversed[edge] ? graph.source(edge) : graph.target(edge)]++;
+            }
+            if (reversed[edge]) {
+                reversedCount++;
+            }
+        }
+        log.debug("Reversed {} of {} edges to break cycles", reversedCount, graph.edgeCount());
+
+        int[] levels = new int[count];
+        int[] queue = new int[count];
+        int tail = 0;
+        for (int node = 0; node < count; node++) {
+            if (pending[node] == 0) {
+                queue[tail++] = node;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            for (int slot = graph.outStart(current); slot < graph.outStart(current + 1); slot++) {
+                int edge = graph.outEdge(slot);
+                if (!reversed[edge] && graph.target(edge) != current) {
+                    tail = lower(levels, pending, queue, tail, current, graph.target(edge));
+                }
+            }
+            for (int slot = graph.inStart(current); slot < graph.inStart(current + 1); slot++) {
+                int edge = graph.inEdge(slot);
+                if (reversed[edge]) {
+                    tail = lower(levels, pending, queue, tail, current, graph.source(edge));
                 }
             }
         }
         return levels;
     }
 
-    private Map<String, Integer> assignOrdersPerLevel(List<LayoutNode> nodes, Map<String, Integer> levels) {
-        Map<Integer, Integer> counters = new HashMap<>();
-        Map<String, Integer> order = new HashMap<>();
-        for (LayoutNode n : nodes) {
-            int lvl = levels.getOrDefault(n.id(), 0);
-            int idx = counters.getOrDefault(lvl, 0);
-            order.put(n.id(), idx);
-            counters.put(lvl, idx + 1);
+    private static int lower(int[] levels, int[] pending, int[] queue, int tail, int from, int to) {
+        levels[to] = Math.max(levels[to], levels[from] + 1);
+        if (--pending[to] == 0) {
+            queue[tail++] = to;
         }
-        return order;
+        return tail;
     }
 
-    private List<PositionedNode> calculatePositions(
-        List<LayoutNode> nodes,
-        Map<String, Integer> levels,
-        Map<String, Integer> orders
-    ) {
-        List<PositionedNode> positions = new ArrayList<>();
-        Map<Integer, Integer> levelCounts = new HashMap<>();
-        for (Integer level : levels.values()) {
-            levelCounts.merge(level, 1, Integer::sum);
+    private int[] assignOrdersPerLevel(int[] levels) {
+        int[] counters = new int[levelCount(levels)];
+        int[] orders = new int[levels.length];
+        for (int node = 0; node < levels.length; node++) {
+            orders[node] = counters[levelOf(levels, node)]++;
         }
+        return orders;
+    }
 
-        for (LayoutNode node : nodes) {
-            int level = levels.getOrDefault(node.id(), 0);
-            int order = orders.getOrDefault(node.id(), 0);
-            int nodesInLevel = levelCounts.getOrDefault(level, 1);
+    /** Self-loops are left out. */
+    LayerOrdering.Result orderLayers(EntityGraph graph, int[] levels) {
+        int[] nodeLevels = new int[levels.length];
+        for (int node = 0; node < levels.length; node++) {
+            nodeLevels[node] = levelOf(levels, node);
+        }
+        int[] sources = new int[graph.edgeCount()];
+        int[] targets = new int[graph.edgeCount()];
+        int edgeCount = 0;
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            if (graph.source(edge) != graph.target(edge)) {
+                sources[edgeCount] = graph.source(edge);
+                targets[edgeCount++] = graph.target(edge);
+            }
+        }
+        LayerOrdering.Result result = LayerOrdering.order(nodeLevels, Arrays.copyOf(sources, edgeCount),
+            Arrays.copyOf(targets, edgeCount), ordering, orderingSweeps);
+        log.debug("Layer ordering {}: {} crossings reduced to {} in {} sweeps",
+            ordering, result.initialCrossings(), result.crossings(), result.sweeps());
+        return result;
+    }
 
-            double x = (order - (nodesInLevel - 1) / 2.0) * nodeSpacing;
-            double y = level * layerSpacing;
+    LayerOrdering.Result orderLayers(List<LayoutNode> nodes, List<LayoutEdge> edges) {
+        EntityGraph graph = EntityGraph.of(nodes, edges);
+        return orderLayers(graph, assignLevels(graph));
+    }
 
-            positions.add(new PositionedNode(
-                node.id(), 
-                node.label(), 
-                node.icon(), 
-                x, 
-                y,
-                DEFAULT_NODE_WIDTH,
-                DEFAULT_NODE_HEIGHT
-            ));
+    private int[] countNodesPerLevel(int[] levels) {
+        int[] levelCounts = new int[levelCount(levels)];
+        for (int level : levels) {
+            if (level != UNASSIGNED) {
+                levelCounts[level]++;
+            }
         }
-        return positions;
+        return levelCounts;
     }
 
-    private void centerAndScale(List<PositionedNode> nodes, LayoutConstraints constraints) {
-        if (nodes.isEmpty()) {
-            return;
+    private void calculatePositions(int[] levels, int[] orders, int[] levelWidths, double[] xs, double[] ys) {
+        for (int node = 0; node < levels.length; node++) {
+            int level = levelOf(levels, node);
+            int nodesInLevel = level < levelWidths.length && levelWidths[level] > 0 ? levelWidths[level] : 1;
+            xs[node] = (orders[node] - (nodesInLevel - 1) / 2.0) * nodeSpacing;
+            ys[node] = level * layerSpacing;
         }
+    }
 
-        Bounds bounds = calculateBounds(nodes);
+    private void centerAndScale(double[] xs, double[] ys, LayoutConstraints constraints) {
+        Bounds bounds = calculateBounds(xs, ys);
         double contentWidth = bounds.maxX() - bounds.minX();
         double contentHeight = bounds.maxY() - bounds.minY();
 
@@ -167,35 +415,51 @@ public class GraphBasedLayoutManager implements LayoutManager {
         final double finalOffsetX = baseOffsetX + constraints.canvasWidth() / 2.0;
         final double finalOffsetY = baseOffsetY + constraints.canvasHeight() / 2.0;
 
-        nodes.replaceAll(node -> new PositionedNode(
-            node.id(),
-            node.label(),
-            node.icon(),
-            node.x() + finalOffsetX,
-            node.y() + finalOffsetY,
-            node.width(),
-            node.height()
-        ));
+        for (int node = 0; node < xs.length; node++) {
+            xs[node] += finalOffsetX;
+            ys[node] += finalOffsetY;
+        }
     }
 
-    private Bounds calculateBounds(List<PositionedNode> nodes) {
+    private Bounds calculateBounds(double[] xs, double[] ys) {
         double minX = Double.MAX_VALUE;
-        double maxX = Double.MIN_VALUE;
+        double maxX = -Double.MAX_VALUE;
         double minY = Double.MAX_VALUE;
-        double maxY = Double.MIN_VALUE;
+        double maxY = -Double.MAX_VALUE;
 
-        for (PositionedNode node : nodes) {
-            minX = Math.min(minX, node.x());
-            maxX = Math.max(maxX, node.x());
-            minY = Math.min(minY, node.y());
-            maxY = Math.max(maxY, node.y());
+        for (int node = 0; node < xs.length; node++) {
+            minX = Math.min(minX, xs[node]);
+            maxX = Math.max(maxX, xs[node]);
+            minY = Math.min(minY, ys[node]);
+            maxY = Math.max(maxY, ys[node]);
         }
 
         return new Bounds(minX, maxX, minY, maxY);
     }
 
-    private record Bounds(double minX, double maxX, double minY, double maxY) {
+    private static int levelOf(int[] levels, int node) {
+        return levels[node] == UNASSIGNED ? 0 : levels[node];
+    }
+
+    private static int levelCount(int[] levels) {
+        int count = 1;
+        for (int level : levels) {
+            count = Math.max(count, level + 1);
+        }
+        return count;
     }
-}
 
+    private static Map<String, Integer> describe(EntityGraph graph, int[] values) {
+        Map<String, Integer> described = new LinkedHashMap<>();
+        for (int node = 0; node < values.length; node++) {
+            described.put(graph.id(node), values[node]);
+        }
+        return described;
+    }
 
+    private record Placement(double[] xs, double[] ys) {
+    }
+
+    private record Bounds(double minX, double maxX, double minY, double maxY) {
+    }
+}
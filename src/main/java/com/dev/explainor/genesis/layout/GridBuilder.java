@@ -1,22 +1,32 @@
 package com.dev.explainor.genesis.layout;
 
 import com.dev.explainor.genesis.config.LayoutProperties;
+import com.dev.explainor.genesis.layout.model.BoundingBox;
+import com.dev.explainor.genesis.layout.model.LayoutConstraints;
 import com.dev.explainor.genesis.layout.model.PositionedNode;
+
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public class GridBuilder {
 
     private final double gridStep;
+    private final double obstaclePadding;
 
     public GridBuilder(LayoutProperties properties) {
         this.gridStep = properties.getGridStep();
+        this.obstaclePadding = properties.getObstaclePadding();
     }
 
-    public GridSpecification build(List<PositionedNode> nodes) {
-        Set<GridPoint> blockedCells = collectBlockedCells(nodes);
-        return new GridSpecification(gridStep, blockedCells);
+    public GridSpecification build(List<PositionedNode> nodes, LayoutConstraints constraints) {
+        List<GridRect> footprints = new ArrayList<>(nodes.size());
+        for (PositionedNode node : nodes) {
+            footprints.add(footprintOf(node));
+        }
+
+        OccupancyGrid occupancy = new OccupancyGrid(gridBounds(footprints, constraints));
+        footprints.forEach(occupancy::blockFootprint);
+        return new GridSpecification(gridStep, occupancy);
     }
 
     public GridPoint toGrid(double x, double y) {
@@ -25,13 +35,36 @@ public class GridBuilder {
         return new GridPoint((int) gridX, (int) gridY);
     }
 
-    private Set<GridPoint> collectBlockedCells(List<PositionedNode> nodes) {
-        return nodes.stream()
-            .map(node -> toGrid(node.x(), node.y()))
-            .collect(Collectors.toSet());
+    public GridRect footprintOf(PositionedNode node) {
+        BoundingBox box = node.boundingBox().expand(obstaclePadding);
+        GridPoint center = toGrid(node.x(), node.y());
+        int minX = (int) Math.ceil(box.x() / gridStep);
+        int maxX = (int) Math.floor((box.x() + box.width()) / gridStep);
+        int minY = (int) Math.ceil(box.y() / gridStep);
+        int maxY = (int) Math.floor((box.y() + box.height()) / gridStep);
+        return new GridRect(
+            Math.min(minX, center.x()),
+            Math.min(minY, center.y()),
+            Math.max(maxX, center.x()),
+            Math.max(maxY, center.y())
+        );
     }
 
-    public record GridSpecification(double step, Set<GridPoint> blockedCells) {
+    private GridRect gridBounds(List<GridRect> footprints, LayoutConstraints constraints) {
+        GridPoint canvasEnd = toGrid(constraints.canvasWidth(), constraints.canvasHeight());
+        int minX = 0;
+        int minY = 0;
+        int maxX = canvasEnd.x();
+        int maxY = canvasEnd.y();
+        for (GridRect footprint : footprints) {
+            minX = Math.min(minX, footprint.minX());
+            minY = Math.min(minY, footprint.minY());
+            maxX = Math.max(maxX, footprint.maxX());
+            maxY = Math.max(maxY, footprint.maxY());
+        }
+        return new GridRect(minX, minY, maxX, maxY);
     }
-}
 
+    public record GridSpecification(double step, OccupancyGrid occupancy) {
+    }
+}
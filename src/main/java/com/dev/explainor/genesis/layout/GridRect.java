@@ -0,0 +1,20 @@
+package com.dev.explainor.genesis.layout;
+
+public record GridRect(int minX, int minY, int maxX, int maxY) {
+
+    public static GridRect cell(GridPoint point) {
+        return new GridRect(point.x(), point.y(), point.x(), point.y());
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    public boolean contains(GridPoint point) {
+        return contains(point.x(), point.y());
+    }
+
+    public boolean intersects(GridRect other) {
+        return minX <= other.maxX && other.minX <= maxX && minY <= other.maxY && other.minY <= maxY;
+    }
+}
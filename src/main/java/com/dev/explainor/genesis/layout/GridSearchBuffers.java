@@ -0,0 +1,170 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-thread search scratch invalidated by a generation stamp. The heap follows
+ * {@link java.util.PriorityQueue}'s sift rules so tie-breaking matches {@link AStarPathSolver}.
+ */
+final class GridSearchBuffers {
+
+    private double[] gScore = new double[0];
+    private int[] parent = new int[0];
+    private int[] seen = new int[0];
+    private int[] closed = new int[0];
+    private int[] path = new int[0];
+    private int[] heapCells = new int[64];
+    private double[] heapScores = new double[64];
+    private int heapSize;
+    private int generation;
+
+    void begin(int cellCount) {
+        if (gScore.length < cellCount) {
+            gScore = new double[cellCount];
+            parent = new int[cellCount];
+            seen = new int[cellCount];
+            closed = new int[cellCount];
+            path = new int[cellCount];
+            generation = 0;
+        }
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+        heapSize = 0;
+    }
+
+    boolean isClosed(int cell) {
+        return closed[cell] == generation;
+    }
+
+    void close(int cell) {
+        closed[cell] = generation;
+    }
+
+    boolean isSeen(int cell) {
+        return seen[cell] == generation;
+    }
+
+    double score(int cell) {
+        return seen[cell] == generation ? gScore[cell] : Double.POSITIVE_INFINITY;
+    }
+
+    int parent(int cell) {
+        return parent[cell];
+    }
+
+    void start(int cell) {
+        gScore[cell] = 0.0;
+        seen[cell] = generation;
+        parent[cell] = cell;
+    }
+
+    void update(int cell, double score, int parentCell) {
+        gScore[cell] = score;
+        seen[cell] = generation;
+        parent[cell] = parentCell;
+    }
+
+    boolean isEmpty() {
+        return heapSize == 0;
+    }
+
+    int openSize() {
+        return heapSize;
+    }
+
+    double peekScore() {
+        return heapScores[0];
+    }
+
+    void push(int cell, double score) {
+        if (heapSize == heapCells.length) {
+            heapCells = Arrays.copyOf(heapCells, heapSize * 2);
+            heapScores = Arrays.copyOf(heapScores, heapSize * 2);
+        }
+        int k = heapSize++;
+        while (k > 0) {
+            int parentSlot = (k - 1) >>> 1;
+            if (score >= heapScores[parentSlot]) {
+                break;
+            }
+            heapCells[k] = heapCells[parentSlot];
+            heapScores[k] = heapScores[parentSlot];
+            k = parentSlot;
+        }
+        heapCells[k] = cell;
+        heapScores[k] = score;
+    }
+
+    int poll() {
+        int result = heapCells[0];
+        int size = --heapSize;
+        if (size > 0) {
+            int cell = heapCells[size];
+            double score = heapScores[size];
+            int k = 0;
+            int half = size >>> 1;
+            while (k < half) {
+                int child = (k << 1) + 1;
+                int right = child + 1;
+                if (right < size && heapScores[child] > heapScores[right]) {
+                    child = right;
+                }
+                if (score <= heapScores[child]) {
+                    break;
+                }
+                heapCells[k] = heapCells[child];
+                heapScores[k] = heapScores[child];
+                k = child;
+            }
+            heapCells[k] = cell;
+            heapScores[k] = score;
+        }
+        return result;
+    }
+
+    List<GridPoint> tracePath(int startCell, int goalCell, SearchWindow window) {
+        int length = 0;
+        for (int cell = goalCell; ; cell = parent[cell]) {
+            path[length++] = cell;
+            if (cell == startCell) {
+                break;
+            }
+        }
+        return simplify(path, length, window);
+    }
+
+    /** Cells run from goal at index 0 to start at {@code length - 1}. */
+    static List<GridPoint> simplify(int[] reversedCells, int length, SearchWindow window) {
+        List<GridPoint> simplified = new ArrayList<>();
+        simplified.add(window.pointOf(reversedCells[length - 1]));
+        if (length <= 2) {
+            if (length == 2) {
+                simplified.add(window.pointOf(reversedCells[0]));
+            }
+            return simplified;
+        }
+        int previousDirection = 0;
+        for (int i = length - 2; i >= 0; i--) {
+            int direction = direction(reversedCells[i + 1], reversedCells[i], window);
+            GridPoint point = window.pointOf(reversedCells[i]);
+            if (direction != previousDirection) {
+                simplified.add(point);
+                previousDirection = direction;
+            } else {
+                simplified.set(simplified.size() - 1, point);
+            }
+        }
+        return simplified;
+    }
+
+    private static int direction(int from, int to, SearchWindow window) {
+        int dx = Integer.signum(window.xOf(to) - window.xOf(from));
+        int dy = Integer.signum(window.yOf(to) - window.yOf(from));
+        return (dx + 2) * 4 + (dy + 2);
+    }
+}
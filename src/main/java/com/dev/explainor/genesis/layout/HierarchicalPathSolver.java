@@ -0,0 +1,309 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Hierarchical A* (HPA*) over a {@link ClusterAbstraction} kept for as long as its grid lives. Routes are
+ * usually a few percent longer than the flat solver's and carry no suboptimality bound.
+ */
+public class HierarchicalPathSolver implements PathSolver {
+
+    private static final ThreadLocal<GridSearchBuffers> BUFFERS = ThreadLocal.withInitial(GridSearchBuffers::new);
+    private static final ThreadLocal<LocalSearch> START_SEARCH = ThreadLocal.withInitial(LocalSearch::new);
+    private static final ThreadLocal<LocalSearch> GOAL_SEARCH = ThreadLocal.withInitial(LocalSearch::new);
+    private static final ThreadLocal<LocalSearch> CLUSTER_SEARCH = ThreadLocal.withInitial(LocalSearch::new);
+    private static final ThreadLocal<GoalLinks> GOAL_LINKS = ThreadLocal.withInitial(GoalLinks::new);
+    private static final int SMOOTHING_LOOKAHEAD = 8;
+
+    private final int explorationMargin;
+    private final int maxIterations;
+    private final int clusterSize;
+    private final PathSolver flatSolver;
+    private final Map<OccupancyGrid, ClusterAbstraction> abstractions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public HierarchicalPathSolver(int explorationMargin, int maxIterations, int clusterSize) {
+        if (clusterSize < 2) {
+            throw new IllegalArgumentException("Cluster size must be at least 2: " + clusterSize);
+        }
+        this.explorationMargin = explorationMargin;
+        this.maxIterations = maxIterations;
+        this.clusterSize = clusterSize;
+        this.flatSolver = new IndexedAStarPathSolver(explorationMargin, maxIterations);
+    }
+
+    @Override
+    public SearchWindow window(GridPoint start, GridPoint goal) {
+        GridRect rect = ClusterAbstraction.snap(SearchWindow.around(start, goal, explorationMargin).toRect(), clusterSize);
+        return new SearchWindow(rect.minX(), rect.minY(), rect.maxX(), rect.maxY());
+    }
+
+    @Override
+    public SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid) {
+        SearchWindow window = window(start, goal);
+        ClusterAbstraction abstraction = abstractions.computeIfAbsent(grid,
+            key -> ClusterAbstraction.build(key, clusterSize, explorationMargin));
+        if (!abstraction.covers(window.toRect())) {
+            return flatSolver.search(start, goal, grid);
+        }
+
+        GridRect startArea = grid.exemptArea(start);
+        GridRect goalArea = grid.exemptArea(goal);
+        GridRect startRegion = region(startArea, window);
+        GridRect goalRegion = region(goalArea, window);
+        LocalSearch startSearch = START_SEARCH.get();
+        LocalSearch goalSearch = GOAL_SEARCH.get();
+        GoalLinks goalLinks = GOAL_LINKS.get();
+        goalLinks.begin(abstraction.nodeCount());
+
+        int expanded = goalSearch.run(grid, goalRegion, goal, startArea, goalArea);
+        for (int node : nodesIn(abstraction, goalRegion)) {
+            int distance = goalSearch.distance(abstraction.nodeX(node), abstraction.nodeY(node));
+            if (distance >= 0) {
+                goalLinks.put(node, distance);
+            }
+        }
+        expanded += startSearch.run(grid, startRegion, start, startArea, goalArea);
+
+        int startNode = abstraction.nodeCount();
+        int goalNode = startNode + 1;
+        GridSearchBuffers buffers = BUFFERS.get();
+        buffers.begin(goalNode + 1);
+        buffers.start(startNode);
+        buffers.push(startNode, heuristic(start.x(), start.y(), goal));
+
+        int iterations = 0;
+        while (!buffers.isEmpty() && iterations++ < maxIterations) {
+            int current = buffers.poll();
+            if (current == goalNode) {
+                List<Integer> abstractRoute = abstractRoute(buffers, startNode, goalNode);
+                List<GridPoint> corners = refine(abstractRoute, abstraction, grid, window, goal, startSearch, goalSearch);
+                return SearchResult.bounded(smooth(corners, grid, window, startArea, goalArea), expanded, Double.POSITIVE_INFINITY);
+            }
+            if (buffers.isClosed(current)) {
+                continue;
+            }
+            buffers.close(current);
+            expanded++;
+            double score = buffers.score(current);
+
+            if (current == startNode) {
+                for (int node : nodesIn(abstraction, startRegion)) {
+                    int distance = startSearch.distance(abstraction.nodeX(node), abstraction.nodeY(node));
+                    if (distance >= 0) {
+                        relax(buffers, current, node, score + distance, nodeHeuristic(abstraction, node, goal));
+                    }
+                }
+                int direct = startSearch.distance(goal.x(), goal.y());
+                if (direct >= 0) {
+                    relax(buffers, current, goalNode, score + direct, 0.0);
+                }
+                continue;
+            }
+
+            int[] links = abstraction.links(current);
+            for (int i = 0, degree = abstraction.degree(current); i < degree; i++) {
+                int neighbor = links[2 * i];
+                if (window.contains(abstraction.nodeX(neighbor), abstraction.nodeY(neighbor))) {
+                    relax(buffers, current, neighbor, score + links[2 * i + 1], nodeHeuristic(abstraction, neighbor, goal));
+                }
+            }
+            int toGoal = goalLinks.get(current);
+            if (toGoal >= 0) {
+                relax(buffers, current, goalNode, score + toGoal, 0.0);
+            }
+        }
+
+        return flatSolver.search(start, goal, grid);
+    }
+
+    private void relax(GridSearchBuffers buffers, int current, int neighbor, double tentativeScore, double heuristic) {
+        if (buffers.isClosed(neighbor) || tentativeScore >= buffers.score(neighbor)) {
+            return;
+        }
+        buffers.update(neighbor, tentativeScore, current);
+        buffers.push(neighbor, tentativeScore + heuristic);
+    }
+
+    private List<Integer> abstractRoute(GridSearchBuffers buffers, int startNode, int goalNode) {
+        List<Integer> route = new ArrayList<>();
+        for (int node = goalNode; node != startNode; node = buffers.parent(node)) {
+            route.add(node);
+        }
+        route.add(startNode);
+        Collections.reverse(route);
+        return route;
+    }
+
+    private List<GridPoint> refine(List<Integer> abstractRoute, ClusterAbstraction abstraction, OccupancyGrid grid,
+                                   SearchWindow window, GridPoint goal, LocalSearch startSearch, LocalSearch goalSearch) {
+        LocalSearch clusterSearch = CLUSTER_SEARCH.get();
+        List<GridPoint> cells = new ArrayList<>();
+        if (abstractRoute.size() == 2) {
+            cells.addAll(startSearch.pathTo(goal.x(), goal.y()));
+            return corners(cells, window);
+        }
+
+        int first = abstractRoute.get(1);
+        cells.addAll(startSearch.pathTo(abstraction.nodeX(first), abstraction.nodeY(first)));
+        for (int i = 1; i + 2 < abstractRoute.size(); i++) {
+            int from = abstractRoute.get(i);
+            int to = abstractRoute.get(i + 1);
+            if (!abstraction.sameCluster(from, to)) {
+                cells.add(new GridPoint(abstraction.nodeX(to), abstraction.nodeY(to)));
+                continue;
+            }
+            List<GridPoint> inner = abstraction.innerRoute(from, to, grid, clusterSearch);
+            cells.addAll(inner.subList(1, inner.size()));
+        }
+
+        int last = abstractRoute.get(abstractRoute.size() - 2);
+        List<GridPoint> toGoal = goalSearch.pathTo(abstraction.nodeX(last), abstraction.nodeY(last));
+        Collections.reverse(toGoal);
+        cells.addAll(toGoal.subList(1, toGoal.size()));
+        return corners(cells, window);
+    }
+
+    private List<GridPoint> corners(List<GridPoint> cells, SearchWindow window) {
+        int[] reversed = new int[cells.size()];
+        for (int i = 0; i < cells.size(); i++) {
+            reversed[cells.size() - 1 - i] = window.indexOf(cells.get(i));
+        }
+        return GridSearchBuffers.simplify(reversed, reversed.length, window);
+    }
+
+    /** A straight or single-bend link is never longer than the corners it replaces. */
+    private List<GridPoint> smooth(List<GridPoint> corners, OccupancyGrid grid, SearchWindow window,
+                                   GridRect startArea, GridRect goalArea) {
+        List<GridPoint> smoothed = new ArrayList<>();
+        smoothed.add(corners.get(0));
+        int i = 0;
+        while (i < corners.size() - 1) {
+            GridPoint from = corners.get(i);
+            int next = i + 1;
+            GridPoint bend = from;
+            for (int j = Math.min(corners.size() - 1, i + SMOOTHING_LOOKAHEAD); j > i + 1; j--) {
+                GridPoint via = freeBend(from, corners.get(j), grid, window, startArea, goalArea);
+                if (via != null) {
+                    next = j;
+                    bend = via;
+                    break;
+                }
+            }
+            if (!bend.equals(from) && !bend.equals(corners.get(next))) {
+                smoothed.add(bend);
+            }
+            smoothed.add(corners.get(next));
+            i = next;
+        }
+        return withoutCollinear(smoothed);
+    }
+
+    /** {@code null} when neither link is free. */
+    private GridPoint freeBend(GridPoint from, GridPoint to, OccupancyGrid grid, SearchWindow window,
+                               GridRect startArea, GridRect goalArea) {
+        if (from.x() == to.x() || from.y() == to.y()) {
+            return isFree(from, to, grid, window, startArea, goalArea) ? from : null;
+        }
+        for (GridPoint bend : List.of(new GridPoint(to.x(), from.y()), new GridPoint(from.x(), to.y()))) {
+            if (isFree(from, bend, grid, window, startArea, goalArea) && isFree(bend, to, grid, window, startArea, goalArea)) {
+                return bend;
+            }
+        }
+        return null;
+    }
+
+    private boolean isFree(GridPoint from, GridPoint to, OccupancyGrid grid, SearchWindow window,
+                           GridRect startArea, GridRect goalArea) {
+        int dx = Integer.signum(to.x() - from.x());
+        int dy = Integer.signum(to.y() - from.y());
+        for (int x = from.x(), y = from.y(); x != to.x() || y != to.y(); ) {
+            x += dx;
+            y += dy;
+            if (!window.contains(x, y) || grid.isBlockedExcept(x, y, startArea, goalArea)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<GridPoint> withoutCollinear(List<GridPoint> points) {
+        List<GridPoint> result = new ArrayList<>(points.size());
+        for (GridPoint point : points) {
+            int size = result.size();
+            if (size >= 2) {
+                GridPoint before = result.get(size - 2);
+                GridPoint last = result.get(size - 1);
+                boolean sameColumn = before.x() == last.x() && last.x() == point.x();
+                boolean sameRow = before.y() == last.y() && last.y() == point.y();
+                if (sameColumn || sameRow) {
+                    result.set(size - 1, point);
+                    continue;
+                }
+            }
+            result.add(point);
+        }
+        return result;
+    }
+
+    private GridRect region(GridRect exemptArea, SearchWindow window) {
+        GridRect snapped = ClusterAbstraction.snap(exemptArea, clusterSize);
+        return new GridRect(
+            Math.max(snapped.minX(), window.minX()),
+            Math.max(snapped.minY(), window.minY()),
+            Math.min(snapped.maxX(), window.maxX()),
+            Math.min(snapped.maxY(), window.maxY())
+        );
+    }
+
+    private List<Integer> nodesIn(ClusterAbstraction abstraction, GridRect region) {
+        List<Integer> nodes = new ArrayList<>();
+        for (int y = region.minY(); y <= region.maxY(); y += clusterSize) {
+            for (int x = region.minX(); x <= region.maxX(); x += clusterSize) {
+                for (int node : abstraction.nodesOfClusterAt(x, y)) {
+                    nodes.add(node);
+                }
+            }
+        }
+        return nodes;
+    }
+
+    private double nodeHeuristic(ClusterAbstraction abstraction, int node, GridPoint goal) {
+        return heuristic(abstraction.nodeX(node), abstraction.nodeY(node), goal);
+    }
+
+    private double heuristic(int x, int y, GridPoint goal) {
+        return Math.abs(x - goal.x()) + Math.abs(y - goal.y());
+    }
+
+    private static final class GoalLinks {
+        private int[] distance = new int[0];
+        private int[] stamp = new int[0];
+        private int generation;
+
+        void begin(int nodeCount) {
+            if (distance.length < nodeCount) {
+                distance = new int[nodeCount];
+                stamp = new int[nodeCount];
+                generation = 0;
+            }
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                generation = 1;
+            }
+        }
+
+        void put(int node, int value) {
+            distance[node] = value;
+            stamp[node] = generation;
+        }
+
+        int get(int node) {
+            return stamp[node] == generation ? distance[node] : -1;
+        }
+    }
+}
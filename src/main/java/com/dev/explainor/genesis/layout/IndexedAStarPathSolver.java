@@ -0,0 +1,89 @@
+package com.dev.explainor.genesis.layout;
+
+/** Expansion order and tie-breaking match {@link AStarPathSolver} exactly, so both return the same routes. */
+public class IndexedAStarPathSolver implements PathSolver {
+
+    private static final ThreadLocal<GridSearchBuffers> BUFFERS = ThreadLocal.withInitial(GridSearchBuffers::new);
+
+    private final int explorationMargin;
+    private final int maxIterations;
+
+    public IndexedAStarPathSolver(int explorationMargin, int maxIterations) {
+        this.explorationMargin = explorationMargin;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public SearchWindow window(GridPoint start, GridPoint goal) {
+        return SearchWindow.around(start, goal, explorationMargin);
+    }
+
+    @Override
+    public SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid) {
+        SearchWindow window = window(start, goal);
+        int width = window.width();
+        int height = window.height();
+        GridRect startArea = grid.exemptArea(start);
+        GridRect goalArea = grid.exemptArea(goal);
+
+        GridSearchBuffers buffers = BUFFERS.get();
+        buffers.begin(window.cellCount());
+
+        int startIndex = window.indexOf(start);
+        int goalIndex = window.indexOf(goal);
+        buffers.start(startIndex);
+        buffers.push(startIndex, heuristic(start.x(), start.y(), goal));
+
+        int iterations = 0;
+        int expanded = 0;
+
+        while (!buffers.isEmpty() && iterations++ < maxIterations) {
+            int current = buffers.poll();
+            if (current == goalIndex) {
+                return SearchResult.found(buffers.tracePath(startIndex, goalIndex, window), expanded);
+            }
+            if (!buffers.isClosed(current)) {
+                buffers.close(current);
+                expanded++;
+            }
+
+            int column = current % width;
+            int row = current / width;
+            int x = column + window.minX();
+            int y = row + window.minY();
+            double currentScore = buffers.score(current);
+            if (column + 1 < width) {
+                relax(buffers, current, current + 1, currentScore, x + 1, y, goal, grid, startArea, goalArea);
+            }
+            if (column > 0) {
+                relax(buffers, current, current - 1, currentScore, x - 1, y, goal, grid, startArea, goalArea);
+            }
+            if (row + 1 < height) {
+                relax(buffers, current, current + width, currentScore, x, y + 1, goal, grid, startArea, goalArea);
+            }
+            if (row > 0) {
+                relax(buffers, current, current - width, currentScore, x, y - 1, goal, grid, startArea, goalArea);
+            }
+        }
+
+        return SearchResult.straightLine(start, goal, expanded);
+    }
+
+    private void relax(GridSearchBuffers buffers, int current, int neighbor, double currentScore,
+                       int neighborX, int neighborY, GridPoint goal,
+                       OccupancyGrid grid, GridRect startArea, GridRect goalArea) {
+        if (buffers.isClosed(neighbor) || grid.isBlockedExcept(neighborX, neighborY, startArea, goalArea)) {
+            return;
+        }
+        double tentativeScore = currentScore + 1.0;
+        if (tentativeScore >= buffers.score(neighbor)) {
+            return;
+        }
+        buffers.update(neighbor, tentativeScore, current);
+        buffers.push(neighbor, tentativeScore + heuristic(neighborX, neighborY, goal));
+    }
+
+    private double heuristic(int x, int y, GridPoint goal) {
+        return Math.abs(x - goal.x()) + Math.abs(y - goal.y());
+    }
+}
@@ -0,0 +1,180 @@
+package com.dev.explainor.genesis.layout;
+
+/** Jump Point Search on the 4-connected grid; horizontal scans read the occupancy bitset a word at a time. */
+public class JumpPointSearchSolver implements PathSolver {
+
+    private static final ThreadLocal<GridSearchBuffers> BUFFERS = ThreadLocal.withInitial(GridSearchBuffers::new);
+    private static final int NO_JUMP_POINT = -1;
+
+    private final int explorationMargin;
+    private final int maxIterations;
+
+    public JumpPointSearchSolver(int explorationMargin, int maxIterations) {
+        this.explorationMargin = explorationMargin;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public SearchWindow window(GridPoint start, GridPoint goal) {
+        return SearchWindow.around(start, goal, explorationMargin);
+    }
+
+    @Override
+    public SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid) {
+        SearchWindow window = window(start, goal);
+        GridSearchBuffers buffers = BUFFERS.get();
+        buffers.begin(window.cellCount());
+        Scan scan = new Scan(window, grid, start, goal);
+
+        int startIndex = window.indexOf(start);
+        int goalIndex = window.indexOf(goal);
+        buffers.start(startIndex);
+        buffers.push(startIndex, heuristic(start.x(), start.y(), goal));
+
+        int iterations = 0;
+        int expanded = 0;
+
+        while (!buffers.isEmpty() && iterations++ < maxIterations) {
+            int current = buffers.poll();
+            if (current == goalIndex) {
+                return SearchResult.found(buffers.tracePath(startIndex, goalIndex, window), expanded);
+            }
+            if (buffers.isClosed(current)) {
+                continue;
+            }
+            buffers.close(current);
+            expanded++;
+
+            int x = window.xOf(current);
+            int y = window.yOf(current);
+            int parent = buffers.parent(current);
+            int dx = Integer.signum(x - window.xOf(parent));
+            int dy = Integer.signum(y - window.yOf(parent));
+
+            if (dx == 0 && dy == 0) {
+                expand(buffers, scan, current, x, y, 1, 0);
+                expand(buffers, scan, current, x, y, -1, 0);
+                expand(buffers, scan, current, x, y, 0, 1);
+                expand(buffers, scan, current, x, y, 0, -1);
+            } else if (dx != 0) {
+                expand(buffers, scan, current, x, y, 0, -1);
+                expand(buffers, scan, current, x, y, 0, 1);
+                expand(buffers, scan, current, x, y, dx, 0);
+            } else {
+                expand(buffers, scan, current, x, y, -1, 0);
+                expand(buffers, scan, current, x, y, 1, 0);
+                expand(buffers, scan, current, x, y, 0, dy);
+            }
+        }
+
+        return SearchResult.straightLine(start, goal, expanded);
+    }
+
+    private void expand(GridSearchBuffers buffers, Scan scan, int current, int x, int y, int dx, int dy) {
+        int jumpPoint = scan.jump(x + dx, y + dy, dx, dy);
+        if (jumpPoint == NO_JUMP_POINT || buffers.isClosed(jumpPoint)) {
+            return;
+        }
+        int jumpX = scan.window.xOf(jumpPoint);
+        int jumpY = scan.window.yOf(jumpPoint);
+        double tentativeScore = buffers.score(current) + Math.abs(jumpX - x) + Math.abs(jumpY - y);
+        if (tentativeScore >= buffers.score(jumpPoint)) {
+            return;
+        }
+        buffers.update(jumpPoint, tentativeScore, current);
+        buffers.push(jumpPoint, tentativeScore + heuristic(jumpX, jumpY, scan.goal));
+    }
+
+    private double heuristic(int x, int y, GridPoint goal) {
+        return Math.abs(x - goal.x()) + Math.abs(y - goal.y());
+    }
+
+    private static final class Scan {
+        private final SearchWindow window;
+        private final OccupancyGrid grid;
+        private final GridRect startArea;
+        private final GridRect goalArea;
+        private final GridPoint goal;
+
+        private Scan(SearchWindow window, OccupancyGrid grid, GridPoint start, GridPoint goal) {
+            this.window = window;
+            this.grid = grid;
+            this.startArea = grid.exemptArea(start);
+            this.goalArea = grid.exemptArea(goal);
+            this.goal = goal;
+        }
+
+        private boolean passable(int x, int y) {
+            return window.contains(x, y) && !grid.isBlockedExcept(x, y, startArea, goalArea);
+        }
+
+        private int jump(int x, int y, int dx, int dy) {
+            if (dx != 0) {
+                return jumpHorizontally(x, y, dx);
+            }
+            while (passable(x, y)) {
+                if (x == goal.x() && y == goal.y()) {
+                    return window.indexOf(x, y);
+                }
+                if ((passable(x - 1, y) && !passable(x - 1, y - dy))
+                    || (passable(x + 1, y) && !passable(x + 1, y - dy))) {
+                    return window.indexOf(x, y);
+                }
+                if (jumpHorizontally(x + 1, y, 1) != NO_JUMP_POINT || jumpHorizontally(x - 1, y, -1) != NO_JUMP_POINT) {
+                    return window.indexOf(x, y);
+                }
+                y += dy;
+            }
+            return NO_JUMP_POINT;
+        }
+
+        private int jumpHorizontally(int x, int y, int dx) {
+            while (true) {
+                long current = blockedRun(x, y, dx);
+                long forced = (~blockedRun(x, y - 1, dx) & blockedRun(x - dx, y - 1, dx))
+                    | (~blockedRun(x, y + 1, dx) & blockedRun(x - dx, y + 1, dx));
+                if (y == goal.y()) {
+                    int offset = (goal.x() - x) * dx;
+                    if (offset >= 0 && offset < 64) {
+                        forced |= 1L << offset;
+                    }
+                }
+                int stop = Long.numberOfTrailingZeros(current);
+                long candidates = stop == 64 ? forced : forced & ((1L << stop) - 1);
+                if (candidates != 0) {
+                    return window.indexOf(x + Long.numberOfTrailingZeros(candidates) * dx, y);
+                }
+                if (stop < 64) {
+                    return NO_JUMP_POINT;
+                }
+                x += 64 * dx;
+            }
+        }
+
+        /** Bit {@code i} stands for {@code x + i * dx}; cells outside the window count as blocked. */
+        private long blockedRun(int x, int y, int dx) {
+            if (y < window.minY() || y > window.maxY()) {
+                return -1L;
+            }
+            int low = dx > 0 ? x : x - 63;
+            long bits = grid.rowBits(low, y);
+            if (startArea.minY() <= y && y <= startArea.maxY()) {
+                bits &= ~rangeMask(startArea.minX() - low, startArea.maxX() - low);
+            }
+            if (goalArea.minY() <= y && y <= goalArea.maxY()) {
+                bits &= ~rangeMask(goalArea.minX() - low, goalArea.maxX() - low);
+            }
+            bits |= ~rangeMask(window.minX() - low, window.maxX() - low);
+            return dx > 0 ? bits : Long.reverse(bits);
+        }
+
+        private static long rangeMask(int from, int to) {
+            from = Math.max(from, 0);
+            to = Math.min(to, 63);
+            if (from > to) {
+                return 0L;
+            }
+            return (-1L << from) & (-1L >>> (63 - to));
+        }
+    }
+}
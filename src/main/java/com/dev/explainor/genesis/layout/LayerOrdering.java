@@ -0,0 +1,242 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.LayoutProperties.OrderingType;
+
+import java.util.Arrays;
+
+/**
+ * Sugiyama-style crossing reduction. Edges spanning several levels are split into dummy vertices
+ * {@code n, n+1, ...}; edges within one level are ignored. The order with the fewest crossings is kept.
+ */
+final class LayerOrdering {
+
+    private final int realCount;
+    private final int[][] layers;
+    private final int[] position;
+    private final int[] upStart;
+    private final int[] upNeighbors;
+    private final int[] downStart;
+    private final int[] downNeighbors;
+    private final int[] segmentUpper;
+    private final int[] segmentLower;
+
+    private LayerOrdering(int realCount, int[] layerOf, int[] segmentUpper, int[] segmentLower, int segmentCount) {
+        this.realCount = realCount;
+        this.segmentUpper = Arrays.copyOf(segmentUpper, segmentCount);
+        this.segmentLower = Arrays.copyOf(segmentLower, segmentCount);
+        int vertexCount = layerOf.length;
+        int layerCount = 0;
+        for (int layer : layerOf) {
+            layerCount = Math.max(layerCount, layer + 1);
+        }
+        int[] layerSizes = new int[layerCount];
+        for (int layer : layerOf) {
+            layerSizes[layer]++;
+        }
+        this.layers = new int[layerCount][];
+        for (int layer = 0; layer < layerCount; layer++) {
+            layers[layer] = new int[layerSizes[layer]];
+        }
+        this.position = new int[vertexCount];
+        int[] filled = new int[layerCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int layer = layerOf[vertex];
+            position[vertex] = filled[layer];
+            layers[layer][filled[layer]++] = vertex;
+        }
+
+        this.upStart = new int[vertexCount + 1];
+        this.downStart = new int[vertexCount + 1];
+        for (int i = 0; i < segmentCount; i++) {
+            upStart[segmentLower[i] + 1]++;
+            downStart[segmentUpper[i] + 1]++;
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            upStart[vertex + 1] += upStart[vertex];
+            downStart[vertex + 1] += downStart[vertex];
+        }
+        this.upNeighbors = new int[segmentCount];
+        this.downNeighbors = new int[segmentCount];
+        int[] upFill = Arrays.copyOf(upStart, vertexCount);
+        int[] downFill = Arrays.copyOf(downStart, vertexCount);
+        for (int i = 0; i < segmentCount; i++) {
+            upNeighbors[upFill[segmentLower[i]]++] = segmentUpper[i];
+            downNeighbors[downFill[segmentUpper[i]]++] = segmentLower[i];
+        }
+    }
+
+    /** {@link OrderingType#INPUT} keeps the starting order and only counts its crossings. */
+    static Result order(int[] levels, int[] sources, int[] targets, OrderingType type, int maxSweeps) {
+        int realCount = levels.length;
+        int[] layerOf = Arrays.copyOf(levels, Math.max(realCount, 16));
+        int vertexCount = realCount;
+        int[] segmentUpper = new int[Math.max(sources.length, 16)];
+        int[] segmentLower = new int[segmentUpper.length];
+        int segmentCount = 0;
+        for (int i = 0; i < sources.length; i++) {
+            int upper = levels[sources[i]] <= levels[targets[i]] ? sources[i] : targets[i];
+            int lower = upper == sources[i] ? targets[i] : sources[i];
+            int span = levels[lower] - levels[upper];
+            if (span == 0) {
+                continue;
+            }
+            if (segmentCount + span > segmentUpper.length) {
+                int capacity = Math.max(segmentUpper.length * 2, segmentCount + span);
+                segmentUpper = Arrays.copyOf(segmentUpper, capacity);
+                segmentLower = Arrays.copyOf(segmentLower, capacity);
+            }
+            if (vertexCount + span - 1 > layerOf.length) {
+                layerOf = Arrays.copyOf(layerOf, Math.max(layerOf.length * 2, vertexCount + span - 1));
+            }
+            int previous = upper;
+            for (int level = levels[upper] + 1; level < levels[lower]; level++) {
+                int dummy = vertexCount++;
+                layerOf[dummy] = level;
+                segmentUpper[segmentCount] = previous;
+                segmentLower[segmentCount++] = dummy;
+                previous = dummy;
+            }
+            segmentUpper[segmentCount] = previous;
+            segmentLower[segmentCount++] = lower;
+        }
+
+        LayerOrdering ordering = new LayerOrdering(realCount, Arrays.copyOf(layerOf, vertexCount),
+            segmentUpper, segmentLower, segmentCount);
+        return ordering.run(type, maxSweeps);
+    }
+
+    private Result run(OrderingType type, int maxSweeps) {
+        int initialCrossings = crossings();
+        int bestCrossings = initialCrossings;
+        int[][] best = copyLayers();
+        int sweeps = 0;
+        if (type != OrderingType.INPUT) {
+            double[] keys = new double[position.length];
+            int[] scratch = new int[position.length];
+            while (sweeps < maxSweeps && bestCrossings > 0) {
+                sweeps++;
+                for (int layer = 1; layer < layers.length; layer++) {
+                    reorder(layers[layer], upStart, upNeighbors, type, keys, scratch);
+                }
+                for (int layer = layers.length - 2; layer >= 0; layer--) {
+                    reorder(layers[layer], downStart, downNeighbors, type, keys, scratch);
+                }
+                int crossings = crossings();
+                if (crossings >= bestCrossings) {
+                    break;
+                }
+                bestCrossings = crossings;
+                best = copyLayers();
+            }
+        }
+        return new Result(best, realCount, initialCrossings, bestCrossings, sweeps, segmentUpper, segmentLower);
+    }
+
+    private void reorder(int[] layer, int[] start, int[] neighbors, OrderingType type, double[] keys, int[] scratch) {
+        for (int vertex : layer) {
+            int from = start[vertex];
+            int to = start[vertex + 1];
+            if (from == to) {
+                keys[vertex] = position[vertex];
+            } else if (type == OrderingType.MEDIAN) {
+                keys[vertex] = median(neighbors, from, to, scratch);
+            } else {
+                double sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum += position[neighbors[i]];
+                }
+                keys[vertex] = sum / (to - from);
+            }
+        }
+        sortByKey(layer, keys, scratch);
+        for (int i = 0; i < layer.length; i++) {
+            position[layer[i]] = i;
+        }
+    }
+
+    private double median(int[] neighbors, int from, int to, int[] scratch) {
+        int count = to - from;
+        for (int i = 0; i < count; i++) {
+            scratch[i] = position[neighbors[from + i]];
+        }
+        Arrays.sort(scratch, 0, count);
+        return count % 2 == 1 ? scratch[count / 2] : (scratch[count / 2 - 1] + scratch[count / 2]) / 2.0;
+    }
+
+    /** Stable, so vertices with equal keys keep their relative order. */
+    private static void sortByKey(int[] vertices, double[] keys, int[] scratch) {
+        int length = vertices.length;
+        for (int width = 1; width < length; width *= 2) {
+            for (int left = 0; left < length - width; left += 2 * width) {
+                int middle = left + width;
+                int right = Math.min(left + 2 * width, length);
+                int i = left;
+                int j = middle;
+                int k = 0;
+                while (i < middle && j < right) {
+                    scratch[k++] = keys[vertices[j]] < keys[vertices[i]] ? vertices[j++] : vertices[i++];
+                }
+                while (i < middle) {
+                    scratch[k++] = vertices[i++];
+                }
+                while (j < right) {
+                    scratch[k++] = vertices[j++];
+                }
+                System.arraycopy(scratch, 0, vertices, left, k);
+            }
+        }
+    }
+
+    /** Accumulator tree of Barth, Jünger and Mutzel. */
+    private int crossings() {
+        int total = 0;
+        int[] lowerEnds = new int[downNeighbors.length];
+        for (int layer = 0; layer + 1 < layers.length; layer++) {
+            int count = 0;
+            for (int vertex : layers[layer]) {
+                int first = count;
+                for (int i = downStart[vertex]; i < downStart[vertex + 1]; i++) {
+                    lowerEnds[count++] = position[downNeighbors[i]];
+                }
+                Arrays.sort(lowerEnds, first, count);
+            }
+            total += inversions(lowerEnds, count, layers[layer + 1].length);
+        }
+        return total;
+    }
+
+    private static int inversions(int[] lowerEnds, int count, int lowerSize) {
+        int firstLeaf = 1;
+        while (firstLeaf < lowerSize) {
+            firstLeaf *= 2;
+        }
+        int[] tree = new int[2 * firstLeaf - 1];
+        firstLeaf--;
+        int crossings = 0;
+        for (int i = 0; i < count; i++) {
+            int index = lowerEnds[i] + firstLeaf;
+            tree[index]++;
+            while (index > 0) {
+                if (index % 2 == 1) {
+                    crossings += tree[index + 1];
+                }
+                index = (index - 1) / 2;
+                tree[index]++;
+            }
+        }
+        return crossings;
+    }
+
+    private int[][] copyLayers() {
+        int[][] copy = new int[layers.length][];
+        for (int layer = 0; layer < layers.length; layer++) {
+            copy[layer] = layers[layer].clone();
+        }
+        return copy;
+    }
+
+    /** Vertices from {@code realCount} on are dummies. */
+    record Result(int[][] layers, int realCount, int initialCrossings, int crossings, int sweeps,
+                  int[] segmentUpper, int[] segmentLower) {
+    }
+}
@@ -7,4 +7,10 @@ import java.util.List;
 public interface LayoutManager {
     
     List<PositionedNode> layout(List<LayoutNode> nodes, List<LayoutEdge> edges, LayoutConstraints constraints);
+
+    /** Returns the positioned nodes in the order of {@code nodes}. */
+    default List<PositionedNode> layout(EntityGraph graph, List<LayoutNode> nodes, List<LayoutEdge> edges,
+                                        LayoutConstraints constraints) {
+        return layout(nodes, edges, constraints);
+    }
 }
@@ -0,0 +1,102 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/** Breadth-first search over a small grid rectangle; results stay readable until the next run. */
+final class LocalSearch {
+
+    private int[] distance = new int[0];
+    private int[] parent = new int[0];
+    private int[] stamp = new int[0];
+    private int[] queue = new int[0];
+    private int generation;
+    private GridRect area;
+    private int width;
+
+    /** Blocked cells of the two exempt areas may be entered. Returns the number of cells reached. */
+    int run(OccupancyGrid grid, GridRect area, GridPoint source, GridRect startArea, GridRect goalArea) {
+        this.area = area;
+        this.width = area.maxX() - area.minX() + 1;
+        int height = area.maxY() - area.minY() + 1;
+        int cellCount = width * height;
+        if (distance.length < cellCount) {
+            distance = new int[cellCount];
+            parent = new int[cellCount];
+            stamp = new int[cellCount];
+            queue = new int[cellCount];
+            generation = 0;
+        }
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+
+        int sourceCell = cellOf(source.x(), source.y());
+        distance[sourceCell] = 0;
+        parent[sourceCell] = sourceCell;
+        stamp[sourceCell] = generation;
+        queue[0] = sourceCell;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int current = queue[head++];
+            int column = current % width;
+            int row = current / width;
+            int x = column + area.minX();
+            int y = row + area.minY();
+            if (column + 1 < width) {
+                tail = visit(grid, startArea, goalArea, current, current + 1, x + 1, y, tail);
+            }
+            if (column > 0) {
+                tail = visit(grid, startArea, goalArea, current, current - 1, x - 1, y, tail);
+            }
+            if (row + 1 < height) {
+                tail = visit(grid, startArea, goalArea, current, current + width, x, y + 1, tail);
+            }
+            if (row > 0) {
+                tail = visit(grid, startArea, goalArea, current, current - width, x, y - 1, tail);
+            }
+        }
+        return tail;
+    }
+
+    /** {@code -1} when the cell was not reached. */
+    int distance(int x, int y) {
+        if (!area.contains(x, y)) {
+            return -1;
+        }
+        int cell = cellOf(x, y);
+        return stamp[cell] == generation ? distance[cell] : -1;
+    }
+
+    List<GridPoint> pathTo(int x, int y) {
+        List<GridPoint> path = new ArrayList<>(distance(x, y) + 1);
+        for (int cell = cellOf(x, y); ; cell = parent[cell]) {
+            path.add(new GridPoint(cell % width + area.minX(), cell / width + area.minY()));
+            if (parent[cell] == cell) {
+                break;
+            }
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private int visit(OccupancyGrid grid, GridRect startArea, GridRect goalArea, int current, int cell,
+                      int x, int y, int tail) {
+        if (stamp[cell] == generation || grid.isBlockedExcept(x, y, startArea, goalArea)) {
+            return tail;
+        }
+        distance[cell] = distance[current] + 1;
+        parent[cell] = current;
+        stamp[cell] = generation;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+    private int cellOf(int x, int y) {
+        return (y - area.minY()) * width + (x - area.minX());
+    }
+}
@@ -0,0 +1,242 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One A* search from a shared start to several goals. A route is returned only when it lies inside its own
+ * goal's window, so its length equals a per-edge search's; other goals get {@code null}.
+ */
+final class MultiTargetSearch {
+
+    private static final ThreadLocal<GridSearchBuffers> BUFFERS = ThreadLocal.withInitial(GridSearchBuffers::new);
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    private static final int NO_AREA = -1;
+
+    private MultiTargetSearch() {
+    }
+
+    static List<List<GridPoint>> search(GridPoint start, List<GridPoint> goals, List<SearchWindow> windows, OccupancyGrid grid) {
+        SearchWindow window = union(windows);
+        GridRect startArea = grid.exemptArea(start);
+        GridRect[] goalAreas = new GridRect[goals.size()];
+        Scratch scratch = SCRATCH.get();
+        scratch.begin(window.cellCount());
+        for (int i = 0; i < goalAreas.length; i++) {
+            goalAreas[i] = grid.exemptArea(goals.get(i));
+            scratch.label(goalAreas[i], i, window);
+        }
+
+        GridSearchBuffers buffers = BUFFERS.get();
+        buffers.begin(window.cellCount());
+        Goals unsettled = new Goals(goals, window, scratch);
+        int startIndex = window.indexOf(start);
+        buffers.start(startIndex);
+        buffers.push(startIndex, unsettled.heuristic(startIndex, start.x(), start.y()));
+
+        while (!buffers.isEmpty() && !unsettled.isEmpty()) {
+            double key = buffers.peekScore();
+            int current = buffers.poll();
+            if (buffers.isClosed(current)) {
+                continue;
+            }
+            int x = window.xOf(current);
+            int y = window.yOf(current);
+            double score = buffers.score(current) + unsettled.heuristic(current, x, y);
+            if (score > key) {
+                buffers.push(current, score);
+                continue;
+            }
+            buffers.close(current);
+            unsettled.settle(current);
+            expand(buffers, window, grid, startArea, goalAreas, scratch, current, x, y, unsettled);
+        }
+
+        List<List<GridPoint>> routes = new ArrayList<>(goals.size());
+        for (int i = 0; i < goals.size(); i++) {
+            int goalIndex = window.indexOf(goals.get(i));
+            routes.add(buffers.isClosed(goalIndex) ? insideWindow(buffers.tracePath(startIndex, goalIndex, window), windows.get(i)) : null);
+        }
+        return routes;
+    }
+
+    private static void expand(GridSearchBuffers buffers, SearchWindow window, OccupancyGrid grid, GridRect startArea,
+                               GridRect[] goalAreas, Scratch scratch, int current, int x, int y, Goals goals) {
+        int area = scratch.areaOf(current);
+        GridRect confinedTo = area != NO_AREA && grid.isBlocked(x, y) && !startArea.contains(x, y) ? goalAreas[area] : null;
+        double score = buffers.score(current) + 1.0;
+        relax(buffers, window, grid, startArea, scratch, confinedTo, current, x + 1, y, score, goals);
+        relax(buffers, window, grid, startArea, scratch, confinedTo, current, x - 1, y, score, goals);
+        relax(buffers, window, grid, startArea, scratch, confinedTo, current, x, y + 1, score, goals);
+        relax(buffers, window, grid, startArea, scratch, confinedTo, current, x, y - 1, score, goals);
+    }
+
+    private static void relax(GridSearchBuffers buffers, SearchWindow window, OccupancyGrid grid, GridRect startArea,
+                              Scratch scratch, GridRect confinedTo, int current, int x, int y, double score, Goals goals) {
+        if (!window.contains(x, y)) {
+            return;
+        }
+        if (confinedTo != null && !confinedTo.contains(x, y)) {
+            return;
+        }
+        int neighbor = window.indexOf(x, y);
+        if (grid.isBlocked(x, y) && !startArea.contains(x, y) && scratch.areaOf(neighbor) == NO_AREA) {
+            return;
+        }
+        if (buffers.isClosed(neighbor) || score >= buffers.score(neighbor)) {
+            return;
+        }
+        buffers.update(neighbor, score, current);
+        buffers.push(neighbor, score + goals.heuristic(neighbor, x, y));
+    }
+
+    private static List<GridPoint> insideWindow(List<GridPoint> route, SearchWindow window) {
+        for (GridPoint corner : route) {
+            if (!window.contains(corner.x(), corner.y())) {
+                return null;
+            }
+        }
+        return route;
+    }
+
+    private static SearchWindow union(List<SearchWindow> windows) {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (SearchWindow window : windows) {
+            minX = Math.min(minX, window.minX());
+            minY = Math.min(minY, window.minY());
+            maxX = Math.max(maxX, window.maxX());
+            maxY = Math.max(maxY, window.maxY());
+        }
+        return new SearchWindow(minX, minY, maxX, maxY);
+    }
+
+    /** A minimum of consistent heuristics is consistent, and it only grows as goals settle. */
+    private static final class Goals {
+        private final int[] cells;
+        private final int[] xs;
+        private final int[] ys;
+        private final Scratch scratch;
+        private int count;
+
+        private Goals(List<GridPoint> goals, SearchWindow window, Scratch scratch) {
+            this.scratch = scratch;
+            cells = new int[goals.size()];
+            xs = new int[goals.size()];
+            ys = new int[goals.size()];
+            for (GridPoint goal : goals) {
+                int cell = window.indexOf(goal);
+                if (!contains(cell)) {
+                    cells[count] = cell;
+                    xs[count] = goal.x();
+                    ys[count] = goal.y();
+                    count++;
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            return count == 0;
+        }
+
+        private boolean contains(int cell) {
+            for (int i = 0; i < count; i++) {
+                if (cells[i] == cell) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void settle(int cell) {
+            for (int i = 0; i < count; i++) {
+                if (cells[i] == cell) {
+                    count--;
+                    cells[i] = cells[count];
+                    xs[i] = xs[count];
+                    ys[i] = ys[count];
+                    scratch.forgetHeuristics();
+                    return;
+                }
+            }
+        }
+
+        private double heuristic(int cell, int x, int y) {
+            double memoized = scratch.heuristic(cell);
+            if (memoized >= 0) {
+                return memoized;
+            }
+            int nearest = Integer.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                nearest = Math.min(nearest, Math.abs(x - xs[i]) + Math.abs(y - ys[i]));
+            }
+            double value = count == 0 ? 0.0 : nearest;
+            scratch.rememberHeuristic(cell, value);
+            return value;
+        }
+    }
+
+    private static final class Scratch {
+        private int[] area = new int[0];
+        private int[] areaStamp = new int[0];
+        private double[] heuristic = new double[0];
+        private int[] heuristicStamp = new int[0];
+        private int generation;
+        private int heuristicGeneration;
+
+        void begin(int cellCount) {
+            if (area.length < cellCount) {
+                area = new int[cellCount];
+                areaStamp = new int[cellCount];
+                heuristic = new double[cellCount];
+                heuristicStamp = new int[cellCount];
+                generation = 0;
+                heuristicGeneration = 0;
+            }
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(areaStamp, 0);
+                generation = 1;
+            }
+            forgetHeuristics();
+        }
+
+        void label(GridRect footprint, int ordinal, SearchWindow window) {
+            int minX = Math.max(footprint.minX(), window.minX());
+            int maxX = Math.min(footprint.maxX(), window.maxX());
+            int minY = Math.max(footprint.minY(), window.minY());
+            int maxY = Math.min(footprint.maxY(), window.maxY());
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    int cell = window.indexOf(x, y);
+                    if (areaStamp[cell] != generation) {
+                        areaStamp[cell] = generation;
+                        area[cell] = ordinal;
+                    }
+                }
+            }
+        }
+
+        int areaOf(int cell) {
+            return areaStamp[cell] == generation ? area[cell] : NO_AREA;
+        }
+
+        double heuristic(int cell) {
+            return heuristicStamp[cell] == heuristicGeneration ? heuristic[cell] : -1.0;
+        }
+
+        void rememberHeuristic(int cell, double value) {
+            heuristic[cell] = value;
+            heuristicStamp[cell] = heuristicGeneration;
+        }
+
+        void forgetHeuristics() {
+            if (++heuristicGeneration == Integer.MAX_VALUE) {
+                Arrays.fill(heuristicStamp, 0);
+                heuristicGeneration = 1;
+            }
+        }
+    }
+}
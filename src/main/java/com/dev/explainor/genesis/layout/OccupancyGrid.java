@@ -0,0 +1,123 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Row-major bitset of blocked cells; cells outside the rectangle are free. Read-only once filled. */
+public final class OccupancyGrid {
+
+    private final int originX;
+    private final int originY;
+    private final int width;
+    private final int height;
+    private final long[] words;
+    private final List<GridRect> footprints = new ArrayList<>();
+
+    public OccupancyGrid(GridRect bounds) {
+        this.originX = bounds.minX();
+        this.originY = bounds.minY();
+        this.width = bounds.maxX() - bounds.minX() + 1;
+        this.height = bounds.maxY() - bounds.minY() + 1;
+        this.words = new long[(int) (((long) width * height + 63) >>> 6)];
+    }
+
+    public boolean isBlocked(int x, int y) {
+        int column = x - originX;
+        int row = y - originY;
+        if (column < 0 || row < 0 || column >= width || row >= height) {
+            return false;
+        }
+        return isBlocked(row * width + column);
+    }
+
+    public boolean isBlocked(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /** Bit {@code i} is set when cell {@code x + i} is blocked. */
+    public long rowBits(int x, int y) {
+        int row = y - originY;
+        if (row < 0 || row >= height) {
+            return 0L;
+        }
+        int from = Math.max(x, originX);
+        int to = Math.min(x + 63, originX + width - 1);
+        if (from > to) {
+            return 0L;
+        }
+        int start = row * width + (from - originX);
+        int length = to - from + 1;
+        int word = start >>> 6;
+        int offset = start & 63;
+        long bits = words[word] >>> offset;
+        if (offset != 0 && word + 1 < words.length) {
+            bits |= words[word + 1] << (64 - offset);
+        }
+        if (length < 64) {
+            bits &= (1L << length) - 1;
+        }
+        return bits << (from - x);
+    }
+
+    public boolean isBlockedExcept(int x, int y, GridRect startArea, GridRect goalArea) {
+        return isBlocked(x, y) && !startArea.contains(x, y) && !goalArea.contains(x, y);
+    }
+
+    /** The single cell of the point when it lies in free space. */
+    public GridRect exemptArea(GridPoint point) {
+        for (GridRect footprint : footprints) {
+            if (footprint.contains(point)) {
+                return footprint;
+            }
+        }
+        return GridRect.cell(point);
+    }
+
+    public GridRect bounds() {
+        return new GridRect(originX, originY, originX + width - 1, originY + height - 1);
+    }
+
+    public List<GridRect> footprints() {
+        return Collections.unmodifiableList(footprints);
+    }
+
+    public int indexOf(int x, int y) {
+        return (y - originY) * width + (x - originX);
+    }
+
+    void block(int x, int y) {
+        int index = indexOf(x, y);
+        words[index >>> 6] |= 1L << index;
+    }
+
+    void blockFootprint(GridRect footprint) {
+        footprints.add(footprint);
+        int minX = Math.max(footprint.minX(), originX);
+        int maxX = Math.min(footprint.maxX(), originX + width - 1);
+        int minY = Math.max(footprint.minY(), originY);
+        int maxY = Math.min(footprint.maxY(), originY + height - 1);
+        if (minX > maxX || minY > maxY) {
+            return;
+        }
+        for (int y = minY; y <= maxY; y++) {
+            setRange(indexOf(minX, y), indexOf(maxX, y));
+        }
+    }
+
+    private void setRange(int fromIndex, int toIndex) {
+        int firstWord = fromIndex >>> 6;
+        int lastWord = toIndex >>> 6;
+        long firstMask = -1L << fromIndex;
+        long lastMask = -1L >>> (63 - (toIndex & 63));
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            words[word] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+}
@@ -0,0 +1,306 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.domain.Point;
+import com.dev.explainor.genesis.layout.model.BoundingBox;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/** Sparse orthogonal visibility graph over padded node boxes; a centre's rays ignore its own box. */
+final class OrthogonalVisibilityGraph {
+
+    private static final int NONE = -1;
+    private static final int RIGHT = 0;
+    private static final int LEFT = 1;
+    private static final int DOWN = 2;
+    private static final int UP = 3;
+    private static final int DEPARTURE = 4;
+    private static final int STATES_PER_VERTEX = 5;
+    /** Breaks the many lattice ties towards the goal while keeping routes within a millionth of the optimum. */
+    private static final double TIE_BREAK = 1.000001;
+
+    private double[] xs = new double[64];
+    private double[] ys = new double[64];
+    private int[] neighbours = new int[256];
+    private boolean[] centre = new boolean[64];
+    private int vertexCount;
+    private final Map<String, Integer> centreVertices = new HashMap<>();
+
+    private OrthogonalVisibilityGraph() {
+    }
+
+    static OrthogonalVisibilityGraph build(List<PositionedNode> nodes, double padding) {
+        BoundingBox[] boxes = new BoundingBox[nodes.size()];
+        for (int i = 0; i < boxes.length; i++) {
+            boxes[i] = nodes.get(i).boundingBox().expand(padding);
+        }
+        Rays rays = new Rays(boxes);
+        Map<Point, String> centres = new HashMap<>();
+        for (int i = 0; i < boxes.length; i++) {
+            BoundingBox box = boxes[i];
+            rays.cast(box.x(), box.y(), NONE);
+            rays.cast(box.x() + box.width(), box.y(), NONE);
+            rays.cast(box.x(), box.y() + box.height(), NONE);
+            rays.cast(box.x() + box.width(), box.y() + box.height(), NONE);
+            PositionedNode node = nodes.get(i);
+            rays.cast(node.x(), node.y(), i);
+            centres.putIfAbsent(new Point(node.x(), node.y()), node.id());
+        }
+
+        OrthogonalVisibilityGraph graph = new OrthogonalVisibilityGraph();
+        NavigableMap<Double, List<double[]>> horizontal = merge(rays.horizontal);
+        NavigableMap<Double, List<double[]>> vertical = merge(rays.vertical);
+        Map<double[], Integer> lastOnHorizontal = new IdentityHashMap<>();
+        for (Map.Entry<Double, List<double[]>> column : vertical.entrySet()) {
+            double x = column.getKey();
+            for (double[] span : column.getValue()) {
+                int lastOnVertical = NONE;
+                for (Map.Entry<Double, List<double[]>> row : horizontal.subMap(span[0], true, span[1], true).entrySet()) {
+                    double[] rowSpan = spanContaining(row.getValue(), x);
+                    if (rowSpan == null) {
+                        continue;
+                    }
+                    double y = row.getKey();
+                    String centreOf = centres.get(new Point(x, y));
+                    int vertex = graph.addVertex(x, y, centreOf != null);
+                    if (centreOf != null) {
+                        graph.centreVertices.put(centreOf, vertex);
+                    }
+                    if (lastOnVertical != NONE) {
+                        graph.link(lastOnVertical, vertex, DOWN, UP);
+                    }
+                    lastOnVertical = vertex;
+                    Integer lastInRow = lastOnHorizontal.put(rowSpan, vertex);
+                    if (lastInRow != null) {
+                        graph.link(lastInRow, vertex, RIGHT, LEFT);
+                    }
+                }
+            }
+        }
+        return graph;
+    }
+
+    int vertexCount() {
+        return vertexCount;
+    }
+
+    /** Falls back to the straight line between the centres when no route exists. */
+    List<Point> route(PositionedNode from, PositionedNode to, double bendPenalty, GridSearchBuffers buffers) {
+        Integer startVertex = centreVertices.get(from.id());
+        Integer goalVertex = centreVertices.get(to.id());
+        if (startVertex == null || goalVertex == null) {
+            return straightLine(from, to);
+        }
+        int start = startVertex;
+        int goal = goalVertex;
+        if (start == goal) {
+            return new ArrayList<>(List.of(pointOf(start)));
+        }
+
+        buffers.begin(vertexCount * STATES_PER_VERTEX);
+        int startState = start * STATES_PER_VERTEX + DEPARTURE;
+        buffers.start(startState);
+        buffers.push(startState, heuristic(start, DEPARTURE, goal, bendPenalty));
+
+        while (!buffers.isEmpty()) {
+            int state = buffers.poll();
+            if (buffers.isClosed(state)) {
+                continue;
+            }
+            buffers.close(state);
+            int vertex = state / STATES_PER_VERTEX;
+            int arrival = state % STATES_PER_VERTEX;
+            if (vertex == goal) {
+                return trace(state, startState, buffers);
+            }
+            double score = buffers.score(state);
+            for (int direction = RIGHT; direction <= UP; direction++) {
+                int next = neighbours[vertex * 4 + direction];
+                if (next == NONE || (centre[next] && next != goal) || (arrival != DEPARTURE && direction == opposite(arrival))) {
+                    continue;
+                }
+                int nextState = next * STATES_PER_VERTEX + direction;
+                if (buffers.isClosed(nextState)) {
+                    continue;
+                }
+                double tentativeScore = score + Math.abs(xs[next] - xs[vertex]) + Math.abs(ys[next] - ys[vertex])
+                    + (arrival != DEPARTURE && arrival != direction ? bendPenalty : 0.0);
+                if (tentativeScore >= buffers.score(nextState)) {
+                    continue;
+                }
+                buffers.update(nextState, tentativeScore, state);
+                buffers.push(nextState, tentativeScore + heuristic(next, direction, goal, bendPenalty) * TIE_BREAK);
+            }
+        }
+        return straightLine(from, to);
+    }
+
+    private List<Point> trace(int goalState, int startState, GridSearchBuffers buffers) {
+        List<Point> points = new ArrayList<>();
+        for (int state = goalState; ; state = buffers.parent(state)) {
+            Point point = pointOf(state / STATES_PER_VERTEX);
+            int size = points.size();
+            if (size >= 2 && collinear(points.get(size - 2), points.get(size - 1), point)) {
+                points.set(size - 1, point);
+            } else {
+                points.add(point);
+            }
+            if (state == startState) {
+                break;
+            }
+        }
+        Collections.reverse(points);
+        return points;
+    }
+
+    private static boolean collinear(Point first, Point second, Point third) {
+        return (first.x() == second.x() && second.x() == third.x())
+            || (first.y() == second.y() && second.y() == third.y());
+    }
+
+    private List<Point> straightLine(PositionedNode from, PositionedNode to) {
+        List<Point> points = new ArrayList<>(2);
+        points.add(new Point(from.x(), from.y()));
+        points.add(new Point(to.x(), to.y()));
+        return points;
+    }
+
+    /** Never overestimates and drops by at most a move's cost, so closing states on first poll is safe. */
+    private double heuristic(int vertex, int arrival, int goal, double bendPenalty) {
+        double dx = xs[goal] - xs[vertex];
+        double dy = ys[goal] - ys[vertex];
+        double distance = Math.abs(dx) + Math.abs(dy);
+        if (distance == 0.0 || arrival == DEPARTURE && (dx == 0.0 || dy == 0.0)) {
+            return distance;
+        }
+        boolean straightAhead = (dy == 0.0 && arrival == (dx > 0 ? RIGHT : LEFT))
+            || (dx == 0.0 && arrival == (dy > 0 ? DOWN : UP));
+        return straightAhead ? distance : distance + bendPenalty;
+    }
+
+    private Point pointOf(int vertex) {
+        return new Point(xs[vertex], ys[vertex]);
+    }
+
+    private static int opposite(int direction) {
+        return direction ^ 1;
+    }
+
+    private int addVertex(double x, double y, boolean isCentre) {
+        if (vertexCount == xs.length) {
+            int capacity = vertexCount * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            centre = Arrays.copyOf(centre, capacity);
+            neighbours = Arrays.copyOf(neighbours, capacity * 4);
+        }
+        int vertex = vertexCount++;
+        xs[vertex] = x;
+        ys[vertex] = y;
+        centre[vertex] = isCentre;
+        Arrays.fill(neighbours, vertex * 4, vertex * 4 + 4, NONE);
+        return vertex;
+    }
+
+    private void link(int from, int to, int forward, int backward) {
+        neighbours[from * 4 + forward] = to;
+        neighbours[to * 4 + backward] = from;
+    }
+
+    private static double[] spanContaining(List<double[]> spans, double coordinate) {
+        for (double[] span : spans) {
+            if (span[0] <= coordinate && coordinate <= span[1]) {
+                return span;
+            }
+        }
+        return null;
+    }
+
+    private static NavigableMap<Double, List<double[]>> merge(Map<Double, List<double[]>> lines) {
+        NavigableMap<Double, List<double[]>> merged = new TreeMap<>();
+        for (Map.Entry<Double, List<double[]>> line : lines.entrySet()) {
+            List<double[]> spans = line.getValue();
+            spans.sort((a, b) -> Double.compare(a[0], b[0]));
+            List<double[]> disjoint = new ArrayList<>();
+            for (double[] span : spans) {
+                double[] last = disjoint.isEmpty() ? null : disjoint.get(disjoint.size() - 1);
+                if (last != null && span[0] <= last[1]) {
+                    last[1] = Math.max(last[1], span[1]);
+                } else {
+                    disjoint.add(new double[]{span[0], span[1]});
+                }
+            }
+            merged.put(line.getKey(), disjoint);
+        }
+        return merged;
+    }
+
+    private static final class Rays {
+        private final BoundingBox[] boxes;
+        private final double minX;
+        private final double maxX;
+        private final double minY;
+        private final double maxY;
+        private final Map<Double, List<double[]>> horizontal = new HashMap<>();
+        private final Map<Double, List<double[]>> vertical = new HashMap<>();
+
+        private Rays(BoundingBox[] boxes) {
+            this.boxes = boxes;
+            double left = Double.POSITIVE_INFINITY;
+            double right = Double.NEGATIVE_INFINITY;
+            double top = Double.POSITIVE_INFINITY;
+            double bottom = Double.NEGATIVE_INFINITY;
+            for (BoundingBox box : boxes) {
+                left = Math.min(left, box.x());
+                right = Math.max(right, box.x() + box.width());
+                top = Math.min(top, box.y());
+                bottom = Math.max(bottom, box.y() + box.height());
+            }
+            this.minX = left;
+            this.maxX = right;
+            this.minY = top;
+            this.maxY = bottom;
+        }
+
+        private void cast(double x, double y, int own) {
+            double left = minX;
+            double right = maxX;
+            double up = minY;
+            double down = maxY;
+            for (int i = 0; i < boxes.length; i++) {
+                if (i == own) {
+                    continue;
+                }
+                BoundingBox box = boxes[i];
+                double boxMaxX = box.x() + box.width();
+                double boxMaxY = box.y() + box.height();
+                if (box.y() < y && y < boxMaxY) {
+                    if (boxMaxX > x) {
+                        right = Math.min(right, Math.max(box.x(), x));
+                    }
+                    if (box.x() < x) {
+                        left = Math.max(left, Math.min(boxMaxX, x));
+                    }
+                }
+                if (box.x() < x && x < boxMaxX) {
+                    if (boxMaxY > y) {
+                        down = Math.min(down, Math.max(box.y(), y));
+                    }
+                    if (box.y() < y) {
+                        up = Math.max(up, Math.min(boxMaxY, y));
+                    }
+                }
+            }
+            horizontal.computeIfAbsent(y, key -> new ArrayList<>()).add(new double[]{Math.min(left, x), Math.max(right, x)});
+            vertical.computeIfAbsent(x, key -> new ArrayList<>()).add(new double[]{Math.min(up, y), Math.max(down, y)});
+        }
+    }
+}
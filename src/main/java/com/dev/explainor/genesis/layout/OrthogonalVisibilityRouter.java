@@ -0,0 +1,59 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.LayoutProperties;
+import com.dev.explainor.genesis.domain.Point;
+import com.dev.explainor.genesis.layout.model.EntityGraph;
+import com.dev.explainor.genesis.layout.model.LayoutConstraints;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import com.dev.explainor.genesis.layout.model.RoutedEdge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/** Routing cost grows with the node count, not canvas size; each bend costs one {@code grid-step}. */
+public class OrthogonalVisibilityRouter implements PathFinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OrthogonalVisibilityRouter.class);
+
+    private final double obstaclePadding;
+    private final double bendPenalty;
+
+    public OrthogonalVisibilityRouter(LayoutProperties properties) {
+        this.obstaclePadding = properties.getObstaclePadding();
+        this.bendPenalty = properties.getGridStep();
+    }
+
+    @Override
+    public List<RoutedEdge> routeEdges(List<LayoutEdge> edges, List<PositionedNode> nodes, LayoutConstraints constraints) {
+        Objects.requireNonNull(edges);
+        Objects.requireNonNull(nodes);
+        Objects.requireNonNull(constraints);
+        return routeEdges(EntityGraph.build(nodes, PositionedNode::id, edges, LayoutEdge::from, LayoutEdge::to),
+            edges, nodes, constraints);
+    }
+
+    @Override
+    public List<RoutedEdge> routeEdges(EntityGraph entityGraph, List<LayoutEdge> edges, List<PositionedNode> nodes,
+                                       LayoutConstraints constraints) {
+        if (edges.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        OrthogonalVisibilityGraph graph = OrthogonalVisibilityGraph.build(nodes, obstaclePadding);
+        log.debug("Built visibility graph with {} vertices for {} nodes", graph.vertexCount(), nodes.size());
+        GridSearchBuffers buffers = new GridSearchBuffers();
+
+        List<RoutedEdge> routedEdges = new ArrayList<>(edges.size());
+        for (int edge = 0; edge < edges.size(); edge++) {
+            PositionedNode fromNode = nodes.get(entityGraph.source(edge));
+            PositionedNode toNode = nodes.get(entityGraph.target(edge));
+            List<Point> routedPoints = graph.route(fromNode, toNode, bendPenalty, buffers);
+            routedEdges.add(RoutedEdgeAssembler.assemble(edges.get(edge), fromNode, toNode, routedPoints, 1.0));
+        }
+        return routedEdges;
+    }
+}
@@ -1,5 +1,6 @@
 package com.dev.explainor.genesis.layout;
 
+import com.dev.explainor.genesis.layout.model.EntityGraph;
 import com.dev.explainor.genesis.layout.model.LayoutConstraints;
 import com.dev.explainor.genesis.layout.model.LayoutEdge;
 import com.dev.explainor.genesis.layout.model.PositionedNode;
@@ -9,9 +10,17 @@ import java.util.List;
 
 public interface PathFinder {
     List<RoutedEdge> routeEdges(List<LayoutEdge> edges, List<PositionedNode> nodes, LayoutConstraints constraints);
-}
-
-
-
-
 
+    /** {@code edges.get(i)} is edge {@code i} of {@code graph} and {@code nodes.get(i)} its node {@code i}. */
+    default List<RoutedEdge> routeEdges(EntityGraph graph, List<LayoutEdge> edges, List<PositionedNode> nodes,
+                                        LayoutConstraints constraints) {
+        return routeEdges(edges, nodes, constraints);
+    }
+
+    /** Implementations may keep previous routes that cannot have changed; by default every edge is routed again. */
+    default List<RoutedEdge> rerouteEdges(List<LayoutEdge> edges, List<RoutedEdge> previousRoutes,
+                                          List<PositionedNode> previousNodes, List<PositionedNode> nodes,
+                                          LayoutConstraints constraints) {
+        return routeEdges(edges, nodes, constraints);
+    }
+}
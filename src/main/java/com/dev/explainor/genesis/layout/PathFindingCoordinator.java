@@ -1,26 +1,72 @@
 package com.dev.explainor.genesis.layout;
 
 import com.dev.explainor.genesis.domain.Point;
+import com.dev.explainor.genesis.layout.model.EntityGraph;
 import com.dev.explainor.genesis.layout.model.LayoutConstraints;
 import com.dev.explainor.genesis.layout.model.LayoutEdge;
 import com.dev.explainor.genesis.layout.model.PositionedNode;
 import com.dev.explainor.genesis.layout.model.RoutedEdge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-public class PathFindingCoordinator implements PathFinder {
+public class PathFindingCoordinator implements PathFinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PathFindingCoordinator.class);
+
+    private static final int PARALLEL_THRESHOLD = 8;
 
     private final GridBuilder gridBuilder;
-    private final AStarPathSolver pathSolver;
+    private final PathSolver pathSolver;
+    private final ForkJoinPool routingPool;
+    private final int fanOutThreshold;
+    private final Duration routeBudget;
+    private final Duration requestBudget;
+    private final int congestionPasses;
+
+    public PathFindingCoordinator(GridBuilder gridBuilder, PathSolver pathSolver) {
+        this(gridBuilder, pathSolver, 1);
+    }
+
+    public PathFindingCoordinator(GridBuilder gridBuilder, PathSolver pathSolver, int parallelism) {
+        this(gridBuilder, pathSolver, parallelism, 0);
+    }
 
-    public PathFindingCoordinator(GridBuilder gridBuilder, AStarPathSolver pathSolver) {
+    /** {@code 0} disables shared fan-out searches; they have no iteration cap, cache or expansion count. */
+    public PathFindingCoordinator(GridBuilder gridBuilder, PathSolver pathSolver, int parallelism, int fanOutThreshold) {
+        this(gridBuilder, pathSolver, parallelism, fanOutThreshold, Duration.ZERO, Duration.ZERO);
+    }
+
+    /** Budgets only bound latency with a solver that honours deadlines; fan-outs are not shared under a budget. */
+    public PathFindingCoordinator(GridBuilder gridBuilder, PathSolver pathSolver, int parallelism, int fanOutThreshold,
+                                  Duration routeBudget, Duration requestBudget) {
+        this(gridBuilder, pathSolver, parallelism, fanOutThreshold, routeBudget, requestBudget, 0);
+    }
+
+    public PathFindingCoordinator(GridBuilder gridBuilder, PathSolver pathSolver, int parallelism, int fanOutThreshold,
+                                  Duration routeBudget, Duration requestBudget, int congestionPasses) {
         this.gridBuilder = gridBuilder;
         this.pathSolver = pathSolver;
+        this.routingPool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.fanOutThreshold = fanOutThreshold;
+        if (routeBudget.isNegative() || requestBudget.isNegative()) {
+            throw new IllegalArgumentException("Routing budgets must not be negative");
+        }
+        this.routeBudget = routeBudget;
+        this.requestBudget = requestBudget;
+        this.congestionPasses = congestionPasses;
     }
 
     @Override
@@ -28,65 +74,394 @@ public class PathFindingCoordinator implements PathFinder {
         Objects.requireNonNull(edges);
         Objects.requireNonNull(nodes);
         Objects.requireNonNull(constraints);
-        Map<String, PositionedNode> index = nodes.stream()
-            .collect(Collectors.toMap(PositionedNode::id, Function.identity()));
-        List<RoutedEdge> routedEdges = new ArrayList<>();
+        return routeEdges(intern(edges, nodes), edges, nodes, constraints);
+    }
+
+    @Override
+    public List<RoutedEdge> routeEdges(EntityGraph graph, List<LayoutEdge> edges, List<PositionedNode> nodes,
+                                       LayoutConstraints constraints) {
+        Objects.requireNonNull(graph);
+        Objects.requireNonNull(constraints);
+        GridBuilder.GridSpecification grid = gridBuilder.build(nodes, constraints);
+        return route(edges, Endpoints.of(graph, nodes), grid);
+    }
+
+    /**
+     * A route is kept only when no old or new footprint of a changed node overlaps its exploration window,
+     * which is all the solver sees. Fan-outs are kept whole; negotiated routes are always routed again.
+     */
+    @Override
+    public List<RoutedEdge> rerouteEdges(List<LayoutEdge> edges, List<RoutedEdge> previousRoutes,
+                                         List<PositionedNode> previousNodes, List<PositionedNode> nodes,
+                                         LayoutConstraints constraints) {
+        Objects.requireNonNull(edges);
+        Objects.requireNonNull(previousRoutes);
+        Objects.requireNonNull(previousNodes);
+        Objects.requireNonNull(nodes);
+        Objects.requireNonNull(constraints);
+        EntityGraph graph = intern(edges, nodes);
+        if (congestionPasses > 0) {
+            return routeEdges(graph, edges, nodes, constraints);
+        }
+        Endpoints endpoints = Endpoints.of(graph, nodes);
+        Map<String, PositionedNode> previousIndex = previousNodes.stream()
+            .collect(Collectors.toMap(PositionedNode::id, Function.identity(), (first, last) -> last));
+        Map<String, RoutedEdge> previousById = previousRoutes.stream()
+            .collect(Collectors.toMap(RoutedEdge::id, Function.identity(), (first, last) -> last));
+        List<GridRect> changedAreas = changedFootprints(previousIndex, graph, nodes);
+
+        boolean[] reusable = new boolean[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            LayoutEdge edge = edges.get(i);
+            RoutedEdge previous = previousById.get(edge.id());
+            reusable[i] = previous != null
+                && sameEdge(edge, previous)
+                && Objects.equals(previousIndex.get(edge.from()), endpoints.from()[i])
+                && Objects.equals(previousIndex.get(edge.to()), endpoints.to()[i])
+                && !windowTouches(endpoints.from()[i], endpoints.to()[i], changedAreas);
+        }
+        keepFanOutsWhole(graph, edges, previousRoutes, reusable);
 
-        GridBuilder.GridSpecification grid = gridBuilder.build(nodes);
+        List<RoutedEdge> routedEdges = new ArrayList<>(edges.size());
+        List<LayoutEdge> staleEdges = new ArrayList<>();
+        int[] stalePositions = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            LayoutEdge edge = edges.get(i);
+            if (reusable[i]) {
+                routedEdges.add(previousById.get(edge.id()));
+            } else {
+                routedEdges.add(null);
+                stalePositions[staleEdges.size()] = i;
+                staleEdges.add(edge);
+            }
+        }
 
-        for (LayoutEdge edge : edges) {
-            PositionedNode fromNode = requireNode(index, edge.from());
-            PositionedNode toNode = requireNode(index, edge.to());
-            routedEdges.add(routeEdge(edge, fromNode, toNode, grid));
+        if (!staleEdges.isEmpty()) {
+            GridBuilder.GridSpecification grid = gridBuilder.build(nodes, constraints);
+            List<RoutedEdge> rerouted = route(staleEdges, endpoints.select(stalePositions, staleEdges.size()), grid);
+            int next = 0;
+            for (int i = 0; i < routedEdges.size(); i++) {
+                if (routedEdges.get(i) == null) {
+                    routedEdges.set(i, rerouted.get(next++));
+                }
+            }
         }
+        log.debug("Rerouted {} of {} edges", staleEdges.size(), edges.size());
         return routedEdges;
     }
 
-    private RoutedEdge routeEdge(LayoutEdge edge, PositionedNode fromNode, PositionedNode toNode, GridBuilder.GridSpecification grid) {
+    @Override
+    public void close() {
+        if (routingPool != null) {
+            routingPool.shutdown();
+        }
+    }
+
+    private List<RoutedEdge> route(List<LayoutEdge> edges, Endpoints endpoints, GridBuilder.GridSpecification grid) {
+        long requestDeadline = deadlineAfter(System.nanoTime(), requestBudget);
+        List<int[]> jobs = planJobs(endpoints);
+        RoutedEdge[] routedEdges = new RoutedEdge[edges.size()];
+        if (routingPool != null && edges.size() >= PARALLEL_THRESHOLD) {
+            List<Callable<List<RoutedEdge>>> tasks = new ArrayList<>(jobs.size());
+            for (int[] job : jobs) {
+                tasks.add(() -> routeJob(job, edges, endpoints, grid, requestDeadline));
+            }
+            List<Future<List<RoutedEdge>>> futures = routingPool.invokeAll(tasks);
+            for (int i = 0; i < jobs.size(); i++) {
+                place(routedEdges, jobs.get(i), awaitRoute(futures.get(i)));
+            }
+        } else {
+            for (int[] job : jobs) {
+                place(routedEdges, job, routeJob(job, edges, endpoints, grid, requestDeadline));
+            }
+        }
+        if (congestionPasses > 0) {
+            negotiateCongestion(edges, endpoints, grid, routedEdges, requestDeadline);
+        }
+        logDegradedRoutes(routedEdges);
+        return new ArrayList<>(Arrays.asList(routedEdges));
+    }
+
+    /** Negotiated routes are longer on purpose, so they report no suboptimality bound. */
+    private void negotiateCongestion(List<LayoutEdge> edges, Endpoints endpoints,
+                                     GridBuilder.GridSpecification grid, RoutedEdge[] routedEdges, long deadline) {
+        List<CongestionNegotiator.Route> routes = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < routedEdges.length; i++) {
+            List<GridPoint> corners = new ArrayList<>(routedEdges[i].path().size());
+            for (Point point : routedEdges[i].path()) {
+                corners.add(gridBuilder.toGrid(point.x(), point.y()));
+            }
+            if (!isOrthogonal(corners)) {
+                continue;
+            }
+            GridPoint start = corners.get(0);
+            GridPoint goal = corners.get(corners.size() - 1);
+            routes.add(new CongestionNegotiator.Route(start, goal, pathSolver.window(start, goal), corners));
+            positions.add(i);
+        }
+        if (routes.isEmpty()) {
+            return;
+        }
+
+        new CongestionNegotiator(grid.occupancy(), routes).negotiate(congestionPasses, deadline);
+        for (int i = 0; i < routes.size(); i++) {
+            CongestionNegotiator.Route route = routes.get(i);
+            if (route.changed()) {
+                int position = positions.get(i);
+                routedEdges[position] = toRoutedEdge(edges.get(position), endpoints.from()[position], endpoints.to()[position],
+                    SearchResult.bounded(route.corners(), 0, Double.POSITIVE_INFINITY), grid);
+            }
+        }
+    }
+
+    private boolean isOrthogonal(List<GridPoint> corners) {
+        if (corners.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i + 1 < corners.size(); i++) {
+            if (corners.get(i).x() != corners.get(i + 1).x() && corners.get(i).y() != corners.get(i + 1).y()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void logDegradedRoutes(RoutedEdge[] routedEdges) {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        int bounded = 0;
+        int unbounded = 0;
+        for (RoutedEdge routedEdge : routedEdges) {
+            if (Double.isInfinite(routedEdge.suboptimalityBound())) {
+                unbounded++;
+            } else if (routedEdge.suboptimalityBound() > 1.0) {
+                bounded++;
+            }
+        }
+        log.debug("Routed {} edges: {} within a suboptimality bound above 1, {} without a known bound",
+            routedEdges.length, bounded, unbounded);
+    }
+
+    private long deadlineAfter(long now, Duration budget) {
+        if (budget.isZero()) {
+            return PathSolver.NO_DEADLINE;
+        }
+        return now + budget.toNanos();
+    }
+
+    private boolean budgeted() {
+        return !routeBudget.isZero() || !requestBudget.isZero();
+    }
+
+    private boolean fansOut(int edgeCount) {
+        return fanOutThreshold > 0 && !budgeted() && edgeCount >= fanOutThreshold;
+    }
+
+    /** Jobs hold edge positions, with sources in the order of their first edge. */
+    private List<int[]> planJobs(Endpoints endpoints) {
+        int[] sources = endpoints.sources();
+        int[] counts = new int[endpoints.nodeCount()];
+        int[] order = new int[sources.length];
+        int sourceCount = 0;
+        for (int source : sources) {
+            if (counts[source]++ == 0) {
+                order[sourceCount++] = source;
+            }
+        }
+        int[][] groups = new int[endpoints.nodeCount()][];
+        int[] filled = new int[endpoints.nodeCount()];
+        for (int position = 0; position < sources.length; position++) {
+            int source = sources[position];
+            if (groups[source] == null) {
+                groups[source] = new int[counts[source]];
+            }
+            groups[source][filled[source]++] = position;
+        }
+        List<int[]> jobs = new ArrayList<>();
+        for (int i = 0; i < sourceCount; i++) {
+            int[] group = groups[order[i]];
+            if (fansOut(group.length)) {
+                jobs.add(group);
+            } else {
+                for (int position : group) {
+                    jobs.add(new int[]{position});
+                }
+            }
+        }
+        return jobs;
+    }
+
+    private void place(RoutedEdge[] routedEdges, int[] job, List<RoutedEdge> routed) {
+        for (int i = 0; i < job.length; i++) {
+            routedEdges[job[i]] = routed.get(i);
+        }
+    }
+
+    private List<RoutedEdge> routeJob(int[] job, List<LayoutEdge> edges, Endpoints endpoints,
+                                      GridBuilder.GridSpecification grid, long requestDeadline) {
+        if (job.length == 1) {
+            int position = job[0];
+            return List.of(routeEdge(edges.get(position), endpoints.from()[position], endpoints.to()[position], grid, requestDeadline));
+        }
+        return routeFanOut(job, edges, endpoints, grid);
+    }
+
+    /** Edges the flood cannot vouch for fall back to the solver, so lengths match per-edge routing. */
+    private List<RoutedEdge> routeFanOut(int[] job, List<LayoutEdge> edges, Endpoints endpoints, GridBuilder.GridSpecification grid) {
+        PositionedNode fromNode = endpoints.from()[job[0]];
         GridPoint start = gridBuilder.toGrid(fromNode.x(), fromNode.y());
-        GridPoint goal = gridBuilder.toGrid(toNode.x(), toNode.y());
-        List<GridPoint> gridPath = pathSolver.findPath(start, goal, grid.blockedCells());
-        List<Point> routedPoints = new ArrayList<>();
-        for (GridPoint gridPoint : gridPath) {
-            routedPoints.add(new Point(gridPoint.x() * grid.step(), gridPoint.y() * grid.step()));
+        List<PositionedNode> toNodes = new ArrayList<>(job.length);
+        List<GridPoint> goals = new ArrayList<>(job.length);
+        List<SearchWindow> windows = new ArrayList<>(job.length);
+        for (int position : job) {
+            PositionedNode toNode = endpoints.to()[position];
+            GridPoint goal = gridBuilder.toGrid(toNode.x(), toNode.y());
+            toNodes.add(toNode);
+            goals.add(goal);
+            windows.add(pathSolver.window(start, goal));
+        }
+
+        List<List<GridPoint>> gridPaths = MultiTargetSearch.search(start, goals, windows, grid.occupancy());
+        List<RoutedEdge> routedEdges = new ArrayList<>(job.length);
+        for (int i = 0; i < job.length; i++) {
+            List<GridPoint> gridPath = gridPaths.get(i);
+            SearchResult result = gridPath != null
+                ? SearchResult.found(gridPath, 0)
+                : pathSolver.search(start, goals.get(i), grid.occupancy());
+            routedEdges.add(toRoutedEdge(edges.get(job[i]), fromNode, toNodes.get(i), result, grid));
+        }
+        return routedEdges;
+    }
+
+    private void keepFanOutsWhole(EntityGraph graph, List<LayoutEdge> edges, List<RoutedEdge> previousRoutes,
+                                  boolean[] reusable) {
+        if (!fansOut(fanOutThreshold)) {
+            return;
+        }
+        Map<String, List<String>> previousFanOuts = previousRoutes.stream()
+            .collect(Collectors.groupingBy(RoutedEdge::from, Collectors.mapping(RoutedEdge::id, Collectors.toList())));
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            if (!fansOut(graph.outDegree(node))) {
+                continue;
+            }
+            List<String> ids = new ArrayList<>(graph.outDegree(node));
+            boolean whole = true;
+            for (int slot = graph.outStart(node); slot < graph.outStart(node + 1); slot++) {
+                int edge = graph.outEdge(slot);
+                ids.add(edges.get(edge).id());
+                whole &= reusable[edge];
+            }
+            if (!whole || !ids.equals(previousFanOuts.get(graph.id(node)))) {
+                for (int slot = graph.outStart(node); slot < graph.outStart(node + 1); slot++) {
+                    reusable[graph.outEdge(slot)] = false;
+                }
+            }
+        }
+    }
+
+    private List<GridRect> changedFootprints(Map<String, PositionedNode> previousIndex, EntityGraph graph,
+                                             List<PositionedNode> nodes) {
+        List<GridRect> changed = new ArrayList<>();
+        for (PositionedNode previous : previousIndex.values()) {
+            int node = graph.indexOf(previous.id());
+            if (node < 0 || !previous.equals(nodes.get(node))) {
+                changed.add(gridBuilder.footprintOf(previous));
+            }
         }
+        for (PositionedNode node : nodes) {
+            if (!node.equals(previousIndex.get(node.id()))) {
+                changed.add(gridBuilder.footprintOf(node));
+            }
+        }
+        return changed;
+    }
+
+    private boolean windowTouches(PositionedNode fromNode, PositionedNode toNode, List<GridRect> areas) {
+        GridRect window = pathSolver.window(
+            gridBuilder.toGrid(fromNode.x(), fromNode.y()),
+            gridBuilder.toGrid(toNode.x(), toNode.y())
+        ).toRect();
+        for (GridRect area : areas) {
+            if (area.intersects(window)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        Point startAnchor = AnchorCalculator.calculateExitPoint(
-            fromNode,
-            routedPoints.isEmpty() ? new Point(toNode.x(), toNode.y()) : routedPoints.get(0)
-        );
-        Point endAnchor = AnchorCalculator.calculateEntryPoint(
-            toNode,
-            routedPoints.isEmpty() ? new Point(fromNode.x(), fromNode.y()) : routedPoints.get(routedPoints.size() - 1)
-        );
+    private boolean sameEdge(LayoutEdge edge, RoutedEdge previous) {
+        return edge.from().equals(previous.from())
+            && edge.to().equals(previous.to())
+            && Objects.equals(edge.label(), previous.label())
+            && Objects.equals(edge.lineStyle(), previous.lineStyle())
+            && Objects.equals(edge.params(), previous.params());
+    }
 
-        List<Point> fullPath = new ArrayList<>();
-        fullPath.add(startAnchor);
-        fullPath.addAll(routedPoints);
-        fullPath.add(endAnchor);
-        double pathLength = calculatePathLength(fullPath);
+    private <T> T awaitRoute(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Edge routing was interrupted", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Edge routing failed", exception.getCause());
+        }
+    }
 
-        return new RoutedEdge(edge.id(), edge.from(), edge.to(), edge.label(), edge.lineStyle(), routedPoints, startAnchor, endAnchor, pathLength, edge.params());
+    private RoutedEdge routeEdge(LayoutEdge edge, PositionedNode fromNode, PositionedNode toNode,
+                                 GridBuilder.GridSpecification grid, long requestDeadline) {
+        GridPoint start = gridBuilder.toGrid(fromNode.x(), fromNode.y());
+        GridPoint goal = gridBuilder.toGrid(toNode.x(), toNode.y());
+        long deadline = Math.min(requestDeadline, deadlineAfter(System.nanoTime(), routeBudget));
+        SearchResult result = pathSolver.search(start, goal, grid.occupancy(), deadline);
+        return toRoutedEdge(edge, fromNode, toNode, result, grid);
     }
 
-    private double calculatePathLength(List<Point> path) {
-        double length = 0.0;
-        for (int i = 0; i < path.size() - 1; i++) {
-            length += distance(path.get(i), path.get(i + 1));
+    private RoutedEdge toRoutedEdge(LayoutEdge edge, PositionedNode fromNode, PositionedNode toNode,
+                                    SearchResult result, GridBuilder.GridSpecification grid) {
+        List<Point> routedPoints = new ArrayList<>();
+        for (GridPoint gridPoint : result.path()) {
+            routedPoints.add(new Point(gridPoint.x() * grid.step(), gridPoint.y() * grid.step()));
         }
-        return length;
+        return RoutedEdgeAssembler.assemble(edge, fromNode, toNode, routedPoints, result.suboptimalityBound());
     }
 
-    private double distance(Point first, Point second) {
-        return Math.hypot(second.x() - first.x(), second.y() - first.y());
+    private EntityGraph intern(List<LayoutEdge> edges, List<PositionedNode> nodes) {
+        Objects.requireNonNull(edges);
+        Objects.requireNonNull(nodes);
+        return EntityGraph.build(nodes, PositionedNode::id, edges, LayoutEdge::from, LayoutEdge::to);
     }
 
-    private PositionedNode requireNode(Map<String, PositionedNode> index, String id) {
-        PositionedNode node = index.get(id);
-        if (node == null) {
-            throw new IllegalStateException("Node not found: " + id);
+    private record Endpoints(PositionedNode[] from, PositionedNode[] to, int[] sources, int nodeCount) {
+
+        static Endpoints of(EntityGraph graph, List<PositionedNode> nodes) {
+            int edgeCount = graph.edgeCount();
+            PositionedNode[] from = new PositionedNode[edgeCount];
+            PositionedNode[] to = new PositionedNode[edgeCount];
+            int[] sources = new int[edgeCount];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                sources[edge] = graph.source(edge);
+                from[edge] = nodes.get(graph.source(edge));
+                to[edge] = nodes.get(graph.target(edge));
+            }
+            return new Endpoints(from, to, sources, graph.nodeCount());
+        }
+
+        Endpoints select(int[] positions, int count) {
+            PositionedNode[] selectedFrom = new PositionedNode[count];
+            PositionedNode[] selectedTo = new PositionedNode[count];
+            int[] selectedSources = new int[count];
+            for (int i = 0; i < count; i++) {
+                selectedFrom[i] = from[positions[i]];
+                selectedTo[i] = to[positions[i]];
+                selectedSources[i] = sources[positions[i]];
+            }
+            return new Endpoints(selectedFrom, selectedTo, selectedSources, nodeCount);
         }
-        return node;
     }
 }
-
@@ -0,0 +1,22 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.List;
+
+public interface PathSolver {
+
+    long NO_DEADLINE = Long.MAX_VALUE;
+
+    SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid);
+
+    /** Solvers that cannot stop early ignore the deadline. */
+    default SearchResult search(GridPoint start, GridPoint goal, OccupancyGrid grid, long deadlineNanos) {
+        return search(start, goal, grid);
+    }
+
+    /** The route depends only on the occupancy inside this window. */
+    SearchWindow window(GridPoint start, GridPoint goal);
+
+    default List<GridPoint> findPath(GridPoint start, GridPoint goal, OccupancyGrid grid) {
+        return search(start, goal, grid).path();
+    }
+}
@@ -0,0 +1,315 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.layout.model.EntityGraph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of placements keyed by graph structure, independent of ids and node order. Keys are compared
+ * exactly, so a hit is always a placement of the same structure.
+ */
+public class PlacementCache {
+
+    private final Map<StructureKey, Entry> placements;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    public PlacementCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Placement cache size must be positive: " + maxEntries);
+        }
+        this.placements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StructureKey, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Copies as {@code {xs, ys}}, or {@code null} on a miss. */
+    double[][] get(StructureKey key) {
+        Entry entry;
+        synchronized (placements) {
+            entry = placements.get(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        savedNanos.addAndGet(entry.computeNanos());
+        return new double[][]{entry.xs().clone(), entry.ys().clone()};
+    }
+
+    void put(StructureKey key, double[] xs, double[] ys, long computeNanos) {
+        Entry entry = new Entry(xs.clone(), ys.clone(), computeNanos);
+        synchronized (placements) {
+            placements.put(key, entry);
+        }
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public double hitRate() {
+        long lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0.0 : (double) hits.get() / lookups;
+    }
+
+    public long savedNanos() {
+        return savedNanos.get();
+    }
+
+    public int size() {
+        synchronized (placements) {
+            return placements.size();
+        }
+    }
+
+    private record Entry(double[] xs, double[] ys, long computeNanos) {
+    }
+
+    record StructureKey(int nodeCount, int[] endpoints, long fingerprint) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof StructureKey key
+                && fingerprint == key.fingerprint
+                && nodeCount == key.nodeCount
+                && Arrays.equals(endpoints, key.endpoints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(fingerprint);
+        }
+    }
+
+    /**
+     * Only the choice of which node of a tied cell to single out depends on input order, and interchangeable
+     * nodes give the same key whichever is chosen.
+     */
+    record CanonicalForm(StructureKey key, int[] positions) {
+
+        static CanonicalForm of(EntityGraph graph) {
+            int nodeCount = graph.nodeCount();
+            Partition partition = new Partition(graph);
+            partition.refine();
+            for (int cell = partition.firstTied(0); cell < nodeCount; cell = partition.firstTied(cell)) {
+                partition.individualize(cell);
+                partition.refine();
+            }
+            int[] positions = partition.positions();
+
+            long[] pairs = new long[graph.edgeCount()];
+            for (int edge = 0; edge < pairs.length; edge++) {
+                pairs[edge] = (long) positions[graph.source(edge)] * nodeCount + positions[graph.target(edge)];
+            }
+            Arrays.sort(pairs);
+            int[] endpoints = new int[pairs.length * 2];
+            long fingerprint = 0xcbf29ce484222325L ^ nodeCount;
+            for (int edge = 0; edge < pairs.length; edge++) {
+                endpoints[2 * edge] = (int) (pairs[edge] / nodeCount);
+                endpoints[2 * edge + 1] = (int) (pairs[edge] % nodeCount);
+                fingerprint = (fingerprint ^ endpoints[2 * edge]) * 0x100000001b3L;
+                fingerprint = (fingerprint ^ endpoints[2 * edge + 1]) * 0x100000001b3L;
+            }
+            return new CanonicalForm(new StructureKey(nodeCount, endpoints, fingerprint), positions);
+        }
+
+        double[] toCanonical(double[] values) {
+            double[] canonical = new double[values.length];
+            for (int node = 0; node < values.length; node++) {
+                canonical[positions[node]] = values[node];
+            }
+            return canonical;
+        }
+
+        double[] fromCanonical(double[] canonical) {
+            double[] values = new double[canonical.length];
+            for (int node = 0; node < values.length; node++) {
+                values[node] = canonical[positions[node]];
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Worklist partition refinement as in Hopcroft's algorithm. Only touched nodes move, and split cells are
+     * ordered by position and count, so cell order never depends on input order.
+     */
+    private static final class Partition {
+
+        private final EntityGraph graph;
+        private final int[] lab;
+        private final int[] position;
+        private final int[] cellOf;
+        private final int[] cellEnd;
+        private final int[] touchedInCell;
+        private final long[] counts;
+        private final boolean[] queued;
+        private final ArrayDeque<Integer> worklist = new ArrayDeque<>();
+        private final List<Integer> touchedNodes = new ArrayList<>();
+        private final List<Integer> touchedCells = new ArrayList<>();
+
+        Partition(EntityGraph graph) {
+            this.graph = graph;
+            int nodeCount = graph.nodeCount();
+            lab = new int[nodeCount];
+            position = new int[nodeCount];
+            cellOf = new int[nodeCount];
+            cellEnd = new int[nodeCount];
+            touchedInCell = new int[nodeCount];
+            counts = new long[nodeCount];
+            queued = new boolean[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                lab[node] = node;
+                position[node] = node;
+            }
+            if (nodeCount > 0) {
+                cellEnd[0] = nodeCount;
+                enqueue(0);
+            }
+        }
+
+        /** Cells before the returned start are singletons, so the scan can resume from it. */
+        int firstTied(int from) {
+            int cell = from;
+            while (cell < lab.length && cellEnd[cell] - cell == 1) {
+                cell++;
+            }
+            return cell;
+        }
+
+        void individualize(int cell) {
+            int end = cellEnd[cell];
+            cellEnd[cell] = cell + 1;
+            cellEnd[cell + 1] = end;
+            for (int i = cell + 1; i < end; i++) {
+                cellOf[lab[i]] = cell + 1;
+            }
+            enqueue(cell);
+        }
+
+        void refine() {
+            while (!worklist.isEmpty()) {
+                int splitter = worklist.poll();
+                queued[splitter] = false;
+                for (int node : Arrays.copyOfRange(lab, splitter, cellEnd[splitter])) {
+                    for (int slot = graph.outStart(node); slot < graph.outStart(node + 1); slot++) {
+                        touch(graph.target(graph.outEdge(slot)), 1L << 32);
+                    }
+                    for (int slot = graph.inStart(node); slot < graph.inStart(node + 1); slot++) {
+                        touch(graph.source(graph.inEdge(slot)), 1L);
+                    }
+                }
+                touchedCells.sort(null);
+                for (int cell : touchedCells) {
+                    split(cell);
+                }
+                for (int node : touchedNodes) {
+                    counts[node] = 0;
+                }
+                touchedNodes.clear();
+                touchedCells.clear();
+            }
+        }
+
+        int[] positions() {
+            return position.clone();
+        }
+
+        private void touch(int node, long count) {
+            if (counts[node] == 0) {
+                int cell = cellOf[node];
+                if (touchedInCell[cell] == 0) {
+                    touchedCells.add(cell);
+                }
+                swap(position[node], cellEnd[cell] - 1 - touchedInCell[cell]++);
+                touchedNodes.add(node);
+            }
+            counts[node] += count;
+        }
+
+        private void split(int cell) {
+            int end = cellEnd[cell];
+            int touchedStart = end - touchedInCell[cell];
+            touchedInCell[cell] = 0;
+            sortByCount(touchedStart, end);
+            int largest = cell;
+            int largestSize = 0;
+            List<Integer> parts = new ArrayList<>();
+            for (int start = cell; start < end; ) {
+                int partEnd = start == cell && touchedStart > cell ? touchedStart : start + 1;
+                while (partEnd < end && start >= touchedStart && counts[lab[partEnd]] == counts[lab[start]]) {
+                    partEnd++;
+                }
+                parts.add(start);
+                cellEnd[start] = partEnd;
+                if (start != cell) {
+                    for (int i = start; i < partEnd; i++) {
+                        cellOf[lab[i]] = start;
+                    }
+                }
+                if (partEnd - start > largestSize) {
+                    largest = start;
+                    largestSize = partEnd - start;
+                }
+                start = partEnd;
+            }
+            if (parts.size() == 1) {
+                return;
+            }
+            boolean wasQueued = queued[cell];
+            for (int part : parts) {
+                if (wasQueued || part != largest) {
+                    enqueue(part);
+                }
+            }
+        }
+
+        private void sortByCount(int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            Integer[] nodes = new Integer[to - from];
+            for (int i = from; i < to; i++) {
+                nodes[i - from] = lab[i];
+            }
+            Arrays.sort(nodes, Comparator.comparingLong(node -> counts[node]));
+            for (int i = from; i < to; i++) {
+                lab[i] = nodes[i - from];
+                position[lab[i]] = i;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int first = lab[i];
+            int second = lab[j];
+            lab[i] = second;
+            lab[j] = first;
+            position[second] = i;
+            position[first] = j;
+        }
+
+        private void enqueue(int cell) {
+            if (!queued[cell]) {
+                queued[cell] = true;
+                worklist.add(cell);
+            }
+        }
+    }
+}
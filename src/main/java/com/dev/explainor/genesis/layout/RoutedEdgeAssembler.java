@@ -0,0 +1,47 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.domain.Point;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import com.dev.explainor.genesis.layout.model.RoutedEdge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class RoutedEdgeAssembler {
+
+    private RoutedEdgeAssembler() {
+    }
+
+    static RoutedEdge assemble(LayoutEdge edge, PositionedNode fromNode, PositionedNode toNode, List<Point> routedPoints,
+                               double suboptimalityBound) {
+        Point startAnchor = AnchorCalculator.calculateExitPoint(
+            fromNode,
+            routedPoints.isEmpty() ? new Point(toNode.x(), toNode.y()) : routedPoints.get(0)
+        );
+        Point endAnchor = AnchorCalculator.calculateEntryPoint(
+            toNode,
+            routedPoints.isEmpty() ? new Point(fromNode.x(), fromNode.y()) : routedPoints.get(routedPoints.size() - 1)
+        );
+
+        List<Point> fullPath = new ArrayList<>();
+        fullPath.add(startAnchor);
+        fullPath.addAll(routedPoints);
+        fullPath.add(endAnchor);
+        double pathLength = calculatePathLength(fullPath);
+
+        return new RoutedEdge(edge.id(), edge.from(), edge.to(), edge.label(), edge.lineStyle(), routedPoints, startAnchor, endAnchor, pathLength, edge.params(), suboptimalityBound);
+    }
+
+    private static double calculatePathLength(List<Point> path) {
+        double length = 0.0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            length += distance(path.get(i), path.get(i + 1));
+        }
+        return length;
+    }
+
+    private static double distance(Point first, Point second) {
+        return Math.hypot(second.x() - first.x(), second.y() - first.y());
+    }
+}
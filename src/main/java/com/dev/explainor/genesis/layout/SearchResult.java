@@ -0,0 +1,27 @@
+package com.dev.explainor.genesis.layout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** {@code suboptimalityBound} is {@code 1.0} for an optimal route and infinite when no bound is known. */
+public record SearchResult(
+    List<GridPoint> path,
+    int expandedNodes,
+    boolean found,
+    double suboptimalityBound
+) {
+    public static SearchResult found(List<GridPoint> path, int expandedNodes) {
+        return new SearchResult(path, expandedNodes, true, 1.0);
+    }
+
+    public static SearchResult bounded(List<GridPoint> path, int expandedNodes, double suboptimalityBound) {
+        return new SearchResult(path, expandedNodes, true, suboptimalityBound);
+    }
+
+    public static SearchResult straightLine(GridPoint start, GridPoint goal, int expandedNodes) {
+        List<GridPoint> path = new ArrayList<>(2);
+        path.add(start);
+        path.add(goal);
+        return new SearchResult(path, expandedNodes, false, Double.POSITIVE_INFINITY);
+    }
+}
@@ -0,0 +1,54 @@
+package com.dev.explainor.genesis.layout;
+
+/** Cells are packed row-major into int indices. */
+public record SearchWindow(int minX, int minY, int maxX, int maxY) {
+
+    public static SearchWindow around(GridPoint start, GridPoint goal, int margin) {
+        return new SearchWindow(
+            Math.min(start.x(), goal.x()) - margin,
+            Math.min(start.y(), goal.y()) - margin,
+            Math.max(start.x(), goal.x()) + margin,
+            Math.max(start.y(), goal.y()) + margin
+        );
+    }
+
+    public int width() {
+        return maxX - minX + 1;
+    }
+
+    public int height() {
+        return maxY - minY + 1;
+    }
+
+    public int cellCount() {
+        return width() * height();
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    public int indexOf(int x, int y) {
+        return (y - minY) * width() + (x - minX);
+    }
+
+    public int indexOf(GridPoint point) {
+        return indexOf(point.x(), point.y());
+    }
+
+    public int xOf(int index) {
+        return index % width() + minX;
+    }
+
+    public int yOf(int index) {
+        return index / width() + minY;
+    }
+
+    public GridPoint pointOf(int index) {
+        return new GridPoint(xOf(index), yOf(index));
+    }
+
+    public GridRect toRect() {
+        return new GridRect(minX, minY, maxX, maxY);
+    }
+}
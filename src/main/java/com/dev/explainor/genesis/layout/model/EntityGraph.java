@@ -0,0 +1,201 @@
+package com.dev.explainor.genesis.layout.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/** Entity ids interned to dense indexes in input order, with adjacency in CSR form. Immutable. */
+public final class EntityGraph {
+
+    private static final int NOT_FOUND = -1;
+
+    private final String[] ids;
+    private final Map<String, Integer> indexes;
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] outStart;
+    private final int[] outEdges;
+    private final int[] inStart;
+    private final int[] inEdges;
+
+    private EntityGraph(String[] ids, Map<String, Integer> indexes, int[] sources, int[] targets) {
+        this.ids = ids;
+        this.indexes = indexes;
+        this.sources = sources;
+        this.targets = targets;
+        this.outStart = new int[ids.length + 1];
+        this.inStart = new int[ids.length + 1];
+        for (int edge = 0; edge < sources.length; edge++) {
+            outStart[sources[edge] + 1]++;
+            inStart[targets[edge] + 1]++;
+        }
+        for (int node = 0; node < ids.length; node++) {
+            outStart[node + 1] += outStart[node];
+            inStart[node + 1] += inStart[node];
+        }
+        this.outEdges = new int[sources.length];
+        this.inEdges = new int[sources.length];
+        int[] outFill = new int[ids.length];
+        int[] inFill = new int[ids.length];
+        for (int edge = 0; edge < sources.length; edge++) {
+            outEdges[outStart[sources[edge]] + outFill[sources[edge]]++] = edge;
+            inEdges[inStart[targets[edge]] + inFill[targets[edge]]++] = edge;
+        }
+    }
+
+    public static EntityGraph of(List<LayoutNode> nodes, List<LayoutEdge> edges) {
+        return build(nodes, LayoutNode::id, edges, LayoutEdge::from, LayoutEdge::to);
+    }
+
+    /** A repeated id keeps its slot but resolves to its last occurrence. */
+    public static <N, E> EntityGraph build(List<N> nodes, Function<N, String> id,
+                                           List<E> edges, Function<E, String> from, Function<E, String> to) {
+        String[] ids = new String[nodes.size()];
+        Map<String, Integer> indexes = new HashMap<>(nodes.size() * 2);
+        for (int node = 0; node < ids.length; node++) {
+            ids[node] = id.apply(nodes.get(node));
+            indexes.put(ids[node], node);
+        }
+        int[] sources = new int[edges.size()];
+        int[] targets = new int[edges.size()];
+        for (int edge = 0; edge < sources.length; edge++) {
+            sources[edge] = resolve(indexes, from.apply(edges.get(edge)));
+            targets[edge] = resolve(indexes, to.apply(edges.get(edge)));
+        }
+        return new EntityGraph(ids, indexes, sources, targets);
+    }
+
+    private static int resolve(Map<String, Integer> indexes, String id) {
+        Integer index = indexes.get(id);
+        if (index == null) {
+            throw new IllegalArgumentException("Node not found: " + id);
+        }
+        return index;
+    }
+
+    public int nodeCount() {
+        return ids.length;
+    }
+
+    public int edgeCount() {
+        return sources.length;
+    }
+
+    public String id(int node) {
+        return ids[node];
+    }
+
+    public int indexOf(String id) {
+        return id == null ? NOT_FOUND : indexes.getOrDefault(id, NOT_FOUND);
+    }
+
+    public int source(int edge) {
+        return sources[edge];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public int outStart(int node) {
+        return outStart[node];
+    }
+
+    public int outEdge(int slot) {
+        return outEdges[slot];
+    }
+
+    public int inStart(int node) {
+        return inStart[node];
+    }
+
+    public int inEdge(int slot) {
+        return inEdges[slot];
+    }
+
+    public int outDegree(int node) {
+        return outStart[node + 1] - outStart[node];
+    }
+
+    public int inDegree(int node) {
+        return inStart[node + 1] - inStart[node];
+    }
+
+    /** Components are numbered in order of their lowest node index. */
+    public int[] weakComponents() {
+        int[] component = new int[ids.length];
+        Arrays.fill(component, NOT_FOUND);
+        int[] stack = new int[ids.length];
+        int count = 0;
+        for (int root = 0; root < ids.length; root++) {
+            if (component[root] != NOT_FOUND) {
+                continue;
+            }
+            component[root] = count;
+            int size = 0;
+            stack[size++] = root;
+            while (size > 0) {
+                int node = stack[--size];
+                for (int slot = outStart[node]; slot < outStart[node + 1]; slot++) {
+                    size = push(component, stack, size, targets[outEdges[slot]], count);
+                }
+                for (int slot = inStart[node]; slot < inStart[node + 1]; slot++) {
+                    size = push(component, stack, size, sources[inEdges[slot]], count);
+                }
+            }
+            count++;
+        }
+        return component;
+    }
+
+    private static int push(int[] component, int[] stack, int size, int node, int number) {
+        if (component[node] != NOT_FOUND) {
+            return size;
+        }
+        component[node] = number;
+        stack[size] = node;
+        return size + 1;
+    }
+
+    public EntityGraph subgraph(int[] nodes) {
+        int[] local = new int[ids.length];
+        Arrays.fill(local, NOT_FOUND);
+        String[] subIds = new String[nodes.length];
+        Map<String, Integer> subIndexes = new HashMap<>(nodes.length * 2);
+        for (int i = 0; i < nodes.length; i++) {
+            local[nodes[i]] = i;
+            subIds[i] = ids[nodes[i]];
+            subIndexes.put(subIds[i], i);
+        }
+        int edgeCount = 0;
+        for (int edge = 0; edge < sources.length; edge++) {
+            if (local[sources[edge]] != NOT_FOUND && local[targets[edge]] != NOT_FOUND) {
+                edgeCount++;
+            }
+        }
+        int[] subSources = new int[edgeCount];
+        int[] subTargets = new int[edgeCount];
+        int next = 0;
+        for (int edge = 0; edge < sources.length; edge++) {
+            if (local[sources[edge]] != NOT_FOUND && local[targets[edge]] != NOT_FOUND) {
+                subSources[next] = local[sources[edge]];
+                subTargets[next++] = local[targets[edge]];
+            }
+        }
+        return new EntityGraph(subIds, subIndexes, subSources, subTargets);
+    }
+
+    public int edgeBetween(int from, int to) {
+        if (from == NOT_FOUND || to == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        for (int slot = outStart[from]; slot < outStart[from + 1]; slot++) {
+            if (targets[outEdges[slot]] == to) {
+                return outEdges[slot];
+            }
+        }
+        return NOT_FOUND;
+    }
+}
@@ -2,8 +2,9 @@ package com.dev.explainor.genesis.layout.model;
 
 import java.util.List;
 
+/** Nodes and edges are in the order of {@code graph}, so both can be looked up by index. */
 public record LayoutResult(
     List<PositionedNode> nodes,
-    List<RoutedEdge> edges
+    List<RoutedEdge> edges,
+    EntityGraph graph
 ) {}
-
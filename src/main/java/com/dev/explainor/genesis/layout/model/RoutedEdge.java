@@ -15,7 +15,8 @@ public record RoutedEdge(
     Point startAnchor,
     Point endAnchor,
     double pathLength,
-    ConnectEntitiesParams params
+    ConnectEntitiesParams params,
+    double suboptimalityBound
 ) {
 }
 
@@ -1,6 +1,9 @@
 package com.dev.explainor.genesis.renderer;
 
+import com.dev.explainor.genesis.config.TimelineEncodingProperties;
 import com.dev.explainor.genesis.dto.FinalTimelineV1;
+import com.dev.explainor.genesis.dto.TimelineEncoding;
+import com.dev.explainor.genesis.service.CompactTimelineEncoder;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,15 +19,21 @@ public class RendererClient {
     private static final Logger log = LoggerFactory.getLogger(RendererClient.class);
 
     private final WebClient webClient;
+    private final CompactTimelineEncoder compactEncoder;
+    private final TimelineEncoding encoding;
 
-    public RendererClient(@Qualifier("rendererWebClient") WebClient webClient) {
+    public RendererClient(@Qualifier("rendererWebClient") WebClient webClient, CompactTimelineEncoder compactEncoder,
+                          TimelineEncodingProperties encodingProperties) {
         this.webClient = webClient;
+        this.compactEncoder = compactEncoder;
+        this.encoding = encodingProperties.getRenderer();
     }
 
     public Mono<JsonNode> renderVideo(FinalTimelineV1 timeline) {
         return this.webClient.post()
                 .uri("/render")
-                .bodyValue(timeline)
+                .header(TimelineEncoding.HEADER, encoding.headerValue())
+                .bodyValue(compactEncoder.encode(timeline, encoding))
                 .retrieve()
                 .onStatus(
                         HttpStatusCode::isError,
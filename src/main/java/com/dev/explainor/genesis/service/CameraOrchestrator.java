@@ -1,14 +1,13 @@
 package com.dev.explainor.genesis.service;
 
-import com.dev.explainor.genesis.dto.AnimationSegment;
 import com.dev.explainor.genesis.dto.AnimationTrack;
+import com.dev.explainor.genesis.dto.SegmentBuffer;
 import com.dev.explainor.genesis.layout.model.PositionedNode;
 import com.dev.explainor.genesis.layout.model.Viewport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -44,9 +43,9 @@ public class CameraOrchestrator {
         Viewport standardViewport = Viewport.standard(DEFAULT_CANVAS_WIDTH, DEFAULT_CANVAS_HEIGHT);
         
         double endTime = startTime + duration;
-        List<AnimationSegment> segments = new ArrayList<>();
+        SegmentBuffer segments = new SegmentBuffer(2);
         
-        segments.add(AnimationSegment.cameraPosition(
+        segments.addCameraPosition(
             startTime,
             endTime,
             "easeInOutQuad",
@@ -54,15 +53,15 @@ public class CameraOrchestrator {
             standardViewport.centerY(),
             idealViewport.centerX(),
             idealViewport.centerY()
-        ));
+        );
         
-        segments.add(AnimationSegment.zoom(
+        segments.addZoom(
             startTime,
             endTime,
             "easeInOutQuad",
             standardViewport.zoom(),
             finalZoom
-        ));
+        );
         
         log.info("Created focus track for '{}' at ({}, {}) with zoom {}",
             targetId, targetNode.x(), targetNode.y(), finalZoom);
@@ -0,0 +1,88 @@
+package com.dev.explainor.genesis.service;
+
+import com.dev.explainor.genesis.config.TimelineEncodingProperties;
+import com.dev.explainor.genesis.domain.Point;
+import com.dev.explainor.genesis.dto.AnimationTrack;
+import com.dev.explainor.genesis.dto.CompactTimelineV1;
+import com.dev.explainor.genesis.dto.EdgeStyle;
+import com.dev.explainor.genesis.dto.FinalTimelineV1;
+import com.dev.explainor.genesis.dto.SegmentBuffer;
+import com.dev.explainor.genesis.dto.TimelineEdge;
+import com.dev.explainor.genesis.dto.TimelineEncoding;
+import com.dev.explainor.genesis.dto.TimelineNode;
+import com.dev.explainor.genesis.dto.VisualStyle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Styles are deduplicated by value and numbered in order of first use. */
+@Component
+public class CompactTimelineEncoder {
+
+    private final TimelineEncodingProperties properties;
+
+    public CompactTimelineEncoder(TimelineEncodingProperties properties) {
+        if (properties.getPrecision() < 0 || properties.getPrecision() > 6) {
+            throw new IllegalArgumentException("Timeline precision must be between 0 and 6 decimal places");
+        }
+        this.properties = properties;
+    }
+
+    public Object encode(FinalTimelineV1 timeline, TimelineEncoding encoding) {
+        return encoding == TimelineEncoding.COMPACT ? encode(timeline) : timeline;
+    }
+
+    public CompactTimelineV1 encode(FinalTimelineV1 timeline) {
+        int precision = properties.getPrecision();
+        double scale = Math.pow(10, precision);
+        Map<String, Object> styles = new LinkedHashMap<>();
+
+        Map<VisualStyle, String> nodeStyleIds = new HashMap<>();
+        List<CompactTimelineV1.Node> nodes = new ArrayList<>(timeline.nodes().size());
+        for (TimelineNode node : timeline.nodes()) {
+            String style = styleId(node.visualStyle(), "n", nodeStyleIds, styles);
+            nodes.add(new CompactTimelineV1.Node(node.id(), node.label(), node.icon(),
+                round(node.x(), scale), round(node.y(), scale), style));
+        }
+
+        Map<EdgeStyle, String> edgeStyleIds = new HashMap<>();
+        List<CompactTimelineV1.Edge> edges = new ArrayList<>(timeline.edges().size());
+        for (TimelineEdge edge : timeline.edges()) {
+            String style = styleId(edge.edgeStyle(), "e", edgeStyleIds, styles);
+            List<Point> path = new ArrayList<>(edge.path().size());
+            for (Point point : edge.path()) {
+                path.add(new Point(round(point.x(), scale), round(point.y(), scale)));
+            }
+            edges.add(new CompactTimelineV1.Edge(edge.id(), edge.from(), edge.to(), edge.label(), path, style,
+                round(edge.pathLength(), scale)));
+        }
+
+        List<AnimationTrack> tracks = new ArrayList<>(timeline.tracks().size());
+        for (AnimationTrack track : timeline.tracks()) {
+            SegmentBuffer segments = SegmentBuffer.of(track.segments()).quantized(precision);
+            tracks.add(new AnimationTrack(track.id(), track.type(), track.targetId(), segments));
+        }
+
+        return new CompactTimelineV1(timeline.version(), TimelineEncoding.COMPACT.headerValue(), precision,
+            timeline.stage(), styles, nodes, edges, tracks);
+    }
+
+    private static <S> String styleId(S style, String prefix, Map<S, String> ids, Map<String, Object> styles) {
+        if (style == null) {
+            return null;
+        }
+        return ids.computeIfAbsent(style, key -> {
+            String id = prefix + ids.size();
+            styles.put(id, key);
+            return id;
+        });
+    }
+
+    private static double round(double value, double scale) {
+        return Math.round(value * scale) / scale;
+    }
+}
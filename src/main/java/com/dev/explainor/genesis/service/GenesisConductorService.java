@@ -1,18 +1,36 @@
 package com.dev.explainor.genesis.service;
 
+import com.dev.explainor.genesis.config.ChoreographyProperties;
 import com.dev.explainor.genesis.dto.AnimationTrack;
 import com.dev.explainor.genesis.dto.FinalTimelineV1;
 import com.dev.explainor.genesis.dto.StoryboardV1;
+import com.dev.explainor.genesis.dto.TimelineEdge;
+import com.dev.explainor.genesis.dto.TimelineNode;
 import com.dev.explainor.genesis.layout.LayoutManager;
 import com.dev.explainor.genesis.layout.PathFinder;
 import com.dev.explainor.genesis.layout.model.*;
+import com.dev.explainor.genesis.service.StageTimings.Step;
+import com.dev.explainor.genesis.timing.TimingInfo;
 import com.dev.explainor.genesis.validation.StoryboardValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 
+/**
+ * Staged mode runs the pipeline as a graph of futures; every step is a pure function of its inputs, so both
+ * modes build the same timeline.
+ */
 @Service
-public class GenesisConductorService {
+public class GenesisConductorService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(GenesisConductorService.class);
 
     private final StoryboardValidator storyboardValidator;
     private final LayoutModelFactory layoutModelFactory;
@@ -20,6 +38,8 @@ public class GenesisConductorService {
     private final PathFinder pathFinder;
     private final TimelineEnricher timelineEnricher;
     private final TimelineFactory timelineFactory;
+    private final StylingService stylingService;
+    private final ForkJoinPool stagePool;
 
 
     public GenesisConductorService(
@@ -27,31 +47,187 @@ public class GenesisConductorService {
             LayoutModelFactory layoutModelFactory, LayoutManager layoutManager,
             PathFinder pathFinder,
             TimelineEnricher timelineEnricher,
-            TimelineFactory timelineFactory) {
+            TimelineFactory timelineFactory,
+            StylingService stylingService,
+            ChoreographyProperties properties) {
+        if (properties.getParallelism() < 1) {
+            throw new IllegalArgumentException("Choreography parallelism must be positive: " + properties.getParallelism());
+        }
         this.storyboardValidator = storyboardValidator;
         this.layoutModelFactory = layoutModelFactory;
         this.layoutManager = layoutManager;
         this.pathFinder = pathFinder;
         this.timelineEnricher = timelineEnricher;
         this.timelineFactory = timelineFactory;
+        this.stylingService = stylingService;
+        this.stagePool = properties.getMode() == ChoreographyProperties.ExecutionMode.STAGED
+            ? new ForkJoinPool(properties.getParallelism())
+            : null;
     }
 
     public FinalTimelineV1 choreograph(StoryboardV1 storyboard) {
-        storyboardValidator.validate(storyboard);
+        return choreographTimed(storyboard).timeline();
+    }
+
+    public TimedTimeline choreographTimed(StoryboardV1 storyboard) {
+        StageTimings.Recorder recorder = new StageTimings.Recorder();
+        FinalTimelineV1 timeline = stagePool == null
+            ? runSequential(storyboard, recorder)
+            : runStaged(storyboard, recorder);
+        StageTimings timings = recorder.finish();
+        log.debug("Choreographed {} commands in {} ms, {} ms of stage work: {}", storyboard.commands().size(),
+            timings.total().toMillis(), timings.sequential().toMillis(), timings.stages());
+        return new TimedTimeline(timeline, timings);
+    }
+
+    /**
+     * Validates eagerly, since a started stream cannot report an error through its status. Later failures go
+     * to {@link TimelineSink#error} before being rethrown.
+     */
+    public TimelineStream stream(StoryboardV1 storyboard) {
+        StageTimings.Recorder recorder = new StageTimings.Recorder();
+        StoryboardValidator.ValidationResult validation =
+            recorder.time(Step.VALIDATE, () -> storyboardValidator.validate(storyboard));
+        if (!validation.valid()) {
+            throw new IllegalArgumentException(validation.errorMessage());
+        }
+        return sink -> {
+            try {
+                runStreaming(storyboard, recorder, sink);
+            } catch (RuntimeException e) {
+                sink.error(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                throw e;
+            }
+            StageTimings timings = recorder.finish();
+            log.debug("Streamed {} commands in {} ms: {}", storyboard.commands().size(), timings.total().toMillis(),
+                timings.stages());
+            return timings;
+        };
+    }
+
+    @Override
+    public void close() {
+        if (stagePool != null) {
+            stagePool.shutdown();
+        }
+    }
+
+    private FinalTimelineV1 runSequential(StoryboardV1 storyboard, StageTimings.Recorder recorder) {
+        recorder.time(Step.VALIDATE, () -> {
+            storyboardValidator.validate(storyboard);
+            return null;
+        });
+
+        LayoutModelFactory.LayoutModelResult layoutModelResult =
+            recorder.time(Step.MODEL, () -> layoutModelFactory.createLayoutModel(storyboard));
+        List<TimingInfo> timings = recorder.time(Step.TIMING, () -> timelineEnricher.calculateTimings(storyboard));
+        List<PositionedNode> positionedNodes = recorder.time(Step.LAYOUT, () -> layout(layoutModelResult));
+        LayoutResult layoutResult = recorder.time(Step.ROUTE, () -> route(layoutModelResult, positionedNodes));
+
+        List<AnimationTrack> animationTracks = recorder.time(Step.TRACKS,
+            () -> timelineEnricher.enrichWithAnimations(storyboard, layoutResult, timings));
+        List<TimelineNode> nodes = recorder.time(Step.NODE_STYLE,
+            () -> stylingService.toTimelineNodes(layoutResult.nodes()));
+        List<TimelineEdge> edges = recorder.time(Step.EDGE_STYLE,
+            () -> stylingService.toTimelineEdges(layoutResult.edges()));
+
+        return recorder.time(Step.BUILD, () -> timelineFactory.createFrom(nodes, edges, animationTracks));
+    }
+
+    private FinalTimelineV1 runStaged(StoryboardV1 storyboard, StageTimings.Recorder recorder) {
+        recorder.time(Step.VALIDATE, () -> {
+            storyboardValidator.validate(storyboard);
+            return null;
+        });
 
-        LayoutModelFactory.LayoutModelResult layoutModelResult = layoutModelFactory.createLayoutModel(storyboard);
-        List<LayoutNode> layoutNodes = layoutModelResult.nodes();
-        List<LayoutEdge> layoutEdges = layoutModelResult.edges();
+        CompletableFuture<List<TimingInfo>> timings = CompletableFuture.supplyAsync(
+            () -> recorder.time(Step.TIMING, () -> timelineEnricher.calculateTimings(storyboard)), stagePool);
+        CompletableFuture<LayoutModelFactory.LayoutModelResult> model = CompletableFuture.supplyAsync(
+            () -> recorder.time(Step.MODEL, () -> layoutModelFactory.createLayoutModel(storyboard)), stagePool);
+        CompletableFuture<List<PositionedNode>> positionedNodes = model.thenApplyAsync(
+            result -> recorder.time(Step.LAYOUT, () -> layout(result)), stagePool);
 
+        CompletableFuture<List<TimelineNode>> nodes = positionedNodes.thenApplyAsync(
+            positioned -> recorder.time(Step.NODE_STYLE, () -> stylingService.toTimelineNodes(positioned)), stagePool);
+        CompletableFuture<LayoutResult> layoutResult = model.thenCombineAsync(positionedNodes,
+            (result, positioned) -> recorder.time(Step.ROUTE, () -> route(result, positioned)), stagePool);
+
+        CompletableFuture<List<TimelineEdge>> edges = layoutResult.thenApplyAsync(
+            result -> recorder.time(Step.EDGE_STYLE, () -> stylingService.toTimelineEdges(result.edges())), stagePool);
+        CompletableFuture<List<AnimationTrack>> animationTracks = layoutResult.thenCombineAsync(timings,
+            (result, timing) -> recorder.time(Step.TRACKS,
+                () -> timelineEnricher.enrichWithAnimations(storyboard, result, timing)), stagePool);
+
+        await(CompletableFuture.allOf(nodes, edges, animationTracks));
+        return recorder.time(Step.BUILD,
+            () -> timelineFactory.createFrom(nodes.join(), edges.join(), animationTracks.join()));
+    }
+
+    private void runStreaming(StoryboardV1 storyboard, StageTimings.Recorder recorder, TimelineSink sink)
+            throws IOException {
+        LayoutModelFactory.LayoutModelResult layoutModelResult =
+            recorder.time(Step.MODEL, () -> layoutModelFactory.createLayoutModel(storyboard));
+        List<TimingInfo> timings = recorder.time(Step.TIMING, () -> timelineEnricher.calculateTimings(storyboard));
+        List<PositionedNode> positionedNodes = recorder.time(Step.LAYOUT, () -> layout(layoutModelResult));
+        LayoutResult layoutResult = recorder.time(Step.ROUTE, () -> route(layoutModelResult, positionedNodes));
+        List<TimelineNode> nodes = recorder.time(Step.NODE_STYLE,
+            () -> stylingService.toTimelineNodes(layoutResult.nodes()));
+        List<TimelineEdge> edges = recorder.time(Step.EDGE_STYLE,
+            () -> stylingService.toTimelineEdges(layoutResult.edges()));
+
+        sink.begin(FinalTimelineV1.CURRENT_VERSION, timelineFactory.stage(), nodes, edges);
+        try {
+            recorder.time(Step.TRACKS, () -> {
+                timelineEnricher.streamAnimations(storyboard, layoutResult, timings, track -> {
+                    try {
+                        sink.track(track);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        sink.end();
+    }
+
+    private List<PositionedNode> layout(LayoutModelFactory.LayoutModelResult layoutModelResult) {
         LayoutConstraints constraints = new LayoutConstraints(1280, 720);
-        List<PositionedNode> positionedNodes = layoutManager.layout(layoutNodes, layoutEdges, constraints);
+        return layoutManager.layout(layoutModelResult.graph(), layoutModelResult.nodes(), layoutModelResult.edges(),
+            constraints);
+    }
 
-        List<RoutedEdge> routedEdges = pathFinder.routeEdges(layoutEdges, positionedNodes, constraints);
-        LayoutResult layoutResult = new LayoutResult(positionedNodes, routedEdges);
+    private LayoutResult route(LayoutModelFactory.LayoutModelResult layoutModelResult,
+                               List<PositionedNode> positionedNodes) {
+        LayoutConstraints constraints = new LayoutConstraints(1280, 720);
+        EntityGraph graph = layoutModelResult.graph();
+        List<RoutedEdge> routedEdges = pathFinder.routeEdges(graph, layoutModelResult.edges(), positionedNodes,
+            constraints);
+        return new LayoutResult(positionedNodes, routedEdges, graph);
+    }
 
-        List<AnimationTrack> animationTracks = timelineEnricher.enrichWithAnimations(storyboard, layoutResult);
+    /** Rethrows the failure as it was thrown, so both modes surface the same exceptions. */
+    private static void await(CompletableFuture<?> stage) {
+        try {
+            stage.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 
-        return timelineFactory.createFrom(layoutResult, animationTracks);
+    public record TimedTimeline(FinalTimelineV1 timeline, StageTimings timings) {}
+
+    @FunctionalInterface
+    public interface TimelineStream {
+
+        StageTimings writeTo(TimelineSink sink) throws IOException;
     }
 }
-
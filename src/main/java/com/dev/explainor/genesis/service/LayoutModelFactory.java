@@ -2,6 +2,7 @@ package com.dev.explainor.genesis.service;
 
 import com.dev.explainor.genesis.domain.*;
 import com.dev.explainor.genesis.dto.StoryboardV1;
+import com.dev.explainor.genesis.layout.model.EntityGraph;
 import com.dev.explainor.genesis.layout.model.LayoutEdge;
 import com.dev.explainor.genesis.layout.model.LayoutNode;
 import org.springframework.stereotype.Component;
@@ -35,8 +36,9 @@ public class LayoutModelFactory {
                 case PauseCommand pauseCmd -> {}
             }
         }
-        return new LayoutModelResult(new ArrayList<>(nodes), edges);
+        List<LayoutNode> nodeList = new ArrayList<>(nodes);
+        return new LayoutModelResult(nodeList, edges, EntityGraph.of(nodeList, edges));
     }
 
-    public record LayoutModelResult(List<LayoutNode> nodes, List<LayoutEdge> edges) {}
+    public record LayoutModelResult(List<LayoutNode> nodes, List<LayoutEdge> edges, EntityGraph graph) {}
 }
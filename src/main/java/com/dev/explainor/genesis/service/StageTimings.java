@@ -0,0 +1,66 @@
+package com.dev.explainor.genesis.service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/** In staged mode stages overlap, so {@link #saved()} is the time gained over running them in sequence. */
+public record StageTimings(Map<Step, Duration> stages, Duration total) {
+
+    public StageTimings {
+        Map<Step, Duration> copy = new EnumMap<>(Step.class);
+        copy.putAll(stages);
+        stages = Collections.unmodifiableMap(copy);
+    }
+
+    public Duration stage(Step step) {
+        return stages.getOrDefault(step, Duration.ZERO);
+    }
+
+    public Duration sequential() {
+        return stages.values().stream().reduce(Duration.ZERO, Duration::plus);
+    }
+
+    public Duration saved() {
+        Duration saved = sequential().minus(total);
+        return saved.isNegative() ? Duration.ZERO : saved;
+    }
+
+    public enum Step {
+        VALIDATE,
+        MODEL,
+        TIMING,
+        LAYOUT,
+        ROUTE,
+        NODE_STYLE,
+        EDGE_STYLE,
+        TRACKS,
+        BUILD
+    }
+
+    static final class Recorder {
+
+        private final long start = System.nanoTime();
+        private final AtomicLongArray nanos = new AtomicLongArray(Step.values().length);
+
+        <T> T time(Step step, Supplier<T> work) {
+            long begin = System.nanoTime();
+            try {
+                return work.get();
+            } finally {
+                nanos.addAndGet(step.ordinal(), System.nanoTime() - begin);
+            }
+        }
+
+        StageTimings finish() {
+            Map<Step, Duration> stages = new EnumMap<>(Step.class);
+            for (Step step : Step.values()) {
+                stages.put(step, Duration.ofNanos(nanos.get(step.ordinal())));
+            }
+            return new StageTimings(stages, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.dev.explainor.genesis.service;
 
+import com.dev.explainor.genesis.config.ChoreographyProperties;
 import com.dev.explainor.genesis.domain.Command;
 import com.dev.explainor.genesis.dto.AnimationTrack;
 import com.dev.explainor.genesis.dto.StoryboardV1;
@@ -11,35 +12,140 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
+/** Timings come from one sequential pass; tracks of consecutive command chunks are then built in parallel. */
 @Component
-public class TimelineEnricher {
+public class TimelineEnricher implements AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(TimelineEnricher.class);
+    private static final int PARALLEL_THRESHOLD = 256;
+    private static final int CHUNK_SIZE = 128;
     private final TimingProvider timingProvider;
     private final AnimationTrackFactory animationTrackFactory;
+    private final ForkJoinPool trackPool;
 
     public TimelineEnricher(
             TimingProvider timingProvider, 
-            AnimationTrackFactory animationTrackFactory) {
+            AnimationTrackFactory animationTrackFactory,
+            ChoreographyProperties properties) {
         this.timingProvider = timingProvider;
         this.animationTrackFactory = animationTrackFactory;
+        int parallelism = properties.getTrackParallelism();
+        this.trackPool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
     }
 
     public List<AnimationTrack> enrichWithAnimations(StoryboardV1 storyboard, LayoutResult layoutResult) {
-        List<AnimationTrack> tracks = new ArrayList<>();
+        return enrichWithAnimations(storyboard, layoutResult, calculateTimings(storyboard));
+    }
+
+    /** Timings never depend on the layout, so they can run alongside it. */
+    public List<TimingInfo> calculateTimings(StoryboardV1 storyboard) {
+        List<TimingInfo> timings = new ArrayList<>(storyboard.commands().size());
         TimelineContext context = TimelineContext.initial();
-        
+
         for (Command command : storyboard.commands()) {
             TimingInfo timing = timingProvider.calculateTiming(command, context);
-            
-            tracks.addAll(animationTrackFactory.createTracks(command, timing, layoutResult));
+            timings.add(timing);
             context.advance(timing.duration());
             context.incrementIndex();
         }
-        
+        return timings;
+    }
+
+    public List<AnimationTrack> enrichWithAnimations(StoryboardV1 storyboard, LayoutResult layoutResult,
+                                                     List<TimingInfo> timings) {
+        List<Command> commands = storyboard.commands();
+        List<AnimationTrack> tracks;
+        if (trackPool != null && commands.size() >= PARALLEL_THRESHOLD) {
+            List<Callable<List<AnimationTrack>>> tasks = new ArrayList<>();
+            for (int from = 0; from < commands.size(); from += CHUNK_SIZE) {
+                int start = from;
+                int end = Math.min(from + CHUNK_SIZE, commands.size());
+                tasks.add(() -> createTracks(commands, timings, layoutResult, start, end));
+            }
+            tracks = new ArrayList<>();
+            for (Future<List<AnimationTrack>> future : trackPool.invokeAll(tasks)) {
+                tracks.addAll(awaitTracks(future));
+            }
+        } else {
+            tracks = createTracks(commands, timings, layoutResult, 0, commands.size());
+        }
+
         log.info("Generated {} animation tracks", tracks.size());
         return tracks;
     }
+
+    /** Only as many chunks as the pool has threads are built ahead, so memory is bounded by that window. */
+    public void streamAnimations(StoryboardV1 storyboard, LayoutResult layoutResult, List<TimingInfo> timings,
+                                 Consumer<AnimationTrack> sink) {
+        List<Command> commands = storyboard.commands();
+        int count = 0;
+        if (trackPool != null && commands.size() >= PARALLEL_THRESHOLD) {
+            Deque<Future<List<AnimationTrack>>> window = new ArrayDeque<>();
+            try {
+                for (int from = 0; from < commands.size(); from += CHUNK_SIZE) {
+                    int start = from;
+                    int end = Math.min(from + CHUNK_SIZE, commands.size());
+                    window.add(trackPool.submit(() -> createTracks(commands, timings, layoutResult, start, end)));
+                    if (window.size() > trackPool.getParallelism()) {
+                        count += emit(awaitTracks(window.poll()), sink);
+                    }
+                }
+                while (!window.isEmpty()) {
+                    count += emit(awaitTracks(window.poll()), sink);
+                }
+            } finally {
+                window.forEach(future -> future.cancel(true));
+            }
+        } else {
+            for (int i = 0; i < commands.size(); i++) {
+                count += emit(animationTrackFactory.createTracks(commands.get(i), timings.get(i), layoutResult), sink);
+            }
+        }
+
+        log.info("Streamed {} animation tracks", count);
+    }
+
+    @Override
+    public void close() {
+        if (trackPool != null) {
+            trackPool.shutdown();
+        }
+    }
+
+    private List<AnimationTrack> createTracks(List<Command> commands, List<TimingInfo> timings,
+                                              LayoutResult layoutResult, int from, int to) {
+        List<AnimationTrack> tracks = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            tracks.addAll(animationTrackFactory.createTracks(commands.get(i), timings.get(i), layoutResult));
+        }
+        return tracks;
+    }
+
+    private static int emit(List<AnimationTrack> tracks, Consumer<AnimationTrack> sink) {
+        tracks.forEach(sink);
+        return tracks.size();
+    }
+
+    private List<AnimationTrack> awaitTracks(Future<List<AnimationTrack>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Track generation was interrupted", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Track generation failed", exception.getCause());
+        }
+    }
 }
@@ -21,14 +21,22 @@ public class TimelineFactory {
     }
 
     public FinalTimelineV1 createFrom(LayoutResult layoutResult, List<AnimationTrack> animationTracks) {
-        Stage stage = new Stage(
-            DEFAULT_CANVAS_WIDTH,
-            DEFAULT_CANVAS_HEIGHT
-        );
-
         List<com.dev.explainor.genesis.dto.TimelineNode> nodes = stylingService.toTimelineNodes(layoutResult.nodes());
         List<com.dev.explainor.genesis.dto.TimelineEdge> edges = stylingService.toTimelineEdges(layoutResult.edges());
 
-        return FinalTimelineV1.create(stage, nodes, edges, animationTracks);
+        return createFrom(nodes, edges, animationTracks);
+    }
+
+    public FinalTimelineV1 createFrom(List<com.dev.explainor.genesis.dto.TimelineNode> nodes,
+                                      List<com.dev.explainor.genesis.dto.TimelineEdge> edges,
+                                      List<AnimationTrack> animationTracks) {
+        return FinalTimelineV1.create(stage(), nodes, edges, animationTracks);
+    }
+
+    public Stage stage() {
+        return new Stage(
+            DEFAULT_CANVAS_WIDTH,
+            DEFAULT_CANVAS_HEIGHT
+        );
     }
 }
@@ -0,0 +1,21 @@
+package com.dev.explainor.genesis.service;
+
+import com.dev.explainor.genesis.dto.AnimationTrack;
+import com.dev.explainor.genesis.dto.Stage;
+import com.dev.explainor.genesis.dto.TimelineEdge;
+import com.dev.explainor.genesis.dto.TimelineNode;
+
+import java.io.IOException;
+import java.util.List;
+
+/** {@link #begin}, then {@link #track} per track, then exactly one of {@link #end} or {@link #error}. */
+public interface TimelineSink {
+
+    void begin(String version, Stage stage, List<TimelineNode> nodes, List<TimelineEdge> edges) throws IOException;
+
+    void track(AnimationTrack track) throws IOException;
+
+    void end() throws IOException;
+
+    void error(String message) throws IOException;
+}
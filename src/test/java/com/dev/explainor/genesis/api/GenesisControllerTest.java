@@ -1,13 +1,16 @@
-/*
 package com.dev.explainor.genesis.api;
 
 import com.dev.explainor.genesis.domain.*;
 import com.dev.explainor.genesis.dto.*;
+import com.dev.explainor.genesis.config.TimelineEncodingProperties;
+import com.dev.explainor.genesis.service.CompactTimelineEncoder;
 import com.dev.explainor.genesis.service.GenesisConductorService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,10 +21,12 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(GenesisController.class)
+@Import({CompactTimelineEncoder.class, TimelineEncodingProperties.class})
 class GenesisControllerTest {
 
     @Autowired
@@ -40,7 +45,7 @@ class GenesisControllerTest {
         ));
 
         FinalTimelineV1 expectedTimeline = new FinalTimelineV1(
-            "1.1.0",
+            "1.2.0",
             new Stage(1280, 720),
             List.of(new TimelineNode("entity1", "Label", "icon", 0.0, 0.0, VisualStyle.defaultNodeStyle())),
             List.of(),
@@ -54,7 +59,7 @@ class GenesisControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(storyboard)))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$.version").value("1.1.0"))
+            .andExpect(jsonPath("$.version").value("1.2.0"))
             .andExpect(jsonPath("$.stage.width").value(1280))
             .andExpect(jsonPath("$.stage.height").value(720))
             .andExpect(jsonPath("$.nodes").isArray())
@@ -109,7 +114,7 @@ class GenesisControllerTest {
     @Test
     void shouldReturnBadRequestForInvalidStoryboard() throws Exception {
         StoryboardV1 storyboard = new StoryboardV1("1.0.0", List.of(
-            new ConnectEntitiesCommand("conn1", new ConnectEntitiesParams("nonexistent1", "nonexistent2", null, null))
+            new ConnectEntitiesCommand("conn1", new ConnectEntitiesParams("nonexistent1", "nonexistent2", null, null, null, null))
         ));
 
         when(conductorService.choreograph(any(StoryboardV1.class)))
@@ -127,12 +132,12 @@ class GenesisControllerTest {
         StoryboardV1 storyboard = new StoryboardV1("1.0.0", List.of(
             new CreateEntityCommand("client", new CreateEntityParams("Client", "computer", null, null)),
             new CreateEntityCommand("server", new CreateEntityParams("Server", "server", null, null)),
-            new ConnectEntitiesCommand("conn1", new ConnectEntitiesParams("client", "server", "HTTP", null)),
+            new ConnectEntitiesCommand("conn1", new ConnectEntitiesParams("client", "server", "HTTP", null, null, null)),
             new PauseCommand("pause1", new PauseParams(1.0))
         ));
 
         FinalTimelineV1 expectedTimeline = new FinalTimelineV1(
-            "1.1.0",
+            "1.2.0",
             new Stage(1280, 720),
             List.of(
                 new TimelineNode("client", "Client", "computer", -100.0, 0.0, VisualStyle.defaultNodeStyle()),
@@ -158,13 +163,44 @@ class GenesisControllerTest {
             .andExpect(jsonPath("$.edges[0].label").value("HTTP"));
     }
 
+    @Test
+    void shouldVaryByEncodingForTheFullTimeline() throws Exception {
+        when(conductorService.choreograph(any(StoryboardV1.class)))
+            .thenReturn(singleNodeTimeline());
+
+        mockMvc.perform(post("/api/genesis/choreograph")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(singleNodeStoryboard())))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.VARY, TimelineEncoding.HEADER))
+            .andExpect(header().string(TimelineEncoding.HEADER, "full"))
+            .andExpect(jsonPath("$.nodes[0].visualStyle").exists());
+    }
+
+    @Test
+    void shouldVaryByEncodingForTheCompactTimeline() throws Exception {
+        when(conductorService.choreograph(any(StoryboardV1.class)))
+            .thenReturn(singleNodeTimeline());
+
+        mockMvc.perform(post("/api/genesis/choreograph")
+                .header(TimelineEncoding.HEADER, "compact")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(singleNodeStoryboard())))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.VARY, TimelineEncoding.HEADER))
+            .andExpect(header().string(TimelineEncoding.HEADER, "compact"))
+            .andExpect(jsonPath("$.encoding").value("compact"))
+            .andExpect(jsonPath("$.nodes[0].style").value("n0"))
+            .andExpect(jsonPath("$.nodes[0].x").value(10.0));
+    }
+
     @Test
     void shouldReturnHealthStatus() throws Exception {
         mockMvc.perform(get("/api/genesis/health"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.status").value("ok"))
             .andExpect(jsonPath("$.storyboardVersion").value("1.0.0"))
-            .andExpect(jsonPath("$.timelineVersion").value("1.1.0"));
+            .andExpect(jsonPath("$.timelineVersion").value("1.2.0"));
     }
 
     @Test
@@ -187,7 +223,7 @@ class GenesisControllerTest {
         StoryboardV1 storyboard = new StoryboardV1("1.0.0", List.of());
 
         FinalTimelineV1 expectedTimeline = new FinalTimelineV1(
-            "1.1.0",
+            "1.2.0",
             new Stage(1280, 720),
             List.of(),
             List.of(),
@@ -221,6 +257,20 @@ class GenesisControllerTest {
                 .content("{ \"version\": \"1.0.0\", \"commands\": null ")) // Malformed JSON (missing closing brace)
             .andExpect(status().isBadRequest());
     }
-}
-*/
 
+    private StoryboardV1 singleNodeStoryboard() {
+        return new StoryboardV1("1.0.0", List.of(
+            new CreateEntityCommand("entity1", new CreateEntityParams("Label", "icon", null, null))
+        ));
+    }
+
+    private FinalTimelineV1 singleNodeTimeline() {
+        return new FinalTimelineV1(
+            "1.2.0",
+            new Stage(1280, 720),
+            List.of(new TimelineNode("entity1", "Label", "icon", 10.004, 0.0, VisualStyle.defaultNodeStyle())),
+            List.of(),
+            List.of()
+        );
+    }
+}
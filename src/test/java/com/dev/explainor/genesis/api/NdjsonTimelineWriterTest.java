@@ -0,0 +1,164 @@
+package com.dev.explainor.genesis.api;
+
+import com.dev.explainor.genesis.domain.CreateEntityCommand;
+import com.dev.explainor.genesis.domain.CreateEntityParams;
+import com.dev.explainor.genesis.config.ChoreographyProperties;
+import com.dev.explainor.genesis.domain.Command;
+import com.dev.explainor.genesis.dto.AnimationTrack;
+import com.dev.explainor.genesis.dto.FinalTimelineV1;
+import com.dev.explainor.genesis.dto.StoryboardV1;
+import com.dev.explainor.genesis.layout.LayoutManager;
+import com.dev.explainor.genesis.layout.PathFinder;
+import com.dev.explainor.genesis.layout.model.LayoutResult;
+import com.dev.explainor.genesis.service.AnimationTrackFactory;
+import com.dev.explainor.genesis.service.GenesisConductorService;
+import com.dev.explainor.genesis.service.LayoutModelFactory;
+import com.dev.explainor.genesis.service.StageTimings;
+import com.dev.explainor.genesis.service.StylingService;
+import com.dev.explainor.genesis.service.TimelineEnricher;
+import com.dev.explainor.genesis.service.TimelineFactory;
+import com.dev.explainor.genesis.timing.DefaultTimingProvider;
+import com.dev.explainor.genesis.timing.TimingInfo;
+import com.dev.explainor.genesis.validation.StoryboardValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "anthropic.api.key=test-key",
+    "renderer.url=http://localhost:3030"
+})
+class NdjsonTimelineWriterTest {
+
+    @Autowired
+    private GenesisConductorService conductorService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private StoryboardValidator storyboardValidator;
+    @Autowired
+    private LayoutModelFactory layoutModelFactory;
+    @Autowired
+    private LayoutManager layoutManager;
+    @Autowired
+    private PathFinder pathFinder;
+    @Autowired
+    private TimelineFactory timelineFactory;
+    @Autowired
+    private StylingService stylingService;
+
+    @Test
+    void streamsTheSameTimelineLineByLine() throws IOException {
+        StoryboardV1 storyboard = loadStoryboard("/test-stage4.storyboard.json");
+        FinalTimelineV1 timeline = conductorService.choreograph(storyboard);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StageTimings timings;
+        try (NdjsonTimelineWriter writer = new NdjsonTimelineWriter(objectMapper, out)) {
+            timings = conductorService.stream(storyboard).writeTo(writer);
+        }
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(timeline.nodes().size() + timeline.edges().size() + timeline.tracks().size() + 2, lines.size());
+        ObjectNode rebuilt = objectMapper.createObjectNode();
+        ArrayNode nodes = objectMapper.createArrayNode();
+        ArrayNode edges = objectMapper.createArrayNode();
+        ArrayNode tracks = objectMapper.createArrayNode();
+        for (String line : lines) {
+            JsonNode json = objectMapper.readTree(line);
+            switch (json.get("type").asText()) {
+                case "header" -> {
+                    rebuilt.set("version", json.get("version"));
+                    rebuilt.set("stage", json.get("stage"));
+                }
+                case "node" -> nodes.add(json.get("node"));
+                case "edge" -> edges.add(json.get("edge"));
+                case "track" -> tracks.add(json.get("track"));
+                case "end" -> assertEquals(timeline.tracks().size(), json.get("tracks").asInt());
+                default -> fail("Unexpected line: " + line);
+            }
+        }
+        rebuilt.set("nodes", nodes);
+        rebuilt.set("edges", edges);
+        rebuilt.set("tracks", tracks);
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(timeline)), rebuilt);
+        List<String> types = new ArrayList<>();
+        types.add("header");
+        timeline.nodes().forEach(node -> types.add("node"));
+        timeline.edges().forEach(edge -> types.add("edge"));
+        timeline.tracks().forEach(track -> types.add("track"));
+        types.add("end");
+        for (int i = 0; i < lines.size(); i++) {
+            assertTrue(lines.get(i).startsWith("{\"type\":\"" + types.get(i) + "\""), lines.get(i));
+        }
+        assertTrue(timings.stage(StageTimings.Step.TRACKS).toNanos() > 0);
+    }
+
+    @Test
+    void endsWithAnErrorRecordWhenChoreographyFailsMidStream() throws IOException {
+        StoryboardV1 storyboard = loadStoryboard("/test-stage4.storyboard.json");
+        AnimationTrackFactory failing = new AnimationTrackFactory() {
+            private int calls;
+
+            @Override
+            public List<AnimationTrack> createTracks(Command command, TimingInfo timing, LayoutResult layoutResult) {
+                if (++calls == 3) {
+                    throw new IllegalStateException("Track generation broke");
+                }
+                return super.createTracks(command, timing, layoutResult);
+            }
+        };
+        ChoreographyProperties properties = new ChoreographyProperties();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (TimelineEnricher enricher = new TimelineEnricher(new DefaultTimingProvider(), failing, properties);
+             GenesisConductorService service = new GenesisConductorService(storyboardValidator, layoutModelFactory,
+                 layoutManager, pathFinder, enricher, timelineFactory, stylingService, properties);
+             NdjsonTimelineWriter writer = new NdjsonTimelineWriter(objectMapper, out)) {
+            GenesisConductorService.TimelineStream stream = service.stream(storyboard);
+            assertThrows(IllegalStateException.class, () -> stream.writeTo(writer));
+        }
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertTrue(lines.get(0).startsWith("{\"type\":\"header\""), lines.get(0));
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"type\":\""), line);
+            assertFalse(line.startsWith("{\"type\":\"end\""), line);
+        }
+        String last = lines.get(lines.size() - 1);
+        assertTrue(last.startsWith("{\"type\":\"error\""), last);
+        assertEquals("Track generation broke", objectMapper.readTree(last).get("message").asText());
+    }
+
+    @Test
+    void rejectsAnInvalidStoryboardBeforeWriting() {
+        StoryboardV1 storyboard = StoryboardV1.create(List.of(
+            new CreateEntityCommand("a", new CreateEntityParams("A", "server", null, null)),
+            new CreateEntityCommand("a", new CreateEntityParams("B", "server", null, null))));
+
+        assertThrows(IllegalArgumentException.class, () -> conductorService.stream(storyboard));
+    }
+
+    private StoryboardV1 loadStoryboard(String resourcePath) throws IOException {
+        try (InputStream is = getClass().getResourceAsStream(resourcePath)) {
+            assertNotNull(is, "Resource not found: " + resourcePath);
+            return objectMapper.readValue(is, StoryboardV1.class);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.dev.explainor.genesis.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentBufferTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void serializesLikeAListOfSegments() throws Exception {
+        List<AnimationSegment> segments = new ArrayList<>();
+        segments.add(AnimationSegment.opacity(0.0, 0.2, "easeInOutQuint"));
+        segments.add(AnimationSegment.position(0.2, 1.1, "linear", 10.0, 20.5, 30.0, -4.25));
+        segments.add(AnimationSegment.scale(1.1, 2.0, "easeInOutQuad", 1.0, 1.02));
+        segments.add(AnimationSegment.cameraPosition(2.0, 3.5, null, 640.0, 360.0, 800.0, 400.0));
+        segments.add(AnimationSegment.zoom(2.0, 3.5, "easeInOutCubic", 1.0, 1.5));
+        segments.add(AnimationSegment.speed(2.0, 3.5, "easeInOutCubic", 1.0, 0.5));
+
+        SegmentBuffer buffer = SegmentBuffer.of(segments);
+
+        assertEquals(objectMapper.writeValueAsString(segments), objectMapper.writeValueAsString(buffer));
+        assertEquals(segments, buffer);
+        assertEquals(segments.get(1), buffer.get(1));
+    }
+
+    @Test
+    void packsTypedAppendsAndInternsEasings() {
+        SegmentBuffer buffer = new SegmentBuffer(1);
+        for (int i = 0; i < 100; i++) {
+            buffer.addPosition(i, i + 1, i % 2 == 0 ? "linear" : "easeInOutQuint", i, i, i + 1, i + 1);
+        }
+
+        assertEquals(100, buffer.size());
+        assertEquals(SegmentBuffer.Property.POSITION, buffer.property(99));
+        assertEquals("easeInOutQuint", buffer.easing(99));
+        assertEquals(new AnimationSegment.PositionValue(99, 99), buffer.get(99).fromValue());
+        assertThrows(IllegalArgumentException.class,
+            () -> buffer.add(AnimationSegment.of(0, 1, "position", 0.0, 1.0, "linear")));
+    }
+
+    @Test
+    void writesParametricKindsInPlaceOfExpandedSegments() throws Exception {
+        SegmentBuffer cycle = new SegmentBuffer(2)
+            .addScale(0.0, 2.25, "easeInOutQuad", 1.0, 1.02)
+            .addScale(2.25, 4.5, "easeInOutQuad", 1.02, 1.0);
+        SegmentBuffer buffer = new SegmentBuffer()
+            .addArc(0.0, 3.0, "linear", 640.0, 360.0, 80.0, 0.0, Math.PI, 30)
+            .addPath(3.0, 4.0, "linear", new double[]{0.0, 30.0, 30.0}, new double[]{0.0, 0.0, 40.0})
+            .addRepeat(4.0, 13.0, 4.5, cycle);
+
+        String json = objectMapper.writeValueAsString(buffer);
+
+        assertEquals("[{\"t0\":0.0,\"t1\":3.0,\"property\":\"position\",\"kind\":\"arc\","
+            + "\"center\":{\"x\":640.0,\"y\":360.0},\"radius\":80.0,\"startAngle\":0.0,"
+            + "\"endAngle\":3.141592653589793,\"steps\":30,\"easing\":\"linear\"},"
+            + "{\"t0\":3.0,\"t1\":4.0,\"property\":\"position\",\"kind\":\"path\","
+            + "\"points\":[{\"x\":0.0,\"y\":0.0},{\"x\":30.0,\"y\":0.0},{\"x\":30.0,\"y\":40.0}],"
+            + "\"lengths\":[0.0,30.0,70.0],\"easing\":\"linear\"},"
+            + "{\"t0\":4.0,\"t1\":13.0,\"property\":\"scale\",\"kind\":\"repeat\",\"period\":4.5,"
+            + "\"segments\":" + objectMapper.writeValueAsString(cycle) + "}]", json);
+
+        AnimationSegment.PositionValue arcEnd = (AnimationSegment.PositionValue) buffer.get(0).toValue();
+        assertEquals(560.0, arcEnd.x(), 1e-9);
+        assertEquals(360.0, arcEnd.y(), 1e-9);
+        assertEquals(List.of(0.0, 30.0, 70.0), ((AnimationSegment.Path) buffer.get(1).motion()).lengths());
+        assertEquals(buffer, SegmentBuffer.of(new ArrayList<>(buffer)));
+    }
+
+    @Test
+    void quantizedCopyRoundsEverythingButArcAngles() {
+        SegmentBuffer cycle = new SegmentBuffer(1).addScale(0.0, 2.2549, "easeInOutQuad", 1.0, 1.0249);
+        SegmentBuffer buffer = new SegmentBuffer()
+            .addPosition(0.1234, 1.0051, "linear", 10.004, 20.005, 30.0149, 40.0)
+            .addArc(0.0, 3.0, "linear", 640.123, 360.456, 80.789, 0.0, 2 * Math.PI, 60)
+            .addPath(3.0, 4.0, "linear", new double[]{0.0, 1.0 / 3}, new double[]{0.0, 0.0})
+            .addRepeat(4.0, 13.0, 4.5049, cycle);
+
+        SegmentBuffer quantized = buffer.quantized(2);
+
+        assertEquals(0.12, quantized.startTime(0));
+        assertEquals(1.01, quantized.endTime(0));
+        assertEquals(AnimationSegment.position(0.12, 1.01, "linear", 10.0, 20.01, 30.01, 40.0), quantized.get(0));
+        AnimationSegment.Arc arc = (AnimationSegment.Arc) quantized.get(1).motion();
+        assertEquals(new AnimationSegment.PositionValue(640.12, 360.46), arc.center());
+        assertEquals(80.79, arc.radius());
+        assertEquals(2 * Math.PI, arc.endAngle());
+        assertEquals(60, arc.steps());
+        AnimationSegment.Path path = (AnimationSegment.Path) quantized.get(2).motion();
+        assertEquals(new AnimationSegment.PositionValue(0.33, 0.0), path.points().get(1));
+        AnimationSegment.Repeat repeat = (AnimationSegment.Repeat) quantized.get(3).motion();
+        assertEquals(4.5, repeat.period());
+        assertEquals(AnimationSegment.scale(0.0, 2.25, "easeInOutQuad", 1.0, 1.02), repeat.segments().get(0));
+        assertEquals(0.1234, buffer.startTime(0));
+    }
+}
@@ -0,0 +1,68 @@
+package com.dev.explainor.genesis.layout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnytimePathSolverTest {
+
+    @Test
+    void shouldMatchAStarWithoutDeadline() {
+        Random random = new Random(5);
+        IndexedAStarPathSolver aStar = new IndexedAStarPathSolver(8, 100000);
+        AnytimePathSolver anytime = new AnytimePathSolver(8, 100000);
+
+        for (int round = 0; round < 300; round++) {
+            OccupancyGrid grid = JumpPointSearchSolverTest.randomObstacles(random, 0.25);
+            GridPoint start = new GridPoint(random.nextInt(40), random.nextInt(25));
+            GridPoint goal = new GridPoint(random.nextInt(40), random.nextInt(25));
+
+            SearchResult expected = aStar.search(start, goal, grid);
+            SearchResult actual = anytime.search(start, goal, grid);
+
+            assertEquals(expected, actual, "Route from " + start + " to " + goal);
+        }
+    }
+
+    @Test
+    void shouldReachOptimalRoutesWhenDeadlineAllowsAllPasses() {
+        Random random = new Random(7);
+        IndexedAStarPathSolver aStar = new IndexedAStarPathSolver(8, 100000);
+        AnytimePathSolver anytime = new AnytimePathSolver(8, 100000);
+        long deadline = System.nanoTime() + 60_000_000_000L;
+
+        for (int round = 0; round < 300; round++) {
+            OccupancyGrid grid = JumpPointSearchSolverTest.randomObstacles(random, 0.25);
+            GridPoint start = new GridPoint(random.nextInt(40), random.nextInt(25));
+            GridPoint goal = new GridPoint(random.nextInt(40), random.nextInt(25));
+
+            SearchResult expected = aStar.search(start, goal, grid);
+            SearchResult actual = anytime.search(start, goal, grid, deadline);
+
+            assertEquals(expected.found(), actual.found(), "Reachability from " + start + " to " + goal);
+            if (actual.found()) {
+                assertEquals(1.0, actual.suboptimalityBound());
+                assertEquals(JumpPointSearchSolverTest.routeLength(expected.path()), JumpPointSearchSolverTest.routeLength(actual.path()));
+                JumpPointSearchSolverTest.assertRouteIsOrthogonalAndFree(actual.path(), grid, start, goal);
+            }
+        }
+    }
+
+    @Test
+    void shouldFallBackToStraightLineWhenDeadlineHasPassed() {
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(0, 0, 99, 99));
+        GridPoint start = new GridPoint(5, 5);
+        GridPoint goal = new GridPoint(90, 80);
+
+        SearchResult result = new AnytimePathSolver(50, 100000).search(start, goal, grid, System.nanoTime() - 1);
+
+        assertFalse(result.found());
+        assertTrue(Double.isInfinite(result.suboptimalityBound()));
+        assertEquals(List.of(start, goal), result.path());
+    }
+}
@@ -0,0 +1,52 @@
+package com.dev.explainor.genesis.layout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BidirectionalAStarPathSolverTest {
+
+    @Test
+    void shouldFindRoutesAsShortAsAStar() {
+        Random random = new Random(12);
+        IndexedAStarPathSolver aStar = new IndexedAStarPathSolver(8, 100000);
+        BidirectionalAStarPathSolver bidirectional = new BidirectionalAStarPathSolver(8, 100000);
+
+        for (int round = 0; round < 500; round++) {
+            OccupancyGrid grid = JumpPointSearchSolverTest.randomObstacles(random, 0.3);
+            GridPoint start = new GridPoint(random.nextInt(40), random.nextInt(25));
+            GridPoint goal = new GridPoint(random.nextInt(40), random.nextInt(25));
+
+            SearchResult expected = aStar.search(start, goal, grid);
+            SearchResult actual = bidirectional.search(start, goal, grid);
+
+            assertEquals(expected.found(), actual.found(), "Reachability from " + start + " to " + goal);
+            if (actual.found()) {
+                assertEquals(JumpPointSearchSolverTest.routeLength(expected.path()), JumpPointSearchSolverTest.routeLength(actual.path()),
+                    "Route length from " + start + " to " + goal);
+                JumpPointSearchSolverTest.assertRouteIsOrthogonalAndFree(actual.path(), grid, start, goal);
+            } else {
+                assertEquals(List.of(start, goal), actual.path());
+            }
+        }
+    }
+
+    @Test
+    void shouldExpandFewerCellsOnALongDiagonalRoute() {
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(0, 0, 199, 99));
+        GridPoint start = new GridPoint(10, 10);
+        GridPoint goal = new GridPoint(190, 90);
+
+        SearchResult expected = new IndexedAStarPathSolver(50, 100000).search(start, goal, grid);
+        SearchResult actual = new BidirectionalAStarPathSolver(50, 100000).search(start, goal, grid);
+
+        assertTrue(actual.found());
+        assertEquals(JumpPointSearchSolverTest.routeLength(expected.path()), JumpPointSearchSolverTest.routeLength(actual.path()));
+        assertTrue(actual.expandedNodes() < expected.expandedNodes(),
+            "Expanded " + actual.expandedNodes() + " cells, A* expanded " + expected.expandedNodes());
+    }
+}
@@ -0,0 +1,59 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.LayoutProperties.OrderingType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BrandesKoepfTest {
+
+    @Test
+    void shouldKeepChainsAndLongEdgesVertical() {
+        int[] levels = {0, 1, 2, 3, 1};
+        int[] sources = {0, 1, 2, 0};
+        int[] targets = {1, 2, 3, 4};
+
+        LayerOrdering.Result layered = LayerOrdering.order(levels, sources, targets, OrderingType.BARYCENTER, 12);
+        double[] xs = BrandesKoepf.assign(layered.layers(), layered.realCount(), layered.segmentUpper(),
+            layered.segmentLower(), 220, 110);
+
+        assertEquals(xs[1], xs[2], 1e-9);
+        assertEquals(xs[2], xs[3], 1e-9);
+        assertTrue(Math.abs(xs[4] - xs[1]) >= 220 - 1e-9);
+        assertTrue(xs[0] > Math.min(xs[1], xs[4]) && xs[0] < Math.max(xs[1], xs[4]), "root between its children");
+    }
+
+    @Test
+    void shouldKeepLayerOrderAndSeparationOnRandomGraphs() {
+        Random random = new Random(18);
+        for (int round = 0; round < 200; round++) {
+            int nodeCount = 2 + random.nextInt(40);
+            int[] levels = new int[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                levels[node] = random.nextInt(6);
+            }
+            int edgeCount = random.nextInt(nodeCount * 2);
+            int[] sources = new int[edgeCount];
+            int[] targets = new int[edgeCount];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                sources[edge] = random.nextInt(nodeCount);
+                targets[edge] = random.nextInt(nodeCount);
+            }
+
+            LayerOrdering.Result layered = LayerOrdering.order(levels, sources, targets, OrderingType.MEDIAN, 12);
+            double[] xs = BrandesKoepf.assign(layered.layers(), layered.realCount(), layered.segmentUpper(),
+                layered.segmentLower(), 220, 110);
+
+            for (int[] layer : layered.layers()) {
+                for (int i = 1; i < layer.length; i++) {
+                    double required = (layer[i - 1] < nodeCount ? 110 : 55) + (layer[i] < nodeCount ? 110 : 55);
+                    assertTrue(xs[layer[i]] - xs[layer[i - 1]] >= required - 1e-6,
+                        "round " + round + ": " + layer[i - 1] + " and " + layer[i] + " too close");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.dev.explainor.genesis.layout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingPathSolverTest {
+
+    @Test
+    void shouldReturnSameRoutesAsUncachedSolver() {
+        Random random = new Random(11);
+        IndexedAStarPathSolver uncached = new IndexedAStarPathSolver(6, 10000);
+        CachingPathSolver cached = new CachingPathSolver(new IndexedAStarPathSolver(6, 10000), 64);
+
+        for (int round = 0; round < 300; round++) {
+            OccupancyGrid grid = randomObstacles(random);
+            GridPoint start = new GridPoint(random.nextInt(8), random.nextInt(8));
+            GridPoint goal = new GridPoint(random.nextInt(8), random.nextInt(8));
+
+            assertEquals(uncached.findPath(start, goal, grid), cached.findPath(start, goal, grid));
+            assertEquals(uncached.findPath(start, goal, grid), cached.findPath(start, goal, grid));
+        }
+        assertEquals(600, cached.hits() + cached.misses());
+        assertTrue(cached.hits() >= 300);
+    }
+
+    @Test
+    void shouldIgnoreObstaclesOutsideExplorationWindow() {
+        CachingPathSolver cached = new CachingPathSolver(new IndexedAStarPathSolver(2, 10000), 16);
+        GridPoint start = new GridPoint(0, 0);
+        GridPoint goal = new GridPoint(4, 0);
+
+        OccupancyGrid first = new OccupancyGrid(new GridRect(-10, -10, 30, 30));
+        first.blockFootprint(new GridRect(2, -1, 2, 1));
+        OccupancyGrid farObstacle = new OccupancyGrid(new GridRect(-10, -10, 30, 30));
+        farObstacle.blockFootprint(new GridRect(2, -1, 2, 1));
+        farObstacle.blockFootprint(new GridRect(20, 20, 22, 22));
+        OccupancyGrid nearObstacle = new OccupancyGrid(new GridRect(-10, -10, 30, 30));
+        nearObstacle.blockFootprint(new GridRect(2, -2, 2, 1));
+
+        cached.findPath(start, goal, first);
+        cached.findPath(start, goal, farObstacle);
+        assertEquals(1, cached.hits());
+
+        assertEquals(new IndexedAStarPathSolver(2, 10000).findPath(start, goal, nearObstacle),
+            cached.findPath(start, goal, nearObstacle));
+        assertEquals(2, cached.misses());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedRoute() {
+        CachingPathSolver cached = new CachingPathSolver(new IndexedAStarPathSolver(2, 10000), 2);
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(0, 0, 9, 9));
+        GridPoint origin = new GridPoint(0, 0);
+
+        cached.findPath(origin, new GridPoint(1, 0), grid);
+        cached.findPath(origin, new GridPoint(2, 0), grid);
+        cached.findPath(origin, new GridPoint(1, 0), grid);
+        cached.findPath(origin, new GridPoint(3, 0), grid);
+        cached.findPath(origin, new GridPoint(1, 0), grid);
+        cached.findPath(origin, new GridPoint(2, 0), grid);
+
+        assertEquals(2, cached.size());
+        assertEquals(2, cached.hits());
+        assertEquals(4, cached.misses());
+    }
+
+    private OccupancyGrid randomObstacles(Random random) {
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(0, 0, 9, 9));
+        for (int i = 0; i < 3; i++) {
+            int x = random.nextInt(8);
+            int y = random.nextInt(8);
+            grid.blockFootprint(new GridRect(x, y, x + random.nextInt(2), y + random.nextInt(2)));
+        }
+        return grid;
+    }
+}
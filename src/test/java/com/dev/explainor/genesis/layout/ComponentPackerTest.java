@@ -0,0 +1,78 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.LayoutProperties;
+import com.dev.explainor.genesis.layout.model.LayoutConstraints;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.LayoutNode;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentPackerTest {
+
+    @Test
+    void shouldPackRectanglesWithoutOverlapNearTheRequestedAspect() {
+        Random random = new Random(7);
+        int count = 60;
+        double[] widths = new double[count];
+        double[] heights = new double[count];
+        for (int i = 0; i < count; i++) {
+            widths[i] = 50 + random.nextInt(400);
+            heights[i] = 50 + random.nextInt(300);
+        }
+
+        ComponentPacker.Packing packing = ComponentPacker.pack(widths, heights, 16.0 / 9.0);
+
+        for (int i = 0; i < count; i++) {
+            assertTrue(packing.xs()[i] + widths[i] <= packing.width() + 1e-9);
+            assertTrue(packing.ys()[i] + heights[i] <= packing.height() + 1e-9);
+            for (int j = i + 1; j < count; j++) {
+                boolean overlap = packing.xs()[i] < packing.xs()[j] + widths[j] && packing.xs()[j] < packing.xs()[i] + widths[i]
+                    && packing.ys()[i] < packing.ys()[j] + heights[j] && packing.ys()[j] < packing.ys()[i] + heights[i];
+                assertFalse(overlap, "rectangles " + i + " and " + j + " overlap");
+            }
+        }
+        double aspect = packing.width() / packing.height();
+        assertTrue(aspect > 1.0 && aspect < 3.0, "aspect " + aspect);
+    }
+
+    @Test
+    void shouldLayOutComponentsSeparatelyWhenPackingIsEnabled() {
+        List<LayoutNode> nodes = new ArrayList<>();
+        List<LayoutEdge> edges = new ArrayList<>();
+        for (int chain = 0; chain < 4; chain++) {
+            for (int i = 0; i < 3; i++) {
+                nodes.add(new LayoutNode("c" + chain + "n" + i, "Node", "server", null));
+                if (i > 0) {
+                    edges.add(new LayoutEdge("c" + chain + "e" + i, "c" + chain + "n" + (i - 1), "c" + chain + "n" + i,
+                        null, null, null));
+                }
+            }
+        }
+        LayoutProperties properties = new LayoutProperties();
+        properties.setPackComponents(true);
+
+        List<PositionedNode> positioned = new GraphBasedLayoutManager(properties)
+            .layout(nodes, edges, new LayoutConstraints(1280, 720));
+
+        assertEquals(nodes.size(), positioned.size());
+        for (int i = 0; i < positioned.size(); i++) {
+            for (int j = i + 1; j < positioned.size(); j++) {
+                PositionedNode a = positioned.get(i);
+                PositionedNode b = positioned.get(j);
+                boolean apart = Math.abs(a.x() - b.x()) >= a.width() || Math.abs(a.y() - b.y()) >= a.height();
+                assertTrue(apart, a.id() + " overlaps " + b.id());
+            }
+        }
+        double chainX = positioned.get(0).x();
+        assertEquals(chainX, positioned.get(1).x(), 1e-9);
+        assertEquals(chainX, positioned.get(2).x(), 1e-9);
+    }
+}
@@ -0,0 +1,99 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.layout.model.EntityGraph;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.LayoutNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CycleBreakerTest {
+
+    @Test
+    void shouldReverseOneEdgeOfARetryLoopAndKeepSelfLoops() {
+        EntityGraph graph = graph(4, new int[][]{{0, 1}, {1, 2}, {2, 1}, {2, 3}, {3, 3}});
+
+        boolean[] reversed = CycleBreaker.feedbackArcs(graph);
+
+        assertEquals(1, count(reversed));
+        assertTrue(reversed[1] || reversed[2]);
+        assertFalse(reversed[4]);
+        assertTrue(isAcyclic(graph, reversed));
+    }
+
+    @Test
+    void shouldMakeRandomGraphsAcyclicWithinTheGreedyBound() {
+        Random random = new Random(19);
+        for (int round = 0; round < 50; round++) {
+            int nodeCount = 1 + random.nextInt(2000);
+            int[][] edges = new int[random.nextInt(nodeCount * 3 + 1)][];
+            for (int edge = 0; edge < edges.length; edge++) {
+                edges[edge] = new int[]{random.nextInt(nodeCount), random.nextInt(nodeCount)};
+            }
+            EntityGraph graph = graph(nodeCount, edges);
+
+            boolean[] reversed = CycleBreaker.feedbackArcs(graph);
+
+            assertTrue(isAcyclic(graph, reversed), "round " + round);
+            assertTrue(count(reversed) <= edges.length / 2, "round " + round);
+        }
+    }
+
+    private boolean isAcyclic(EntityGraph graph, boolean[] reversed) {
+        int[] pending = new int[graph.nodeCount()];
+        List<List<Integer>> successors = new ArrayList<>();
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            successors.add(new ArrayList<>());
+        }
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            int from = reversed[edge] ? graph.target(edge) : graph.source(edge);
+            int to = reversed[edge] ? graph.source(edge) : graph.target(edge);
+            if (from != to) {
+                successors.get(from).add(to);
+                pending[to]++;
+            }
+        }
+        List<Integer> ready = new ArrayList<>();
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            if (pending[node] == 0) {
+                ready.add(node);
+            }
+        }
+        for (int head = 0; head < ready.size(); head++) {
+            for (int successor : successors.get(ready.get(head))) {
+                if (--pending[successor] == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+        return ready.size() == graph.nodeCount();
+    }
+
+    private int count(boolean[] flags) {
+        int count = 0;
+        for (boolean flag : flags) {
+            if (flag) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private EntityGraph graph(int nodeCount, int[][] edges) {
+        List<LayoutNode> nodes = new ArrayList<>();
+        for (int node = 0; node < nodeCount; node++) {
+            nodes.add(new LayoutNode("n" + node, "Node", "server", null));
+        }
+        List<LayoutEdge> layoutEdges = new ArrayList<>();
+        for (int edge = 0; edge < edges.length; edge++) {
+            layoutEdges.add(new LayoutEdge("e" + edge, "n" + edges[edge][0], "n" + edges[edge][1], null, null, null));
+        }
+        return EntityGraph.of(nodes, layoutEdges);
+    }
+}
@@ -0,0 +1,92 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.ForceLayoutProperties;
+import com.dev.explainor.genesis.layout.model.LayoutConstraints;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.LayoutNode;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForceDirectedLayoutManagerTest {
+
+    private static final LayoutConstraints CANVAS = new LayoutConstraints(1280, 720);
+
+    @Test
+    void shouldSpreadARingEvenlyAndReproduceItWithTheSameSeed() {
+        List<LayoutNode> nodes = new ArrayList<>();
+        List<LayoutEdge> edges = new ArrayList<>();
+        int count = 12;
+        for (int i = 0; i < count; i++) {
+            nodes.add(new LayoutNode("n" + i, "Node " + i, "server", null));
+            edges.add(new LayoutEdge("e" + i, "n" + i, "n" + ((i + 1) % count), null, null, null));
+        }
+        ForceDirectedLayoutManager manager = new ForceDirectedLayoutManager(new ForceLayoutProperties());
+
+        List<PositionedNode> first = manager.layout(nodes, edges, CANVAS);
+        List<PositionedNode> second = manager.layout(nodes, edges, CANVAS);
+
+        assertEquals(first, second);
+        double minX = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (PositionedNode node : first) {
+            minX = Math.min(minX, node.x());
+            maxX = Math.max(maxX, node.x());
+            minY = Math.min(minY, node.y());
+            maxY = Math.max(maxY, node.y());
+        }
+        double aspect = (maxX - minX) / (maxY - minY);
+        assertTrue(aspect > 0.5 && aspect < 2.0, "aspect " + aspect);
+        assertEquals(CANVAS.canvasWidth() / 2.0, (minX + maxX) / 2.0, 1e-6);
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                double distance = Math.hypot(first.get(i).x() - first.get(j).x(), first.get(i).y() - first.get(j).y());
+                assertTrue(distance > 100, "n" + i + " and n" + j + " are " + distance + " apart");
+            }
+        }
+    }
+
+    @Test
+    void shouldMatchExactRepulsionWhenThetaIsZero() {
+        Random random = new Random(3);
+        int count = 200;
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextDouble() * 1000;
+            ys[i] = random.nextDouble() * 1000;
+        }
+        BarnesHutTree tree = new BarnesHutTree();
+        tree.build(xs, ys, count);
+
+        for (int i = 0; i < count; i++) {
+            double[] exact = new double[2];
+            for (int j = 0; j < count; j++) {
+                if (i != j) {
+                    double dx = xs[i] - xs[j];
+                    double dy = ys[i] - ys[j];
+                    double push = 1.0 / (dx * dx + dy * dy);
+                    exact[0] += dx * push;
+                    exact[1] += dy * push;
+                }
+            }
+            double[] exactTree = new double[2];
+            double[] approximate = new double[2];
+            tree.repulsion(i, xs[i], ys[i], 0.0, 1.0, exactTree);
+            tree.repulsion(i, xs[i], ys[i], 0.8, 1.0, approximate);
+
+            assertEquals(exact[0], exactTree[0], 1e-9);
+            assertEquals(exact[1], exactTree[1], 1e-9);
+            double magnitude = Math.hypot(exact[0], exact[1]);
+            assertTrue(Math.hypot(approximate[0] - exact[0], approximate[1] - exact[1]) < 0.2 * magnitude + 1e-4);
+        }
+    }
+}
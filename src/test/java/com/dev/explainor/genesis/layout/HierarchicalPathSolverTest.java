@@ -0,0 +1,62 @@
+package com.dev.explainor.genesis.layout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalPathSolverTest {
+
+    @Test
+    void shouldFindValidRoutesCloseToAStar() {
+        Random random = new Random(11);
+        IndexedAStarPathSolver aStar = new IndexedAStarPathSolver(8, 100000);
+        HierarchicalPathSolver hierarchical = new HierarchicalPathSolver(8, 100000, 4);
+        long aStarLength = 0;
+        long hierarchicalLength = 0;
+
+        for (int round = 0; round < 300; round++) {
+            OccupancyGrid grid = JumpPointSearchSolverTest.randomObstacles(random, 0.25);
+            GridPoint start = new GridPoint(random.nextInt(40), random.nextInt(25));
+            GridPoint goal = new GridPoint(random.nextInt(40), random.nextInt(25));
+
+            SearchResult expected = aStar.search(start, goal, grid);
+            SearchResult actual = hierarchical.search(start, goal, grid);
+
+            assertEquals(expected.found(), actual.found(), "Reachability from " + start + " to " + goal);
+            if (actual.found()) {
+                JumpPointSearchSolverTest.assertRouteIsOrthogonalAndFree(actual.path(), grid, start, goal);
+                aStarLength += JumpPointSearchSolverTest.routeLength(expected.path());
+                hierarchicalLength += JumpPointSearchSolverTest.routeLength(actual.path());
+            }
+        }
+
+        assertTrue(hierarchicalLength <= aStarLength * 1.15, "Total length " + hierarchicalLength + " vs " + aStarLength);
+    }
+
+    @Test
+    void shouldRouteWhereFlatSearchRunsOutOfIterations() {
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(0, 0, 399, 399));
+        for (int wall = 1; wall < 8; wall++) {
+            int x = wall * 50;
+            int gapY = wall % 2 == 0 ? 155 : 245;
+            for (int y = 0; y < 400; y++) {
+                if (Math.abs(y - gapY) > 2) {
+                    grid.block(x, y);
+                }
+            }
+        }
+        GridPoint start = new GridPoint(10, 200);
+        GridPoint goal = new GridPoint(390, 200);
+
+        SearchResult flat = new IndexedAStarPathSolver(50, 10000).search(start, goal, grid);
+        SearchResult hierarchical = new HierarchicalPathSolver(50, 10000, 16).search(start, goal, grid);
+
+        assertFalse(flat.found());
+        assertTrue(hierarchical.found());
+        JumpPointSearchSolverTest.assertRouteIsOrthogonalAndFree(hierarchical.path(), grid, start, goal);
+    }
+}
@@ -0,0 +1,70 @@
+package com.dev.explainor.genesis.layout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexedAStarPathSolverTest {
+
+    @Test
+    void shouldMatchReferenceSolverOnRandomObstacleFields() {
+        Random random = new Random(42);
+        AStarPathSolver reference = new AStarPathSolver(6, 10000);
+        IndexedAStarPathSolver indexed = new IndexedAStarPathSolver(6, 10000);
+
+        for (int round = 0; round < 300; round++) {
+            OccupancyGrid grid = randomObstacles(random, 0.3);
+            GridPoint start = new GridPoint(random.nextInt(30), random.nextInt(20));
+            GridPoint goal = new GridPoint(random.nextInt(30), random.nextInt(20));
+
+            assertEquals(reference.findPath(start, goal, grid), indexed.findPath(start, goal, grid),
+                "Route mismatch from " + start + " to " + goal);
+        }
+    }
+
+    @Test
+    void shouldFallBackLikeReferenceSolverWhenIterationsRunOut() {
+        Random random = new Random(7);
+        AStarPathSolver reference = new AStarPathSolver(10, 25);
+        IndexedAStarPathSolver indexed = new IndexedAStarPathSolver(10, 25);
+
+        for (int round = 0; round < 100; round++) {
+            OccupancyGrid grid = randomObstacles(random, 0.2);
+            GridPoint start = new GridPoint(random.nextInt(30), random.nextInt(20));
+            GridPoint goal = new GridPoint(random.nextInt(30), random.nextInt(20));
+
+            assertEquals(reference.findPath(start, goal, grid), indexed.findPath(start, goal, grid));
+        }
+    }
+
+    @Test
+    void shouldReturnSinglePointWhenStartIsGoal() {
+        IndexedAStarPathSolver indexed = new IndexedAStarPathSolver(50, 10000);
+        GridPoint point = new GridPoint(3, 4);
+
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(0, 0, 9, 9));
+        grid.blockFootprint(new GridRect(2, 3, 4, 5));
+
+        assertEquals(List.of(point), indexed.findPath(point, point, grid));
+    }
+
+    private OccupancyGrid randomObstacles(Random random, double density) {
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(0, 0, 29, 19));
+        for (int x = 0; x < 30; x++) {
+            for (int y = 0; y < 20; y++) {
+                if (random.nextDouble() < density) {
+                    grid.block(x, y);
+                }
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            int x = random.nextInt(27);
+            int y = random.nextInt(18);
+            grid.blockFootprint(new GridRect(x, y, x + 2, y + 1));
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,86 @@
+package com.dev.explainor.genesis.layout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JumpPointSearchSolverTest {
+
+    @Test
+    void shouldFindRoutesAsShortAsAStar() {
+        Random random = new Random(3);
+        IndexedAStarPathSolver aStar = new IndexedAStarPathSolver(8, 100000);
+        JumpPointSearchSolver jumpPoint = new JumpPointSearchSolver(8, 100000);
+
+        for (int round = 0; round < 500; round++) {
+            OccupancyGrid grid = randomObstacles(random, 0.25);
+            GridPoint start = new GridPoint(random.nextInt(40), random.nextInt(25));
+            GridPoint goal = new GridPoint(random.nextInt(40), random.nextInt(25));
+
+            SearchResult expected = aStar.search(start, goal, grid);
+            SearchResult actual = jumpPoint.search(start, goal, grid);
+
+            assertEquals(expected.found(), actual.found(), "Reachability from " + start + " to " + goal);
+            assertEquals(routeLength(expected.path()), routeLength(actual.path()), "Length from " + start + " to " + goal);
+            if (actual.found()) {
+                assertRouteIsOrthogonalAndFree(actual.path(), grid, start, goal);
+            }
+        }
+    }
+
+    @Test
+    void shouldExpandFewerNodesInOpenSpace() {
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(0, 0, 99, 99));
+        GridPoint start = new GridPoint(5, 5);
+        GridPoint goal = new GridPoint(90, 80);
+
+        SearchResult aStar = new IndexedAStarPathSolver(50, 100000).search(start, goal, grid);
+        SearchResult jumpPoint = new JumpPointSearchSolver(50, 100000).search(start, goal, grid);
+
+        assertEquals(routeLength(aStar.path()), routeLength(jumpPoint.path()));
+        assertTrue(jumpPoint.expandedNodes() < aStar.expandedNodes());
+    }
+
+    static int routeLength(List<GridPoint> path) {
+        int length = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            length += Math.abs(path.get(i + 1).x() - path.get(i).x()) + Math.abs(path.get(i + 1).y() - path.get(i).y());
+        }
+        return length;
+    }
+
+    static void assertRouteIsOrthogonalAndFree(List<GridPoint> path, OccupancyGrid grid, GridPoint start, GridPoint goal) {
+        GridRect startArea = grid.exemptArea(start);
+        GridRect goalArea = grid.exemptArea(goal);
+        assertEquals(start, path.get(0));
+        assertEquals(goal, path.get(path.size() - 1));
+        for (int i = 0; i < path.size() - 1; i++) {
+            GridPoint from = path.get(i);
+            GridPoint to = path.get(i + 1);
+            assertTrue(from.x() == to.x() || from.y() == to.y(), "Diagonal step " + from + " -> " + to);
+            int dx = Integer.signum(to.x() - from.x());
+            int dy = Integer.signum(to.y() - from.y());
+            for (int x = from.x(), y = from.y(); x != to.x() || y != to.y(); ) {
+                x += dx;
+                y += dy;
+                assertTrue(!grid.isBlockedExcept(x, y, startArea, goalArea), "Blocked cell " + x + "," + y);
+            }
+        }
+    }
+
+    static OccupancyGrid randomObstacles(Random random, double density) {
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(0, 0, 39, 24));
+        for (int x = 0; x < 40; x++) {
+            for (int y = 0; y < 25; y++) {
+                if (random.nextDouble() < density) {
+                    grid.block(x, y);
+                }
+            }
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,84 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.LayoutProperties.OrderingType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LayerOrderingTest {
+
+    @Test
+    void shouldCountCrossingsOfTheInputOrder() {
+        int[] levels = {0, 0, 0, 1, 1, 1};
+        int[] sources = {0, 1, 2};
+        int[] targets = {5, 4, 3};
+
+        LayerOrdering.Result result = LayerOrdering.order(levels, sources, targets, OrderingType.INPUT, 12);
+
+        assertEquals(3, result.initialCrossings());
+        assertEquals(3, result.crossings());
+        assertEquals(0, result.sweeps());
+        assertArrayEquals(new int[]{3, 4, 5}, result.layers()[1]);
+    }
+
+    @Test
+    void shouldRemoveCrossingsOfAPermutation() {
+        int[] levels = {0, 0, 0, 1, 1, 1};
+        int[] sources = {0, 1, 2};
+        int[] targets = {5, 4, 3};
+
+        for (OrderingType type : new OrderingType[]{OrderingType.BARYCENTER, OrderingType.MEDIAN}) {
+            LayerOrdering.Result result = LayerOrdering.order(levels, sources, targets, type, 12);
+
+            assertEquals(0, result.crossings(), type.name());
+        }
+    }
+
+    @Test
+    void shouldSplitLongEdgesIntoDummyChains() {
+        int[] levels = {0, 1, 2, 3};
+        int[] sources = {0, 0, 1};
+        int[] targets = {3, 1, 2};
+
+        LayerOrdering.Result result = LayerOrdering.order(levels, sources, targets, OrderingType.BARYCENTER, 12);
+
+        assertEquals(4, result.realCount());
+        assertEquals(2, result.layers()[1].length);
+        assertEquals(2, result.layers()[2].length);
+        assertEquals(0, result.crossings());
+    }
+
+    @Test
+    void shouldNeverEndWithMoreCrossingsThanItStartedWith() {
+        Random random = new Random(13);
+        for (int round = 0; round < 50; round++) {
+            int nodeCount = 20 + random.nextInt(80);
+            int[] levels = new int[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                levels[i] = random.nextInt(6);
+            }
+            int edgeCount = nodeCount + random.nextInt(nodeCount);
+            int[] sources = new int[edgeCount];
+            int[] targets = new int[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                sources[i] = random.nextInt(nodeCount);
+                targets[i] = random.nextInt(nodeCount);
+            }
+
+            LayerOrdering.Result result = LayerOrdering.order(levels, sources, targets, OrderingType.BARYCENTER, 12);
+
+            assertTrue(result.crossings() <= result.initialCrossings());
+            int[] realVertices = Arrays.stream(result.layers()).flatMapToInt(Arrays::stream)
+                .filter(vertex -> vertex < nodeCount).sorted().toArray();
+            assertEquals(nodeCount, realVertices.length);
+            for (int i = 0; i < nodeCount; i++) {
+                assertEquals(i, realVertices[i]);
+            }
+        }
+    }
+}
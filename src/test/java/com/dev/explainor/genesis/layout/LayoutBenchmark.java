@@ -0,0 +1,215 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.ForceLayoutProperties;
+import com.dev.explainor.genesis.config.LayoutProperties;
+import com.dev.explainor.genesis.dto.StoryboardV1;
+import com.dev.explainor.genesis.layout.model.EntityGraph;
+import com.dev.explainor.genesis.layout.model.LayoutConstraints;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.LayoutNode;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import com.dev.explainor.genesis.service.LayoutModelFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares edge crossings and wall time of the layer ordering strategies on random layered graphs of growing
+ * size, the centred and Brandes-Köpf coordinate assignments by how far edges run sideways and what routing them
+ * costs, and the force-directed layout on the same graphs. Not part of the regular test run; start it with
+ * {@code ./mvnw test -Dtest=LayoutBenchmark}.
+ */
+class LayoutBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(LayoutBenchmark.class);
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @Test
+    void compareOrderings() {
+        for (int nodeCount : new int[]{100, 1000, 5000}) {
+            Graph graph = randomGraph(nodeCount, nodeCount * 3 / 2, new Random(nodeCount));
+            for (LayoutProperties.OrderingType type : LayoutProperties.OrderingType.values()) {
+                LayoutProperties properties = new LayoutProperties();
+                properties.setOrdering(type);
+                GraphBasedLayoutManager manager = new GraphBasedLayoutManager(properties);
+                for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                    manager.orderLayers(graph.nodes(), graph.edges());
+                }
+                long started = System.nanoTime();
+                LayerOrdering.Result result = null;
+                for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                    result = manager.orderLayers(graph.nodes(), graph.edges());
+                }
+                int vertices = 0;
+                for (int[] layer : result.layers()) {
+                    vertices += layer.length;
+                }
+                log.info("random-{} | {} | edges={} dummies={} crossings={} sweeps={} avgMicros={}", nodeCount,
+                    type.name().toLowerCase(), graph.edges().size(), vertices - result.realCount(), result.crossings(),
+                    result.sweeps(), (System.nanoTime() - started) / 1000 / MEASURED_ROUNDS);
+            }
+        }
+    }
+
+    @Test
+    void compareCycleBreaking() {
+        for (int nodeCount : new int[]{100, 1000, 5000}) {
+            Graph graph = randomGraph(nodeCount, nodeCount * 3 / 2, new Random(nodeCount));
+            for (LayoutProperties.CycleBreaking cycleBreaking : LayoutProperties.CycleBreaking.values()) {
+                LayoutProperties properties = new LayoutProperties();
+                properties.setOrdering(LayoutProperties.OrderingType.BARYCENTER);
+                properties.setCycleBreaking(cycleBreaking);
+                GraphBasedLayoutManager manager = new GraphBasedLayoutManager(properties);
+                for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                    manager.orderLayers(graph.nodes(), graph.edges());
+                }
+                long started = System.nanoTime();
+                LayerOrdering.Result result = null;
+                for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                    result = manager.orderLayers(graph.nodes(), graph.edges());
+                }
+                long micros = (System.nanoTime() - started) / 1000 / MEASURED_ROUNDS;
+
+                Map<String, Integer> levels = new HashMap<>();
+                for (int level = 0; level < result.layers().length; level++) {
+                    for (int vertex : result.layers()[level]) {
+                        if (vertex < result.realCount()) {
+                            levels.put(graph.nodes().get(vertex).id(), level);
+                        }
+                    }
+                }
+                int upward = 0;
+                int flat = 0;
+                for (LayoutEdge edge : graph.edges()) {
+                    int delta = levels.get(edge.to()) - levels.get(edge.from());
+                    upward += delta < 0 ? 1 : 0;
+                    flat += delta == 0 ? 1 : 0;
+                }
+                log.info("random-{} | {} | edges={} levels={} upward={} flat={} crossings={} avgMicros={}", nodeCount,
+                    cycleBreaking.name().toLowerCase(), graph.edges().size(), result.layers().length, upward, flat,
+                    result.crossings(), micros);
+            }
+        }
+    }
+
+    @Test
+    void compareCoordinateAssignments() throws IOException {
+        List<Graph> graphs = new ArrayList<>();
+        for (String storyboard : new String[]{"test-tree", "test-obstacle", "test-stage4"}) {
+            graphs.add(storyboardGraph(storyboard));
+        }
+        for (int nodeCount : new int[]{20, 50, 100, 300}) {
+            graphs.add(randomGraph(nodeCount, nodeCount * 11 / 10, new Random(nodeCount)));
+        }
+        for (Graph graph : graphs) {
+            for (LayoutProperties.CoordinateAssignment coordinates : LayoutProperties.CoordinateAssignment.values()) {
+                LayoutProperties properties = new LayoutProperties();
+                properties.setOrdering(LayoutProperties.OrderingType.BARYCENTER);
+                properties.setCoordinates(coordinates);
+                GraphBasedLayoutManager manager = new GraphBasedLayoutManager(properties);
+                LayoutConstraints constraints = LayoutConstraints.standard();
+                for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                    manager.layout(graph.nodes(), graph.edges(), constraints);
+                }
+                long started = System.nanoTime();
+                List<PositionedNode> nodes = null;
+                for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                    nodes = manager.layout(graph.nodes(), graph.edges(), constraints);
+                }
+                long layoutMicros = (System.nanoTime() - started) / 1000 / MEASURED_ROUNDS;
+
+                Map<String, PositionedNode> index = new HashMap<>();
+                nodes.forEach(node -> index.put(node.id(), node));
+                GridBuilder gridBuilder = new GridBuilder(properties);
+                OccupancyGrid grid = gridBuilder.build(nodes, constraints).occupancy();
+                PathSolver solver = new IndexedAStarPathSolver(50, 100000);
+                long expanded = 0;
+                long routeLength = 0;
+                int vertical = 0;
+                for (LayoutEdge edge : graph.edges()) {
+                    PositionedNode from = index.get(edge.from());
+                    PositionedNode to = index.get(edge.to());
+                    SearchResult result = solver.search(gridBuilder.toGrid(from.x(), from.y()),
+                        gridBuilder.toGrid(to.x(), to.y()), grid);
+                    expanded += result.expandedNodes();
+                    routeLength += JumpPointSearchSolverTest.routeLength(result.path());
+                    if (Math.abs(from.x() - to.x()) < 1e-6) {
+                        vertical++;
+                    }
+                }
+                log.info("{} | {} | edges={} vertical={} expanded={} routeLength={} layoutMicros={}", graph.name(),
+                    coordinates.name().toLowerCase(), graph.edges().size(), vertical, expanded, routeLength,
+                    layoutMicros);
+            }
+        }
+    }
+
+    private Graph storyboardGraph(String name) throws IOException {
+        try (InputStream input = getClass().getResourceAsStream("/" + name + ".storyboard.json")) {
+            StoryboardV1 storyboard = new ObjectMapper().readValue(input, StoryboardV1.class);
+            LayoutModelFactory.LayoutModelResult model = new LayoutModelFactory().createLayoutModel(storyboard);
+            return new Graph(name, model.nodes(), model.edges());
+        }
+    }
+
+    @Test
+    void measureForceDirected() {
+        LayoutConstraints constraints = new LayoutConstraints(1280, 720);
+        for (int nodeCount : new int[]{100, 1000, 5000}) {
+            Graph graph = randomGraph(nodeCount, nodeCount * 3 / 2, new Random(nodeCount));
+            ForceDirectedLayoutManager manager = new ForceDirectedLayoutManager(new ForceLayoutProperties());
+            EntityGraph entityGraph = EntityGraph.of(graph.nodes(), graph.edges());
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                manager.layout(entityGraph, graph.nodes(), graph.edges(), constraints);
+            }
+            long started = System.nanoTime();
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                manager.layout(entityGraph, graph.nodes(), graph.edges(), constraints);
+            }
+            log.info("random-{} | force | edges={} avgMicros={}", nodeCount, graph.edges().size(),
+                (System.nanoTime() - started) / 1000 / MEASURED_ROUNDS);
+        }
+    }
+
+    /**
+     * Edges mostly point forward to a node a little later in input order, so levels come out deep and
+     * reasonably wide, with some long edges and a few back edges.
+     */
+    private Graph randomGraph(int nodeCount, int edgeCount, Random random) {
+        List<LayoutNode> nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(new LayoutNode("n" + i, "Node " + i, "server", null));
+        }
+        List<LayoutEdge> edges = new ArrayList<>(edgeCount);
+        for (int i = 1; i < nodeCount; i++) {
+            int parent = Math.max(0, i - 1 - random.nextInt(Math.min(i, 20)));
+            edges.add(new LayoutEdge("t" + i, "n" + parent, "n" + i, null, null, null));
+        }
+        for (int i = nodeCount - 1; i < edgeCount; i++) {
+            int from = random.nextInt(nodeCount);
+            int to = Math.min(nodeCount - 1, from + 1 + random.nextInt(60));
+            if (random.nextInt(10) == 0) {
+                int swap = from;
+                from = to;
+                to = swap;
+            }
+            if (from != to) {
+                edges.add(new LayoutEdge("e" + i, "n" + from, "n" + to, null, null, null));
+            }
+        }
+        return new Graph("random-" + nodeCount, nodes, edges);
+    }
+
+    private record Graph(String name, List<LayoutNode> nodes, List<LayoutEdge> edges) {
+    }
+}
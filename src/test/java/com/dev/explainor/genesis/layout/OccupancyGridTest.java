@@ -0,0 +1,62 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.LayoutProperties;
+import com.dev.explainor.genesis.layout.model.LayoutConstraints;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OccupancyGridTest {
+
+    @Test
+    void shouldRasterizeWholePaddedBoundingBox() {
+        LayoutProperties properties = new LayoutProperties();
+        GridBuilder gridBuilder = new GridBuilder(properties);
+        PositionedNode node = new PositionedNode("a", "A", "server", 400, 200, 120, 80);
+
+        OccupancyGrid grid = gridBuilder.build(List.of(node), LayoutConstraints.standard()).occupancy();
+
+        assertEquals(new GridRect(9, 4, 11, 6), gridBuilder.footprintOf(node));
+        for (int x = 9; x <= 11; x++) {
+            for (int y = 4; y <= 6; y++) {
+                assertTrue(grid.isBlocked(x, y), "cell " + x + "," + y);
+            }
+        }
+        assertFalse(grid.isBlocked(8, 5));
+        assertFalse(grid.isBlocked(12, 5));
+        assertFalse(grid.isBlocked(10, 3));
+        assertFalse(grid.isBlocked(10, 7));
+    }
+
+    @Test
+    void shouldSetBitsAcrossWordBoundaries() {
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(-5, -5, 194, 4));
+        grid.blockFootprint(new GridRect(50, 0, 140, 0));
+
+        assertFalse(grid.isBlocked(49, 0));
+        for (int x = 50; x <= 140; x++) {
+            assertTrue(grid.isBlocked(x, 0));
+        }
+        assertFalse(grid.isBlocked(141, 0));
+        assertFalse(grid.isBlocked(90, 1));
+    }
+
+    @Test
+    void routeShouldLeaveOwnFootprintButAvoidOthers() {
+        OccupancyGrid grid = new OccupancyGrid(new GridRect(0, 0, 20, 10));
+        grid.blockFootprint(new GridRect(0, 4, 2, 6));
+        grid.blockFootprint(new GridRect(8, 0, 10, 8));
+        grid.blockFootprint(new GridRect(16, 4, 18, 6));
+
+        List<GridPoint> path = new IndexedAStarPathSolver(10, 10000).findPath(new GridPoint(1, 5), new GridPoint(17, 5), grid);
+
+        assertEquals(new GridPoint(1, 5), path.get(0));
+        assertEquals(new GridPoint(17, 5), path.get(path.size() - 1));
+        assertTrue(path.stream().anyMatch(point -> point.y() >= 9));
+    }
+}
@@ -0,0 +1,89 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.LayoutProperties;
+import com.dev.explainor.genesis.domain.Point;
+import com.dev.explainor.genesis.layout.model.BoundingBox;
+import com.dev.explainor.genesis.layout.model.LayoutConstraints;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import com.dev.explainor.genesis.layout.model.RoutedEdge;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrthogonalVisibilityRouterTest {
+
+    private final LayoutProperties properties = new LayoutProperties();
+    private final LayoutConstraints constraints = LayoutConstraints.standard();
+
+    @Test
+    void shouldRouteAroundNodeBetweenEndpoints() {
+        List<PositionedNode> nodes = List.of(
+            new PositionedNode("a", "A", "server", 100, 200, 120, 80),
+            new PositionedNode("blocker", "Blocker", "server", 400, 200, 120, 80),
+            new PositionedNode("b", "B", "server", 700, 200, 120, 80)
+        );
+        List<LayoutEdge> edges = List.of(new LayoutEdge("e", "a", "b", null, null, null));
+
+        RoutedEdge routed = new OrthogonalVisibilityRouter(properties).routeEdges(edges, nodes, constraints).get(0);
+
+        assertEquals(new Point(100, 200), routed.path().get(0));
+        assertEquals(new Point(700, 200), routed.path().get(routed.path().size() - 1));
+        assertEquals(4, routed.path().size(), "Expected one detour above or below the blocker: " + routed.path());
+        assertRouteAvoidsOtherNodes(routed, nodes);
+    }
+
+    @Test
+    void shouldProduceOrthogonalRoutesThatAvoidOtherNodes() {
+        List<PositionedNode> nodes = PathFindingCoordinatorTest.gridOfNodes(7, 5);
+        List<LayoutEdge> edges = PathFindingCoordinatorTest.randomEdges(nodes, 80, new Random(3));
+
+        List<RoutedEdge> routed = new OrthogonalVisibilityRouter(properties).routeEdges(edges, nodes, constraints);
+
+        assertEquals(edges.size(), routed.size());
+        for (RoutedEdge edge : routed) {
+            assertRouteAvoidsOtherNodes(edge, nodes);
+        }
+    }
+
+    private void assertRouteAvoidsOtherNodes(RoutedEdge edge, List<PositionedNode> nodes) {
+        Map<String, PositionedNode> index = nodes.stream().collect(Collectors.toMap(PositionedNode::id, Function.identity()));
+        List<Point> path = edge.path();
+        if (!edge.from().equals(edge.to())) {
+            assertEquals(new Point(index.get(edge.from()).x(), index.get(edge.from()).y()), path.get(0));
+            assertEquals(new Point(index.get(edge.to()).x(), index.get(edge.to()).y()), path.get(path.size() - 1));
+        }
+        for (int i = 0; i + 1 < path.size(); i++) {
+            Point from = path.get(i);
+            Point to = path.get(i + 1);
+            assertTrue(from.x() == to.x() || from.y() == to.y(), "Diagonal segment in " + path);
+            for (PositionedNode node : nodes) {
+                if (node.id().equals(edge.from()) || node.id().equals(edge.to())) {
+                    continue;
+                }
+                BoundingBox box = node.boundingBox().expand(properties.getObstaclePadding());
+                assertFalse(crossesInterior(from, to, box), edge.id() + " crosses " + node.id() + ": " + path);
+            }
+        }
+    }
+
+    private boolean crossesInterior(Point from, Point to, BoundingBox box) {
+        double minX = Math.min(from.x(), to.x());
+        double maxX = Math.max(from.x(), to.x());
+        double minY = Math.min(from.y(), to.y());
+        double maxY = Math.max(from.y(), to.y());
+        double overlapX = Math.min(maxX, box.x() + box.width()) - Math.max(minX, box.x());
+        double overlapY = Math.min(maxY, box.y() + box.height()) - Math.max(minY, box.y());
+        boolean insideX = minX == maxX ? box.x() < minX && minX < box.x() + box.width() : overlapX > 0;
+        boolean insideY = minY == maxY ? box.y() < minY && minY < box.y() + box.height() : overlapY > 0;
+        return insideX && insideY;
+    }
+}
@@ -0,0 +1,210 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.LayoutProperties;
+import com.dev.explainor.genesis.domain.Point;
+import com.dev.explainor.genesis.layout.model.LayoutConstraints;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import com.dev.explainor.genesis.layout.model.RoutedEdge;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathFindingCoordinatorTest {
+
+    private final LayoutProperties properties = new LayoutProperties();
+    private final LayoutConstraints constraints = LayoutConstraints.standard();
+
+    @Test
+    void parallelRoutingShouldMatchSequentialRoutingInInputOrder() {
+        List<PositionedNode> nodes = gridOfNodes(6, 5);
+        List<LayoutEdge> edges = randomEdges(nodes, 60, new Random(11));
+
+        PathFindingCoordinator sequential = new PathFindingCoordinator(new GridBuilder(properties), new IndexedAStarPathSolver(50, 10000));
+        List<RoutedEdge> expected = sequential.routeEdges(edges, nodes, constraints);
+
+        try (PathFindingCoordinator parallel = new PathFindingCoordinator(new GridBuilder(properties), new IndexedAStarPathSolver(50, 10000), 4)) {
+            assertEquals(expected, parallel.routeEdges(edges, nodes, constraints));
+        }
+    }
+
+    @Test
+    void reroutingShouldMatchFullRoutingAndKeepUntouchedRoutes() {
+        List<PositionedNode> nodes = gridOfNodes(8, 6);
+        List<LayoutEdge> edges = new ArrayList<>();
+        for (int i = 0; i + 1 < nodes.size(); i++) {
+            edges.add(new LayoutEdge("e" + i, nodes.get(i).id(), nodes.get(i + 1).id(), null, null, null));
+        }
+        PathFindingCoordinator coordinator = new PathFindingCoordinator(new GridBuilder(properties), new IndexedAStarPathSolver(3, 10000));
+        List<RoutedEdge> previous = coordinator.routeEdges(edges, nodes, constraints);
+
+        List<PositionedNode> moved = new ArrayList<>(nodes);
+        PositionedNode node = moved.get(0);
+        moved.set(0, new PositionedNode(node.id(), node.label(), node.icon(), node.x() + 40, node.y() + 40, node.width(), node.height()));
+
+        List<RoutedEdge> rerouted = coordinator.rerouteEdges(edges, previous, nodes, moved, constraints);
+
+        assertEquals(coordinator.routeEdges(edges, moved, constraints), rerouted);
+        assertNotSame(previous.get(0), rerouted.get(0));
+        int kept = 0;
+        for (int i = 0; i < previous.size(); i++) {
+            if (previous.get(i) == rerouted.get(i)) {
+                kept++;
+            }
+        }
+        assertTrue(kept > previous.size() / 2, "Only " + kept + " of " + previous.size() + " routes were kept");
+    }
+
+    @Test
+    void reroutingWithFanOutShouldMatchFullRouting() {
+        List<PositionedNode> nodes = gridOfNodes(8, 6);
+        List<LayoutEdge> edges = hubEdges(nodes, new Random(5));
+        PathFindingCoordinator coordinator = new PathFindingCoordinator(new GridBuilder(properties), new IndexedAStarPathSolver(4, 10000), 1, 4);
+        List<RoutedEdge> previous = coordinator.routeEdges(edges, nodes, constraints);
+
+        List<PositionedNode> moved = new ArrayList<>(nodes);
+        PositionedNode node = moved.get(20);
+        moved.set(20, new PositionedNode(node.id(), node.label(), node.icon(), node.x() + 40, node.y() + 40, node.width(), node.height()));
+        List<LayoutEdge> fewer = new ArrayList<>(edges);
+        fewer.remove(3);
+
+        assertEquals(coordinator.routeEdges(edges, moved, constraints), coordinator.rerouteEdges(edges, previous, nodes, moved, constraints));
+        assertEquals(coordinator.routeEdges(fewer, nodes, constraints), coordinator.rerouteEdges(fewer, previous, nodes, nodes, constraints));
+    }
+
+    @Test
+    void reroutingWithCongestionPassesShouldMatchFullRouting() {
+        List<PositionedNode> nodes = gridOfNodes(6, 5);
+        List<LayoutEdge> edges = randomEdges(nodes, 60, new Random(17));
+        PathFindingCoordinator coordinator = new PathFindingCoordinator(new GridBuilder(properties), new IndexedAStarPathSolver(50, 10000),
+            1, 0, Duration.ZERO, Duration.ZERO, 8);
+        List<RoutedEdge> previous = coordinator.routeEdges(edges, nodes, constraints);
+
+        List<PositionedNode> moved = new ArrayList<>(nodes);
+        PositionedNode node = moved.get(0);
+        moved.set(0, new PositionedNode(node.id(), node.label(), node.icon(), node.x() + 40, node.y() + 40, node.width(), node.height()));
+
+        assertEquals(coordinator.routeEdges(edges, moved, constraints), coordinator.rerouteEdges(edges, previous, nodes, moved, constraints));
+    }
+
+    @Test
+    void defaultPropertiesShouldRouteHubEdgesOneByOne() {
+        List<PositionedNode> nodes = gridOfNodes(8, 6);
+        List<LayoutEdge> edges = hubEdges(nodes, new Random(5));
+
+        List<RoutedEdge> perEdge = new PathFindingCoordinator(new GridBuilder(properties), new IndexedAStarPathSolver(4, 10000))
+            .routeEdges(edges, nodes, constraints);
+        List<RoutedEdge> configured = new PathFindingCoordinator(new GridBuilder(properties), new IndexedAStarPathSolver(4, 10000),
+            properties.getRoutingParallelism(), properties.getFanOutThreshold()).routeEdges(edges, nodes, constraints);
+
+        assertEquals(0, properties.getFanOutThreshold());
+        assertEquals(perEdge, configured);
+    }
+
+    @Test
+    void fanOutRoutingShouldKeepEveryRouteLength() {
+        List<PositionedNode> nodes = gridOfNodes(8, 6);
+        List<LayoutEdge> edges = hubEdges(nodes, new Random(5));
+
+        List<RoutedEdge> perEdge = new PathFindingCoordinator(new GridBuilder(properties), new IndexedAStarPathSolver(4, 10000))
+            .routeEdges(edges, nodes, constraints);
+        List<RoutedEdge> fannedOut = new PathFindingCoordinator(new GridBuilder(properties), new IndexedAStarPathSolver(4, 10000), 1, 4)
+            .routeEdges(edges, nodes, constraints);
+
+        assertEquals(perEdge.size(), fannedOut.size());
+        for (int i = 0; i < perEdge.size(); i++) {
+            assertEquals(perEdge.get(i).id(), fannedOut.get(i).id());
+            assertEquals(perEdge.get(i).pathLength(), fannedOut.get(i).pathLength(), 1e-9, perEdge.get(i).id());
+        }
+    }
+
+    @Test
+    void negotiatedRoutingShouldReduceOverlappingCells() {
+        List<PositionedNode> nodes = gridOfNodes(6, 5);
+        List<LayoutEdge> edges = randomEdges(nodes, 60, new Random(17));
+        GridBuilder gridBuilder = new GridBuilder(properties);
+        OccupancyGrid occupancy = gridBuilder.build(nodes, constraints).occupancy();
+
+        List<RoutedEdge> independent = new PathFindingCoordinator(gridBuilder, new IndexedAStarPathSolver(50, 10000))
+            .routeEdges(edges, nodes, constraints);
+        List<RoutedEdge> negotiated = new PathFindingCoordinator(gridBuilder, new IndexedAStarPathSolver(50, 10000),
+            1, 0, Duration.ZERO, Duration.ZERO, 8).routeEdges(edges, nodes, constraints);
+
+        for (int i = 0; i < edges.size(); i++) {
+            List<Point> before = independent.get(i).path();
+            List<Point> after = negotiated.get(i).path();
+            assertEquals(before.get(0), after.get(0));
+            assertEquals(before.get(before.size() - 1), after.get(after.size() - 1));
+        }
+        int independentOverlap = overlappingCells(independent, gridBuilder, occupancy);
+        int negotiatedOverlap = overlappingCells(negotiated, gridBuilder, occupancy);
+        assertTrue(negotiatedOverlap < independentOverlap / 2,
+            "Overlapping cells: " + negotiatedOverlap + " negotiated vs " + independentOverlap + " independent");
+    }
+
+    /**
+     * Free cells that more than one route runs along in the same direction.
+     */
+    static int overlappingCells(List<RoutedEdge> routes, GridBuilder gridBuilder, OccupancyGrid occupancy) {
+        Map<String, Integer> usage = new HashMap<>();
+        for (RoutedEdge route : routes) {
+            for (int i = 0; i + 1 < route.path().size(); i++) {
+                GridPoint from = gridBuilder.toGrid(route.path().get(i).x(), route.path().get(i).y());
+                GridPoint to = gridBuilder.toGrid(route.path().get(i + 1).x(), route.path().get(i + 1).y());
+                int dx = Integer.signum(to.x() - from.x());
+                int dy = Integer.signum(to.y() - from.y());
+                for (int x = from.x(), y = from.y(); ; x += dx, y += dy) {
+                    if (!occupancy.isBlocked(x, y)) {
+                        usage.merge(x + "," + y + (dx != 0 ? "h" : "v"), 1, Integer::sum);
+                    }
+                    if (x == to.x() && y == to.y()) {
+                        break;
+                    }
+                }
+            }
+        }
+        return (int) usage.values().stream().filter(count -> count > 1).count();
+    }
+
+    static List<PositionedNode> gridOfNodes(int columns, int rows) {
+        List<PositionedNode> nodes = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                String id = "n" + row + "-" + column;
+                nodes.add(new PositionedNode(id, id, "server", 100 + column * 220.0, 80 + row * 160.0, 120, 80));
+            }
+        }
+        return nodes;
+    }
+
+    static List<LayoutEdge> hubEdges(List<PositionedNode> nodes, Random random) {
+        List<LayoutEdge> edges = new ArrayList<>();
+        for (String hub : List.of("n2-3", "n0-0", "n5-7")) {
+            for (int i = 0; i < 25; i++) {
+                String target = nodes.get(random.nextInt(nodes.size())).id();
+                edges.add(new LayoutEdge(hub + "-e" + i, hub, target, null, null, null));
+            }
+        }
+        edges.addAll(randomEdges(nodes, 20, random));
+        return edges;
+    }
+
+    static List<LayoutEdge> randomEdges(List<PositionedNode> nodes, int count, Random random) {
+        List<LayoutEdge> edges = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PositionedNode from = nodes.get(random.nextInt(nodes.size()));
+            PositionedNode to = nodes.get(random.nextInt(nodes.size()));
+            edges.add(new LayoutEdge("e" + i, from.id(), to.id(), null, null, null));
+        }
+        return edges;
+    }
+}
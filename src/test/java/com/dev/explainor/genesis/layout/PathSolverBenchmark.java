@@ -0,0 +1,324 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.LayoutProperties;
+import com.dev.explainor.genesis.dto.StoryboardV1;
+import com.dev.explainor.genesis.layout.model.LayoutConstraints;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import com.dev.explainor.genesis.layout.model.RoutedEdge;
+import com.dev.explainor.genesis.service.LayoutModelFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compares expanded nodes, route length and wall time of the grid solvers, including on edges that cross the
+ * whole canvas, and the grid router against the visibility router at several grid steps, per-edge against
+ * shared fan-out routing, anytime routing under several per-route time budgets, flat against hierarchical
+ * search as the grid grows, and negotiated congestion routing with several pass limits. Not part of the
+ * regular test run; start it with {@code ./mvnw test -Dtest=PathSolverBenchmark}.
+ */
+class PathSolverBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PathSolverBenchmark.class);
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private final LayoutProperties properties = new LayoutProperties();
+    private final GridBuilder gridBuilder = new GridBuilder(properties);
+
+    @Test
+    void compareSolvers() throws IOException {
+        Map<String, PathSolver> solvers = new LinkedHashMap<>();
+        solvers.put("indexed-astar", new IndexedAStarPathSolver(50, 10000));
+        solvers.put("jump-point", new JumpPointSearchSolver(50, 10000));
+        solvers.put("bidirectional", new BidirectionalAStarPathSolver(50, 10000));
+
+        Scenario synthetic = syntheticScenario("synthetic-500", 500, 750, 25, new Random(500));
+        List<Scenario> scenarios = List.of(
+            storyboardScenario("test-obstacle"),
+            storyboardScenario("test-tree"),
+            synthetic,
+            new Scenario("synthetic-500-long", synthetic.nodes(), longEdges(synthetic, 200, new Random(12)), synthetic.constraints())
+        );
+
+        for (Scenario scenario : scenarios) {
+            GridBuilder.GridSpecification grid = gridBuilder.build(scenario.nodes(), scenario.constraints());
+            Long referenceLength = null;
+            for (Map.Entry<String, PathSolver> solver : solvers.entrySet()) {
+                Measurement measurement = measure(solver.getValue(), scenario, grid);
+                log.info("{} | {} | edges={} expanded={} routeLength={} avgMicros={}",
+                    scenario.name(), solver.getKey(), scenario.edges().size(), measurement.expanded(),
+                    measurement.routeLength(), measurement.nanos() / 1000 / MEASURED_ROUNDS);
+                if (referenceLength == null) {
+                    referenceLength = measurement.routeLength();
+                } else {
+                    assertEquals(referenceLength, measurement.routeLength(), solver.getKey() + " route length on " + scenario.name());
+                }
+            }
+        }
+    }
+
+    @Test
+    void compareRoutersAcrossGridSteps() {
+        Scenario scenario = syntheticScenario("synthetic-500", 500, 750, 25, new Random(500));
+        for (double gridStep : new double[]{40.0, 20.0, 10.0}) {
+            LayoutProperties stepProperties = new LayoutProperties();
+            stepProperties.setGridStep(gridStep);
+            Map<String, PathFinder> routers = new LinkedHashMap<>();
+            routers.put("grid", new PathFindingCoordinator(new GridBuilder(stepProperties), new IndexedAStarPathSolver(50, 10000)));
+            routers.put("visibility", new OrthogonalVisibilityRouter(stepProperties));
+            for (Map.Entry<String, PathFinder> router : routers.entrySet()) {
+                for (int round = 0; round < WARMUP_ROUNDS / 4; round++) {
+                    router.getValue().routeEdges(scenario.edges(), scenario.nodes(), scenario.constraints());
+                }
+                long started = System.nanoTime();
+                for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                    router.getValue().routeEdges(scenario.edges(), scenario.nodes(), scenario.constraints());
+                }
+                log.info("{} | {} | gridStep={} avgMicros={}", scenario.name(), router.getKey(), gridStep,
+                    (System.nanoTime() - started) / 1000 / MEASURED_ROUNDS);
+            }
+        }
+    }
+
+    @Test
+    void compareFanOutRouting() {
+        Scenario base = syntheticScenario("synthetic-500", 500, 0, 25, new Random(500));
+        compareFanOutRouting("hubs-10x40-spread", base, hubEdges(base, 25, new Random(40)));
+        compareFanOutRouting("hubs-10x40-local", base, hubEdges(base, 4, new Random(40)));
+    }
+
+    private void compareFanOutRouting(String name, Scenario base, List<LayoutEdge> edges) {
+        Map<String, PathFinder> routers = new LinkedHashMap<>();
+        routers.put("per-edge", new PathFindingCoordinator(gridBuilder, new IndexedAStarPathSolver(50, 10000)));
+        routers.put("fan-out", new PathFindingCoordinator(gridBuilder, new IndexedAStarPathSolver(50, 10000), 1, 4));
+        for (Map.Entry<String, PathFinder> router : routers.entrySet()) {
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                router.getValue().routeEdges(edges, base.nodes(), base.constraints());
+            }
+            long started = System.nanoTime();
+            double totalLength = 0;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                totalLength = router.getValue().routeEdges(edges, base.nodes(), base.constraints()).stream()
+                    .mapToDouble(RoutedEdge::pathLength).sum();
+            }
+            log.info("{} | {} | edges={} totalLength={} avgMicros={}", name, router.getKey(), edges.size(),
+                Math.round(totalLength), (System.nanoTime() - started) / 1000 / MEASURED_ROUNDS);
+        }
+    }
+
+    @Test
+    void compareRouteBudgets() {
+        Scenario scenario = syntheticScenario("synthetic-500", 500, 750, 25, new Random(500));
+        for (Duration budget : new Duration[]{Duration.ZERO, Duration.ofMillis(1), Duration.ofNanos(200_000), Duration.ofNanos(20_000)}) {
+            PathFinder router = new PathFindingCoordinator(gridBuilder, new AnytimePathSolver(50, 10000), 1, 0, budget, Duration.ZERO);
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                router.routeEdges(scenario.edges(), scenario.nodes(), scenario.constraints());
+            }
+            long started = System.nanoTime();
+            List<RoutedEdge> routed = null;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                routed = router.routeEdges(scenario.edges(), scenario.nodes(), scenario.constraints());
+            }
+            long elapsed = System.nanoTime() - started;
+            double worstBound = routed.stream().mapToDouble(RoutedEdge::suboptimalityBound)
+                .filter(bound -> !Double.isInfinite(bound)).max().orElse(1.0);
+            long fallbacks = routed.stream().filter(edge -> Double.isInfinite(edge.suboptimalityBound())).count();
+            long optimal = routed.stream().filter(edge -> edge.suboptimalityBound() == 1.0).count();
+            log.info("{} | anytime | budget={} optimal={} fallbacks={} worstBound={} totalLength={} avgMicros={}",
+                scenario.name(), budget, optimal, fallbacks, worstBound,
+                Math.round(routed.stream().mapToDouble(RoutedEdge::pathLength).sum()), elapsed / 1000 / MEASURED_ROUNDS);
+        }
+    }
+
+    @Test
+    void compareCongestionPasses() {
+        Scenario scenario = syntheticScenario("synthetic-100", 100, 150, 25, new Random(500));
+        OccupancyGrid occupancy = gridBuilder.build(scenario.nodes(), scenario.constraints()).occupancy();
+        for (int passes : new int[]{0, 2, 4, 8}) {
+            PathFinder router = new PathFindingCoordinator(gridBuilder, new IndexedAStarPathSolver(50, 10000), 1, 0,
+                Duration.ZERO, Duration.ZERO, passes);
+            for (int round = 0; round < WARMUP_ROUNDS / 4; round++) {
+                router.routeEdges(scenario.edges(), scenario.nodes(), scenario.constraints());
+            }
+            long started = System.nanoTime();
+            List<RoutedEdge> routed = null;
+            for (int round = 0; round < MEASURED_ROUNDS / 2; round++) {
+                routed = router.routeEdges(scenario.edges(), scenario.nodes(), scenario.constraints());
+            }
+            log.info("{} | negotiated | passes={} overlappingCells={} totalLength={} avgMicros={}", scenario.name(), passes,
+                PathFindingCoordinatorTest.overlappingCells(routed, gridBuilder, occupancy),
+                Math.round(routed.stream().mapToDouble(RoutedEdge::pathLength).sum()),
+                (System.nanoTime() - started) / 1000 / (MEASURED_ROUNDS / 2));
+        }
+    }
+
+    /**
+     * Grids are built inside the measured loop, so the hierarchical times include building the abstraction
+     * once per request.
+     */
+    @Test
+    void compareHierarchicalScaling() {
+        Scenario scenario = syntheticScenario("synthetic-500", 500, 750, 25, new Random(500));
+        for (double gridStep : new double[]{40.0, 20.0, 10.0, 5.0}) {
+            LayoutProperties stepProperties = new LayoutProperties();
+            stepProperties.setGridStep(gridStep);
+            GridBuilder stepGridBuilder = new GridBuilder(stepProperties);
+            Map<String, PathSolver> solvers = new LinkedHashMap<>();
+            solvers.put("indexed-astar", new IndexedAStarPathSolver(50, 10000));
+            solvers.put("hierarchical", new HierarchicalPathSolver(50, 10000, 16));
+            for (Map.Entry<String, PathSolver> solver : solvers.entrySet()) {
+                int rounds = gridStep < 10.0 ? 2 : MEASURED_ROUNDS;
+                for (int round = 0; round < (gridStep < 10.0 ? 2 : WARMUP_ROUNDS); round++) {
+                    routeScenario(solver.getValue(), scenario, stepGridBuilder);
+                }
+                long started = System.nanoTime();
+                long[] totals = null;
+                for (int round = 0; round < rounds; round++) {
+                    totals = routeScenario(solver.getValue(), scenario, stepGridBuilder);
+                }
+                GridBuilder.GridSpecification grid = stepGridBuilder.build(scenario.nodes(), scenario.constraints());
+                GridRect bounds = grid.occupancy().bounds();
+                log.info("{} | {} | gridStep={} cells={} fallbacks={} routeLength={} avgMicros={}", scenario.name(),
+                    solver.getKey(), gridStep, (long) (bounds.maxX() - bounds.minX() + 1) * (bounds.maxY() - bounds.minY() + 1),
+                    totals[0], totals[1], (System.nanoTime() - started) / 1000 / rounds);
+            }
+        }
+    }
+
+    /**
+     * Straight-line fallbacks and the total length of the other routes, on a grid built for this call.
+     */
+    private long[] routeScenario(PathSolver solver, Scenario scenario, GridBuilder stepGridBuilder) {
+        GridBuilder.GridSpecification grid = stepGridBuilder.build(scenario.nodes(), scenario.constraints());
+        Map<String, PositionedNode> index = new LinkedHashMap<>();
+        scenario.nodes().forEach(node -> index.put(node.id(), node));
+        long fallbacks = 0;
+        long length = 0;
+        for (LayoutEdge edge : scenario.edges()) {
+            PositionedNode from = index.get(edge.from());
+            PositionedNode to = index.get(edge.to());
+            SearchResult result = solver.search(stepGridBuilder.toGrid(from.x(), from.y()),
+                stepGridBuilder.toGrid(to.x(), to.y()), grid.occupancy());
+            if (result.found()) {
+                length += JumpPointSearchSolverTest.routeLength(result.path());
+            } else {
+                fallbacks++;
+            }
+        }
+        return new long[]{fallbacks, length};
+    }
+
+    /**
+     * Edges from the five leftmost to the five rightmost columns of the 25-column synthetic layout, between
+     * random rows, so each crosses most of the canvas.
+     */
+    private List<LayoutEdge> longEdges(Scenario base, int count, Random random) {
+        List<PositionedNode> nodes = base.nodes();
+        int rows = nodes.size() / 25;
+        List<LayoutEdge> edges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PositionedNode from = nodes.get(random.nextInt(rows) * 25 + random.nextInt(5));
+            PositionedNode to = nodes.get(random.nextInt(rows) * 25 + 20 + random.nextInt(5));
+            edges.add(new LayoutEdge("long" + i, from.id(), to.id(), null, null, null));
+        }
+        return edges;
+    }
+
+    /**
+     * Ten hubs with 40 edges each, to nodes at most {@code reach} columns and rows away from the hub in the
+     * 25-column synthetic layout.
+     */
+    private List<LayoutEdge> hubEdges(Scenario base, int reach, Random random) {
+        List<PositionedNode> nodes = base.nodes();
+        List<LayoutEdge> edges = new ArrayList<>();
+        for (int hub = 0; hub < 10; hub++) {
+            int source = random.nextInt(nodes.size());
+            for (int i = 0; i < 40; i++) {
+                int column = Math.floorMod(source % 25 + random.nextInt(2 * reach + 1) - reach, 25);
+                int row = Math.floorMod(source / 25 + random.nextInt(2 * reach + 1) - reach, nodes.size() / 25);
+                String target = nodes.get(row * 25 + column).id();
+                edges.add(new LayoutEdge(nodes.get(source).id() + "-" + i, nodes.get(source).id(), target, null, null, null));
+            }
+        }
+        return edges;
+    }
+
+    private Measurement measure(PathSolver solver, Scenario scenario, GridBuilder.GridSpecification grid) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            routeAll(solver, scenario, grid);
+        }
+        long started = System.nanoTime();
+        Measurement last = null;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            last = routeAll(solver, scenario, grid);
+        }
+        return new Measurement(last.expanded(), last.routeLength(), System.nanoTime() - started);
+    }
+
+    private Measurement routeAll(PathSolver solver, Scenario scenario, GridBuilder.GridSpecification grid) {
+        Map<String, PositionedNode> index = new LinkedHashMap<>();
+        scenario.nodes().forEach(node -> index.put(node.id(), node));
+        long expanded = 0;
+        long length = 0;
+        for (LayoutEdge edge : scenario.edges()) {
+            PositionedNode from = index.get(edge.from());
+            PositionedNode to = index.get(edge.to());
+            SearchResult result = solver.search(gridBuilder.toGrid(from.x(), from.y()), gridBuilder.toGrid(to.x(), to.y()), grid.occupancy());
+            expanded += result.expandedNodes();
+            length += JumpPointSearchSolverTest.routeLength(result.path());
+        }
+        return new Measurement(expanded, length, 0);
+    }
+
+    private Scenario storyboardScenario(String name) throws IOException {
+        try (InputStream input = getClass().getResourceAsStream("/" + name + ".storyboard.json")) {
+            assertNotNull(input, "Resource not found: " + name);
+            StoryboardV1 storyboard = new ObjectMapper().readValue(input, StoryboardV1.class);
+            LayoutModelFactory.LayoutModelResult model = new LayoutModelFactory().createLayoutModel(storyboard);
+            LayoutConstraints constraints = LayoutConstraints.standard();
+            List<PositionedNode> nodes = new GraphBasedLayoutManager(properties).layout(model.nodes(), model.edges(), constraints);
+            return new Scenario(name, nodes, model.edges(), constraints);
+        }
+    }
+
+    static Scenario syntheticScenario(String name, int nodeCount, int edgeCount, int columns, Random random) {
+        List<PositionedNode> nodes = new ArrayList<>(nodeCount);
+        int rows = (nodeCount + columns - 1) / columns;
+        for (int i = 0; i < nodeCount; i++) {
+            int column = i % columns;
+            int row = i / columns;
+            double x = 120 + column * 240.0 + random.nextInt(3) * 40.0;
+            double y = 100 + row * 180.0 + random.nextInt(2) * 40.0;
+            nodes.add(new PositionedNode("n" + i, "Node " + i, "server", x, y, 120, 80));
+        }
+        List<LayoutEdge> edges = new ArrayList<>(edgeCount);
+        for (int i = 0; i < edgeCount; i++) {
+            PositionedNode from = nodes.get(random.nextInt(nodeCount));
+            PositionedNode to = nodes.get(random.nextInt(nodeCount));
+            edges.add(new LayoutEdge("e" + i, from.id(), to.id(), null, null, null));
+        }
+        LayoutConstraints constraints = LayoutConstraints.create(columns * 240 + 240, rows * 180 + 200);
+        return new Scenario(name, nodes, edges, constraints);
+    }
+
+    record Scenario(String name, List<PositionedNode> nodes, List<LayoutEdge> edges, LayoutConstraints constraints) {
+    }
+
+    private record Measurement(long expanded, long routeLength, long nanos) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.dev.explainor.genesis.layout;
+
+import com.dev.explainor.genesis.config.LayoutProperties;
+import com.dev.explainor.genesis.layout.model.EntityGraph;
+import com.dev.explainor.genesis.layout.model.LayoutConstraints;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.LayoutNode;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class PlacementCacheTest {
+
+    private static final LayoutConstraints CANVAS = new LayoutConstraints(1280, 720);
+
+    @Test
+    void shouldReuseRepeatedComponentsWithoutChangingTheLayout() {
+        Storyboard first = fanOuts("a", 4);
+        Storyboard renamed = fanOuts("b", 4);
+        LayoutProperties cached = new LayoutProperties();
+        cached.setPackComponents(true);
+        cached.setPlacementCacheSize(16);
+        LayoutProperties uncached = new LayoutProperties();
+        uncached.setPackComponents(true);
+        GraphBasedLayoutManager manager = new GraphBasedLayoutManager(cached);
+
+        List<PositionedNode> expected = new GraphBasedLayoutManager(uncached).layout(first.nodes(), first.edges(), CANVAS);
+        List<PositionedNode> actual = manager.layout(first.nodes(), first.edges(), CANVAS);
+
+        assertEquals(expected, actual);
+        assertEquals(1, manager.placementCache().misses());
+        assertEquals(3, manager.placementCache().hits());
+
+        List<PositionedNode> again = manager.layout(renamed.nodes(), renamed.edges(), CANVAS);
+
+        assertEquals(7, manager.placementCache().hits());
+        assertEquals(1, manager.placementCache().size());
+        for (int i = 0; i < again.size(); i++) {
+            assertEquals(actual.get(i).x(), again.get(i).x(), 1e-9);
+            assertEquals(actual.get(i).y(), again.get(i).y(), 1e-9);
+        }
+    }
+
+    @Test
+    void shouldHitWhenTheSameShapeArrivesWithRenamedAndShuffledIds() {
+        Storyboard first = branches("a");
+        Storyboard renamed = branches("zz");
+        List<LayoutNode> shuffledNodes = new ArrayList<>(renamed.nodes());
+        List<LayoutEdge> shuffledEdges = new ArrayList<>(renamed.edges());
+        Collections.shuffle(shuffledNodes, new Random(7));
+        Collections.shuffle(shuffledEdges, new Random(11));
+        LayoutProperties properties = new LayoutProperties();
+        properties.setPlacementCacheSize(16);
+        GraphBasedLayoutManager manager = new GraphBasedLayoutManager(properties);
+
+        Map<String, PositionedNode> original = byId(manager.layout(first.nodes(), first.edges(), CANVAS));
+        Map<String, PositionedNode> again = byId(manager.layout(shuffledNodes, shuffledEdges, CANVAS));
+
+        assertEquals(1, manager.placementCache().misses());
+        assertEquals(1, manager.placementCache().hits());
+        original.forEach((id, node) -> {
+            PositionedNode twin = again.get("zz" + id.substring(1));
+            assertEquals(node.x(), twin.x(), 1e-9);
+            assertEquals(node.y(), twin.y(), 1e-9);
+        });
+    }
+
+    @Test
+    void shouldGiveRandomGraphsTheSameKeyInAnyOrder() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            List<LayoutNode> nodes = new ArrayList<>();
+            List<LayoutEdge> edges = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                nodes.add(new LayoutNode("n" + i, "Node", "server", null));
+            }
+            for (int i = 0; i < 60; i++) {
+                edges.add(new LayoutEdge("e" + i, "n" + random.nextInt(40), "n" + random.nextInt(40), null, null, null));
+            }
+            List<LayoutNode> shuffledNodes = new ArrayList<>(nodes);
+            List<LayoutEdge> shuffledEdges = new ArrayList<>(edges);
+            Collections.shuffle(shuffledNodes, random);
+            Collections.shuffle(shuffledEdges, random);
+
+            assertEquals(PlacementCache.CanonicalForm.of(EntityGraph.of(nodes, edges)).key(),
+                PlacementCache.CanonicalForm.of(EntityGraph.of(shuffledNodes, shuffledEdges)).key(), "seed " + seed);
+        }
+    }
+
+    @Test
+    void shouldCanonicalizeWideFanOutsInNearLinearTime() {
+        Storyboard star = fanOuts("s", 1);
+        List<LayoutNode> nodes = new ArrayList<>(star.nodes());
+        List<LayoutEdge> edges = new ArrayList<>(star.edges());
+        for (int leaf = 0; leaf < 20000; leaf++) {
+            nodes.add(new LayoutNode("leaf" + leaf, "Service", "server", null));
+            edges.add(new LayoutEdge("leaf" + leaf + "-edge", nodes.get(0).id(), "leaf" + leaf, null, null, null));
+        }
+        EntityGraph graph = EntityGraph.of(nodes, edges);
+
+        PlacementCache.CanonicalForm form = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> PlacementCache.CanonicalForm.of(graph));
+
+        assertEquals(nodes.size(), Arrays.stream(form.positions()).distinct().count());
+    }
+
+    private Storyboard branches(String prefix) {
+        List<LayoutNode> nodes = new ArrayList<>();
+        List<LayoutEdge> edges = new ArrayList<>();
+        for (String name : List.of("root", "x1", "x2", "x3", "y1", "y2", "z1")) {
+            nodes.add(new LayoutNode(prefix + name, name, "server", null));
+        }
+        String[][] links = {{"root", "x1"}, {"x1", "x2"}, {"x2", "x3"}, {"root", "y1"}, {"y1", "y2"}, {"root", "z1"}};
+        for (String[] link : links) {
+            edges.add(new LayoutEdge(prefix + link[0] + "-" + link[1], prefix + link[0], prefix + link[1],
+                null, null, null));
+        }
+        return new Storyboard(nodes, edges);
+    }
+
+    private Map<String, PositionedNode> byId(List<PositionedNode> nodes) {
+        return nodes.stream().collect(Collectors.toMap(PositionedNode::id, Function.identity()));
+    }
+
+    private Storyboard fanOuts(String prefix, int count) {
+        List<LayoutNode> nodes = new ArrayList<>();
+        List<LayoutEdge> edges = new ArrayList<>();
+        for (int component = 0; component < count; component++) {
+            String gateway = prefix + component + "gateway";
+            nodes.add(new LayoutNode(gateway, "Gateway", "server", null));
+            for (int service = 0; service < 3; service++) {
+                String id = prefix + component + "service" + service;
+                nodes.add(new LayoutNode(id, "Service", "server", null));
+                edges.add(new LayoutEdge(id + "-edge", gateway, id, null, null, null));
+            }
+        }
+        return new Storyboard(nodes, edges);
+    }
+
+    private record Storyboard(List<LayoutNode> nodes, List<LayoutEdge> edges) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.dev.explainor.genesis.layout.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EntityGraphTest {
+
+    @Test
+    void shouldInternIdsAndListEdgesPerNodeInEdgeOrder() {
+        List<LayoutNode> nodes = List.of(node("a"), node("b"), node("c"));
+        List<LayoutEdge> edges = List.of(edge("e0", "a", "c"), edge("e1", "b", "c"), edge("e2", "a", "b"), edge("e3", "a", "c"));
+
+        EntityGraph graph = EntityGraph.of(nodes, edges);
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(4, graph.edgeCount());
+        assertEquals(1, graph.indexOf("b"));
+        assertEquals(-1, graph.indexOf("missing"));
+        assertEquals("c", graph.id(2));
+        assertEquals(3, graph.outDegree(0));
+        assertEquals(List.of(0, 2, 3), outEdges(graph, 0));
+        assertEquals(3, graph.inDegree(2));
+        assertEquals(0, graph.edgeBetween(0, 2));
+        assertEquals(2, graph.edgeBetween(0, 1));
+        assertEquals(-1, graph.edgeBetween(2, 0));
+        assertEquals(-1, graph.edgeBetween(-1, 0));
+    }
+
+    @Test
+    void shouldSplitWeakComponentsAndKeepInducedEdges() {
+        List<LayoutNode> nodes = List.of(node("a"), node("b"), node("c"), node("d"), node("e"));
+        List<LayoutEdge> edges = List.of(edge("e0", "c", "a"), edge("e1", "d", "e"), edge("e2", "e", "a"));
+
+        EntityGraph graph = EntityGraph.of(nodes, edges);
+        int[] components = graph.weakComponents();
+        EntityGraph subgraph = graph.subgraph(new int[]{4, 3});
+
+        assertArrayEquals(new int[]{0, 1, 0, 0, 0}, components);
+        assertEquals(2, subgraph.nodeCount());
+        assertEquals(1, subgraph.edgeCount());
+        assertEquals(0, subgraph.indexOf("e"));
+        assertEquals(0, subgraph.edgeBetween(1, 0));
+    }
+
+    @Test
+    void shouldResolveDuplicateIdsToTheLastOccurrence() {
+        List<LayoutNode> nodes = List.of(node("a"), node("b"), node("a"));
+        List<LayoutEdge> edges = List.of(edge("e0", "b", "a"));
+
+        EntityGraph graph = EntityGraph.of(nodes, edges);
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(2, graph.indexOf("a"));
+        assertEquals("a", graph.id(0));
+        assertEquals(0, graph.inDegree(0));
+        assertEquals(0, graph.edgeBetween(1, 2));
+    }
+
+    @Test
+    void shouldRejectEdgesToUnknownNodes() {
+        List<LayoutNode> nodes = List.of(node("a"));
+        List<LayoutEdge> edges = List.of(edge("e0", "a", "b"));
+
+        assertThrows(IllegalArgumentException.class, () -> EntityGraph.of(nodes, edges));
+    }
+
+    private List<Integer> outEdges(EntityGraph graph, int node) {
+        List<Integer> result = new ArrayList<>();
+        for (int slot = graph.outStart(node); slot < graph.outStart(node + 1); slot++) {
+            result.add(graph.outEdge(slot));
+        }
+        return result;
+    }
+
+    private LayoutNode node(String id) {
+        return new LayoutNode(id, id, "server", null);
+    }
+
+    private LayoutEdge edge(String id, String from, String to) {
+        return new LayoutEdge(id, from, to, null, null, null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.dev.explainor.genesis.service;
+
+import com.dev.explainor.genesis.domain.AnimateBehaviorCommand;
+import com.dev.explainor.genesis.domain.AnimateBehaviorParams;
+import com.dev.explainor.genesis.domain.Point;
+import com.dev.explainor.genesis.dto.AnimationSegment;
+import com.dev.explainor.genesis.dto.AnimationTrack;
+import com.dev.explainor.genesis.dto.SegmentBuffer;
+import com.dev.explainor.genesis.layout.model.EntityGraph;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.LayoutNode;
+import com.dev.explainor.genesis.layout.model.LayoutResult;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import com.dev.explainor.genesis.layout.model.RoutedEdge;
+import com.dev.explainor.genesis.timing.TimingInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnimationTrackFactoryTest {
+
+    private final AnimationTrackFactory factory = new AnimationTrackFactory();
+    private final LayoutResult layoutResult = new LayoutResult(
+        List.of(new PositionedNode("a", "A", "server", 0.0, 0.0, 120.0, 80.0),
+            new PositionedNode("b", "B", "server", 300.0, 400.0, 120.0, 80.0)),
+        List.of(new RoutedEdge("a-b", "a", "b", null, null, List.of(new Point(300.0, 0.0)),
+            new Point(0.0, 0.0), new Point(300.0, 400.0), 700.0, null, 1.0)),
+        EntityGraph.of(List.of(new LayoutNode("a", "A", "server", null), new LayoutNode("b", "B", "server", null)),
+            List.of(new LayoutEdge("a-b", "a", "b", null, null, null))));
+
+    @Test
+    void flowShouldEaseEachLegOverItsShareOfTheDuration() {
+        AnimationTrack track = createTrack(new AnimateBehaviorCommand("flow", AnimateBehaviorParams.flow("a", "b")));
+        SegmentBuffer segments = (SegmentBuffer) track.segments();
+
+        assertEquals(SegmentBuffer.Kind.PATH, segments.kind(1));
+        assertEquals("easeInOutQuint", segments.easing(1));
+        assertEquals(1.0, segments.startTime(1));
+        assertEquals(4.5, segments.endTime(1));
+        AnimationSegment.Path path = (AnimationSegment.Path) segments.get(1).motion();
+        assertEquals(List.of(0.0, 300.0, 700.0), path.lengths());
+        double firstLegEnd = 1.0 + path.lengths().get(1) / path.lengths().get(2) * (segments.endTime(1) - segments.startTime(1));
+        assertEquals(2.5, firstLegEnd, 1e-9);
+    }
+
+    @Test
+    void orbitShouldEaseEachOfSixtySteps() {
+        AnimationTrack track = createTrack(new AnimateBehaviorCommand("orbit", AnimateBehaviorParams.orbit("b", 3.0)));
+        SegmentBuffer segments = (SegmentBuffer) track.segments();
+
+        assertEquals(SegmentBuffer.Kind.ARC, segments.kind(1));
+        assertEquals("easeInOutQuint", segments.easing(1));
+        assertEquals(4.0, segments.endTime(1));
+        AnimationSegment.Arc arc = (AnimationSegment.Arc) segments.get(1).motion();
+        assertEquals(new AnimationSegment.PositionValue(300.0, 400.0), arc.center());
+        assertEquals(2 * Math.PI, arc.endAngle());
+        assertEquals(60, arc.steps());
+    }
+
+    private AnimationTrack createTrack(AnimateBehaviorCommand command) {
+        List<AnimationTrack> tracks = factory.createTracks(command, TimingInfo.of(1.0, 0.0), layoutResult);
+        assertEquals(1, tracks.size());
+        return tracks.get(0);
+    }
+}
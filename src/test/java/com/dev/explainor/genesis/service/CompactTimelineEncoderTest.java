@@ -0,0 +1,79 @@
+package com.dev.explainor.genesis.service;
+
+import com.dev.explainor.genesis.config.TimelineEncodingProperties;
+import com.dev.explainor.genesis.dto.CompactTimelineV1;
+import com.dev.explainor.genesis.dto.FinalTimelineV1;
+import com.dev.explainor.genesis.dto.StoryboardV1;
+import com.dev.explainor.genesis.dto.TimelineEdge;
+import com.dev.explainor.genesis.dto.TimelineEncoding;
+import com.dev.explainor.genesis.dto.TimelineNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "anthropic.api.key=test-key",
+    "renderer.url=http://localhost:3030"
+})
+class CompactTimelineEncoderTest {
+
+    @Autowired
+    private GenesisConductorService conductorService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void sharesStylesAndRoundsCoordinates() throws IOException {
+        FinalTimelineV1 timeline = conductorService.choreograph(loadStoryboard("/test-stage4.storyboard.json"));
+        CompactTimelineV1 compact = encoder(1).encode(timeline);
+
+        assertEquals("compact", compact.encoding());
+        assertEquals(1, compact.precision());
+        assertTrue(compact.styles().size() < timeline.nodes().size() + timeline.edges().size());
+        for (int i = 0; i < timeline.nodes().size(); i++) {
+            TimelineNode node = timeline.nodes().get(i);
+            CompactTimelineV1.Node encoded = compact.nodes().get(i);
+            assertEquals(node.visualStyle(), compact.styles().get(encoded.style()));
+            assertEquals(node.x(), encoded.x(), 0.05);
+            assertEquals(encoded.x(), Math.round(encoded.x() * 10) / 10.0);
+        }
+        for (int i = 0; i < timeline.edges().size(); i++) {
+            TimelineEdge edge = timeline.edges().get(i);
+            CompactTimelineV1.Edge encoded = compact.edges().get(i);
+            assertEquals(edge.edgeStyle(), compact.styles().get(encoded.style()));
+            assertEquals(edge.path().size(), encoded.path().size());
+        }
+        assertEquals(timeline.tracks().size(), compact.tracks().size());
+        assertTrue(objectMapper.writeValueAsBytes(compact).length < objectMapper.writeValueAsBytes(timeline).length);
+    }
+
+    @Test
+    void leavesTheFullEncodingUntouched() throws IOException {
+        FinalTimelineV1 timeline = conductorService.choreograph(loadStoryboard("/test-obstacle.storyboard.json"));
+
+        assertSame(timeline, encoder(2).encode(timeline, TimelineEncoding.fromHeader(null)));
+        assertSame(timeline, encoder(2).encode(timeline, TimelineEncoding.fromHeader("gzip")));
+        assertInstanceOf(CompactTimelineV1.class, encoder(2).encode(timeline, TimelineEncoding.fromHeader(" Compact ")));
+    }
+
+    private CompactTimelineEncoder encoder(int precision) {
+        TimelineEncodingProperties properties = new TimelineEncodingProperties();
+        properties.setPrecision(precision);
+        return new CompactTimelineEncoder(properties);
+    }
+
+    private StoryboardV1 loadStoryboard(String resourcePath) throws IOException {
+        try (InputStream is = getClass().getResourceAsStream(resourcePath)) {
+            assertNotNull(is, "Resource not found: " + resourcePath);
+            return objectMapper.readValue(is, StoryboardV1.class);
+        }
+    }
+}
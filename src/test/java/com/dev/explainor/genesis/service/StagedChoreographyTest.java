@@ -0,0 +1,107 @@
+package com.dev.explainor.genesis.service;
+
+import com.dev.explainor.genesis.config.ChoreographyProperties;
+import com.dev.explainor.genesis.domain.Command;
+import com.dev.explainor.genesis.domain.ConnectEntitiesCommand;
+import com.dev.explainor.genesis.domain.ConnectEntitiesParams;
+import com.dev.explainor.genesis.domain.CreateEntityCommand;
+import com.dev.explainor.genesis.domain.CreateEntityParams;
+import com.dev.explainor.genesis.dto.StoryboardV1;
+import com.dev.explainor.genesis.layout.LayoutManager;
+import com.dev.explainor.genesis.layout.PathFinder;
+import com.dev.explainor.genesis.validation.StoryboardValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "anthropic.api.key=test-key",
+    "renderer.url=http://localhost:3030"
+})
+class StagedChoreographyTest {
+
+    @Autowired
+    private StoryboardValidator storyboardValidator;
+    @Autowired
+    private LayoutModelFactory layoutModelFactory;
+    @Autowired
+    private LayoutManager layoutManager;
+    @Autowired
+    private PathFinder pathFinder;
+    @Autowired
+    private TimelineEnricher timelineEnricher;
+    @Autowired
+    private TimelineFactory timelineFactory;
+    @Autowired
+    private StylingService stylingService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void stagedModeBuildsTheSameTimelineAsSequentialMode() throws IOException {
+        List<StoryboardV1> storyboards = List.of(
+            loadStoryboard("/test-stage4.storyboard.json"),
+            loadStoryboard("/test-obstacle.storyboard.json"),
+            chainStoryboard(60));
+
+        try (GenesisConductorService sequential = service(ChoreographyProperties.ExecutionMode.SEQUENTIAL);
+             GenesisConductorService staged = service(ChoreographyProperties.ExecutionMode.STAGED)) {
+            for (StoryboardV1 storyboard : storyboards) {
+                String expected = objectMapper.writeValueAsString(sequential.choreograph(storyboard));
+                String actual = objectMapper.writeValueAsString(staged.choreograph(storyboard));
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    void reportsTheTimeOfEveryStage() throws IOException {
+        try (GenesisConductorService staged = service(ChoreographyProperties.ExecutionMode.STAGED)) {
+            GenesisConductorService.TimedTimeline result =
+                staged.choreographTimed(loadStoryboard("/test-stage4.storyboard.json"));
+
+            StageTimings timings = result.timings();
+            assertEquals(StageTimings.Step.values().length, timings.stages().size());
+            assertTrue(timings.stage(StageTimings.Step.LAYOUT).toNanos() > 0);
+            assertTrue(timings.stage(StageTimings.Step.ROUTE).toNanos() > 0);
+            assertFalse(timings.total().isNegative());
+            assertFalse(timings.saved().isNegative());
+        }
+    }
+
+    private GenesisConductorService service(ChoreographyProperties.ExecutionMode mode) {
+        ChoreographyProperties properties = new ChoreographyProperties();
+        properties.setMode(mode);
+        return new GenesisConductorService(storyboardValidator, layoutModelFactory, layoutManager, pathFinder,
+            timelineEnricher, timelineFactory, stylingService, properties);
+    }
+
+    private StoryboardV1 chainStoryboard(int length) {
+        List<Command> commands = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            commands.add(new CreateEntityCommand("n" + i, new CreateEntityParams("Node " + i, "server", null, null)));
+        }
+        for (int i = 1; i < length; i++) {
+            ConnectEntitiesParams params = new ConnectEntitiesParams("n" + (i - 1), "n" + i, null, null, null, null);
+            commands.add(new ConnectEntitiesCommand("e" + i, params));
+        }
+        return StoryboardV1.create(commands);
+    }
+
+    private StoryboardV1 loadStoryboard(String resourcePath) throws IOException {
+        try (InputStream is = getClass().getResourceAsStream(resourcePath)) {
+            assertNotNull(is, "Resource not found: " + resourcePath);
+            return objectMapper.readValue(is, StoryboardV1.class);
+        }
+    }
+}
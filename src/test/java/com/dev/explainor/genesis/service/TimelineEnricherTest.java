@@ -0,0 +1,68 @@
+package com.dev.explainor.genesis.service;
+
+import com.dev.explainor.genesis.config.ChoreographyProperties;
+import com.dev.explainor.genesis.domain.Command;
+import com.dev.explainor.genesis.domain.ConnectEntitiesCommand;
+import com.dev.explainor.genesis.domain.ConnectEntitiesParams;
+import com.dev.explainor.genesis.domain.CreateEntityCommand;
+import com.dev.explainor.genesis.domain.CreateEntityParams;
+import com.dev.explainor.genesis.domain.FocusOnCommand;
+import com.dev.explainor.genesis.domain.FocusOnParams;
+import com.dev.explainor.genesis.dto.AnimationTrack;
+import com.dev.explainor.genesis.dto.StoryboardV1;
+import com.dev.explainor.genesis.layout.model.EntityGraph;
+import com.dev.explainor.genesis.layout.model.LayoutEdge;
+import com.dev.explainor.genesis.layout.model.LayoutNode;
+import com.dev.explainor.genesis.layout.model.LayoutResult;
+import com.dev.explainor.genesis.layout.model.PositionedNode;
+import com.dev.explainor.genesis.timing.DefaultTimingProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimelineEnricherTest {
+
+    @Test
+    void parallelTrackGenerationKeepsCommandOrder() {
+        int count = 1500;
+        List<Command> commands = new ArrayList<>();
+        List<LayoutNode> nodes = new ArrayList<>();
+        List<PositionedNode> positionedNodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            commands.add(new CreateEntityCommand("n" + i, new CreateEntityParams("Node " + i, "server", null, null)));
+            nodes.add(new LayoutNode("n" + i, "Node " + i, "server", null));
+            positionedNodes.add(new PositionedNode("n" + i, "Node " + i, "server", i * 10.0, i * 5.0, 120.0, 80.0));
+        }
+        for (int i = 1; i < count; i++) {
+            ConnectEntitiesParams params = new ConnectEntitiesParams("n" + (i - 1), "n" + i, null, null, null, null);
+            commands.add(new ConnectEntitiesCommand("e" + i, params));
+            if (i % 7 == 0) {
+                commands.add(new FocusOnCommand("f" + i, new FocusOnParams("n" + i, null, null, null, null, null)));
+            }
+        }
+        StoryboardV1 storyboard = StoryboardV1.create(commands);
+        List<LayoutEdge> edges = List.of();
+        LayoutResult layoutResult = new LayoutResult(positionedNodes, List.of(), EntityGraph.of(nodes, edges));
+
+        List<AnimationTrack> expected;
+        try (TimelineEnricher sequential = enricher(1)) {
+            expected = sequential.enrichWithAnimations(storyboard, layoutResult);
+        }
+        try (TimelineEnricher parallel = enricher(4)) {
+            assertEquals(expected, parallel.enrichWithAnimations(storyboard, layoutResult));
+
+            List<AnimationTrack> streamed = new ArrayList<>();
+            parallel.streamAnimations(storyboard, layoutResult, parallel.calculateTimings(storyboard), streamed::add);
+            assertEquals(expected, streamed);
+        }
+    }
+
+    private TimelineEnricher enricher(int trackParallelism) {
+        ChoreographyProperties properties = new ChoreographyProperties();
+        properties.setTrackParallelism(trackParallelism);
+        return new TimelineEnricher(new DefaultTimingProvider(), new AnimationTrackFactory(), properties);
+    }
+}